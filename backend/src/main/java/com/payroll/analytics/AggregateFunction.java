@@ -0,0 +1,18 @@
+package com.payroll.analytics;
+
+import java.util.Locale;
+
+public enum AggregateFunction {
+    COUNT, SUM, AVG, MIN, MAX;
+
+    public static AggregateFunction fromName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Aggregate function is required");
+        }
+        try {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown aggregate function: " + name);
+        }
+    }
+}
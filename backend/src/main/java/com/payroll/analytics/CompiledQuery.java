@@ -0,0 +1,192 @@
+package com.payroll.analytics;
+
+import com.payroll.dto.analytics.AnalyticsQueryRequest;
+import com.payroll.enums.Role;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Validated, execution-ready form of an {@link AnalyticsQueryRequest}.
+ * Field names are resolved once here so the per-row loop only works with enums and arrays.
+ * Filter values are converted to their column types up front; the filters themselves run in the
+ * database query, so only matching rows are loaded and counted against the row budget.
+ */
+public final class CompiledQuery {
+    
+    private final Dimension[] groupBy;
+    private final AggregateFunction[] functions;
+    private final Measure[] measures;
+    private final List<DimensionFilter> dimensionFilters;
+    private final List<MeasureFilter> measureFilters;
+    
+    private CompiledQuery(Dimension[] groupBy, AggregateFunction[] functions, Measure[] measures,
+                          List<DimensionFilter> dimensionFilters, List<MeasureFilter> measureFilters) {
+        this.groupBy = groupBy;
+        this.functions = functions;
+        this.measures = measures;
+        this.dimensionFilters = dimensionFilters;
+        this.measureFilters = measureFilters;
+    }
+    
+    public static CompiledQuery compile(AnalyticsQueryRequest request) {
+        List<String> groupByNames = request.getGroupBy() != null ? request.getGroupBy() : List.of();
+        Dimension[] groupBy = new Dimension[groupByNames.size()];
+        for (int i = 0; i < groupBy.length; i++) {
+            groupBy[i] = Dimension.fromName(groupByNames.get(i));
+        }
+        
+        List<AnalyticsQueryRequest.Aggregate> aggregates = request.getAggregates();
+        if (aggregates == null || aggregates.isEmpty()) {
+            throw new IllegalArgumentException("At least one aggregate is required");
+        }
+        AggregateFunction[] functions = new AggregateFunction[aggregates.size()];
+        Measure[] measures = new Measure[aggregates.size()];
+        for (int i = 0; i < functions.length; i++) {
+            AnalyticsQueryRequest.Aggregate aggregate = aggregates.get(i);
+            functions[i] = AggregateFunction.fromName(aggregate.getFunction());
+            if (functions[i] != AggregateFunction.COUNT) {
+                if (aggregate.getField() == null) {
+                    throw new IllegalArgumentException(functions[i] + " requires a field");
+                }
+                measures[i] = Measure.fromName(aggregate.getField());
+            }
+        }
+        
+        List<DimensionFilter> dimensionFilters = new ArrayList<>();
+        List<MeasureFilter> measureFilters = new ArrayList<>();
+        if (request.getFilters() != null) {
+            for (AnalyticsQueryRequest.Filter spec : request.getFilters()) {
+                if (Measure.isMeasure(spec.getField())) {
+                    measureFilters.add(new MeasureFilter(Measure.fromName(spec.getField()), spec.getMin(), spec.getMax()));
+                } else {
+                    dimensionFilters.add(compileDimensionFilter(spec));
+                }
+            }
+        }
+        
+        return new CompiledQuery(groupBy, functions, measures, List.copyOf(dimensionFilters), List.copyOf(measureFilters));
+    }
+    
+    private static DimensionFilter compileDimensionFilter(AnalyticsQueryRequest.Filter spec) {
+        Dimension dimension = Dimension.fromName(spec.getField());
+        if (spec.getValues() == null || spec.getValues().isEmpty()) {
+            throw new IllegalArgumentException("Filter on " + spec.getField() + " requires at least one value");
+        }
+        List<Object> values = new ArrayList<>();
+        for (String value : spec.getValues()) {
+            if (value == null) {
+                throw new IllegalArgumentException("Filter on " + spec.getField() + " contains a null value");
+            }
+            values.add(parseValue(dimension, value.trim()));
+        }
+        return new DimensionFilter(dimension, List.copyOf(values));
+    }
+    
+    /**
+     * Converts a filter value to the type of the dimension's column. Department names are lowercased
+     * for a case-insensitive match; tax brackets accept "10" as well as "10%".
+     */
+    private static Object parseValue(Dimension dimension, String value) {
+        try {
+            switch (dimension) {
+                case DEPARTMENT:
+                    return value.toLowerCase(Locale.ROOT);
+                case ROLE:
+                    return Role.valueOf(value.toUpperCase(Locale.ROOT));
+                case ACTIVE:
+                    if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                        throw new IllegalArgumentException(value);
+                    }
+                    return Boolean.valueOf(value);
+                case MONTH:
+                case YEAR:
+                case HIRE_YEAR:
+                    return Integer.valueOf(value);
+                case TAX_BRACKET:
+                    return new BigDecimal(value.endsWith("%") ? value.substring(0, value.length() - 1) : value);
+                default:
+                    throw new IllegalStateException("Unsupported dimension: " + dimension);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + camelCase(dimension.name()) + " filter value: " + value);
+        }
+    }
+    
+    public List<DimensionFilter> getDimensionFilters() {
+        return dimensionFilters;
+    }
+    
+    public List<MeasureFilter> getMeasureFilters() {
+        return measureFilters;
+    }
+    
+    public List<Object> groupKey(PayrollFact fact) {
+        Object[] key = new Object[groupBy.length];
+        for (int i = 0; i < groupBy.length; i++) {
+            key[i] = groupBy[i].extract(fact);
+        }
+        return Arrays.asList(key);
+    }
+    
+    public GroupAccumulator newAccumulator() {
+        return new GroupAccumulator(measures);
+    }
+    
+    public Dimension[] getGroupBy() {
+        return groupBy;
+    }
+    
+    public AggregateFunction[] getFunctions() {
+        return functions;
+    }
+    
+    public Measure[] getMeasures() {
+        return measures;
+    }
+    
+    public List<String> aggregateLabels() {
+        List<String> labels = new ArrayList<>(functions.length);
+        for (int i = 0; i < functions.length; i++) {
+            labels.add(label(i));
+        }
+        return labels;
+    }
+    
+    public String label(int index) {
+        String function = functions[index].name().toLowerCase(Locale.ROOT);
+        if (measures[index] == null) {
+            return function;
+        }
+        return function + "_" + camelCase(measures[index].name());
+    }
+    
+    public static String camelCase(String constant) {
+        StringBuilder result = new StringBuilder();
+        boolean upper = false;
+        for (char c : constant.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                result.append(upper ? Character.toUpperCase(c) : c);
+                upper = false;
+            }
+        }
+        return result.toString();
+    }
+    
+    /**
+     * Rows whose dimension takes one of {@code values}, already converted to the column's type.
+     */
+    public record DimensionFilter(Dimension dimension, List<Object> values) {
+    }
+    
+    /**
+     * Rows whose measure lies in the inclusive range; a missing bound is open. Null columns count as zero.
+     */
+    public record MeasureFilter(Measure measure, BigDecimal min, BigDecimal max) {
+    }
+}
@@ -0,0 +1,48 @@
+package com.payroll.analytics;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Columns a payroll query can group or filter by.
+ */
+public enum Dimension {
+
+    DEPARTMENT(f -> f.departmentName() != null ? f.departmentName() : "Unassigned"),
+    ROLE(f -> f.role() != null ? f.role().name() : "UNKNOWN"),
+    ACTIVE(f -> Boolean.TRUE.equals(f.active())),
+    MONTH(PayrollFact::month),
+    YEAR(PayrollFact::year),
+    HIRE_YEAR(f -> f.hireDate() != null ? f.hireDate().getYear() : null),
+    TAX_BRACKET(f -> f.taxPercent() != null ? f.taxPercent().stripTrailingZeros().toPlainString() + "%" : "0%");
+
+    private final Function<PayrollFact, Object> extractor;
+
+    Dimension(Function<PayrollFact, Object> extractor) {
+        this.extractor = extractor;
+    }
+
+    public Object extract(PayrollFact fact) {
+        return extractor.apply(fact);
+    }
+
+    /**
+     * Accepts "department", "hireYear", "hire_year" or "HIRE_YEAR" style names.
+     */
+    public static Dimension fromName(String name) {
+        String normalized = normalize(name);
+        for (Dimension dimension : values()) {
+            if (normalize(dimension.name()).equals(normalized)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Unknown dimension: " + name);
+    }
+
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+    }
+}
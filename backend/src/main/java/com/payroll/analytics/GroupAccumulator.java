@@ -0,0 +1,73 @@
+package com.payroll.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Partial aggregate state for one group. Count, sum, min and max are all mergeable,
+ * so fork/join leaves can aggregate independently and be combined afterwards.
+ */
+public final class GroupAccumulator {
+    
+    private final Measure[] measures;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+    private long count;
+    
+    GroupAccumulator(Measure[] measures) {
+        this.measures = measures;
+        this.sums = new double[measures.length];
+        this.mins = new double[measures.length];
+        this.maxs = new double[measures.length];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+    }
+    
+    public void add(PayrollFact fact) {
+        count++;
+        for (int i = 0; i < measures.length; i++) {
+            if (measures[i] == null) {
+                continue;
+            }
+            double value = measures[i].extract(fact);
+            sums[i] += value;
+            if (value < mins[i]) {
+                mins[i] = value;
+            }
+            if (value > maxs[i]) {
+                maxs[i] = value;
+            }
+        }
+    }
+    
+    public GroupAccumulator merge(GroupAccumulator other) {
+        count += other.count;
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] += other.sums[i];
+            mins[i] = Math.min(mins[i], other.mins[i]);
+            maxs[i] = Math.max(maxs[i], other.maxs[i]);
+        }
+        return this;
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public double result(AggregateFunction function, int index) {
+        switch (function) {
+            case COUNT:
+                return count;
+            case SUM:
+                return sums[index];
+            case AVG:
+                return count > 0 ? sums[index] / count : 0d;
+            case MIN:
+                return count > 0 ? mins[index] : 0d;
+            case MAX:
+                return count > 0 ? maxs[index] : 0d;
+            default:
+                throw new IllegalStateException("Unsupported aggregate: " + function);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.payroll.analytics;
+
+import com.payroll.exception.QueryBudgetExceededException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Splits the fact array in halves until a slice is small enough to scan, then merges the
+ * per-slice group maps on the way back up.
+ */
+public class GroupByTask extends RecursiveTask<Map<List<Object>, GroupAccumulator>> {
+    
+    static final int SEQUENTIAL_THRESHOLD = 4096;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+    
+    private final PayrollFact[] facts;
+    private final int from;
+    private final int to;
+    private final CompiledQuery query;
+    private final long deadlineNanos;
+    
+    public GroupByTask(PayrollFact[] facts, int from, int to, CompiledQuery query, long deadlineNanos) {
+        this.facts = facts;
+        this.from = from;
+        this.to = to;
+        this.query = query;
+        this.deadlineNanos = deadlineNanos;
+    }
+    
+    @Override
+    protected Map<List<Object>, GroupAccumulator> compute() {
+        if (to - from <= SEQUENTIAL_THRESHOLD) {
+            return scan();
+        }
+        
+        int mid = (from + to) >>> 1;
+        GroupByTask left = new GroupByTask(facts, from, mid, query, deadlineNanos);
+        GroupByTask right = new GroupByTask(facts, mid, to, query, deadlineNanos);
+        left.fork();
+        Map<List<Object>, GroupAccumulator> rightResult = right.compute();
+        Map<List<Object>, GroupAccumulator> leftResult = left.join();
+        return merge(leftResult, rightResult);
+    }
+    
+    private Map<List<Object>, GroupAccumulator> scan() {
+        Map<List<Object>, GroupAccumulator> groups = new HashMap<>();
+        for (int i = from; i < to; i++) {
+            if ((i - from) % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                throw new QueryBudgetExceededException("Analytics query exceeded its time budget");
+            }
+            PayrollFact fact = facts[i];
+            groups.computeIfAbsent(query.groupKey(fact), key -> query.newAccumulator()).add(fact);
+        }
+        return groups;
+    }
+    
+    private static Map<List<Object>, GroupAccumulator> merge(Map<List<Object>, GroupAccumulator> left,
+                                                             Map<List<Object>, GroupAccumulator> right) {
+        Map<List<Object>, GroupAccumulator> larger = left.size() >= right.size() ? left : right;
+        Map<List<Object>, GroupAccumulator> smaller = larger == left ? right : left;
+        smaller.forEach((key, partial) -> larger.merge(key, partial, GroupAccumulator::merge));
+        return larger;
+    }
+}
@@ -0,0 +1,49 @@
+package com.payroll.analytics;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Numeric salary columns a payroll query can aggregate or range-filter.
+ */
+public enum Measure {
+
+    BASIC_SALARY(PayrollFact::basicSalary),
+    ALLOWANCES(PayrollFact::allowances),
+    DEDUCTIONS(PayrollFact::deductions),
+    TAX_PERCENT(PayrollFact::taxPercent),
+    GROSS_SALARY(PayrollFact::grossSalary),
+    TAX_AMOUNT(PayrollFact::taxAmount),
+    NET_SALARY(PayrollFact::netSalary);
+
+    private final Function<PayrollFact, BigDecimal> extractor;
+
+    Measure(Function<PayrollFact, BigDecimal> extractor) {
+        this.extractor = extractor;
+    }
+
+    public double extract(PayrollFact fact) {
+        BigDecimal value = extractor.apply(fact);
+        return value != null ? value.doubleValue() : 0d;
+    }
+
+    public static Measure fromName(String name) {
+        String normalized = Dimension.normalize(name);
+        for (Measure measure : values()) {
+            if (Dimension.normalize(measure.name()).equals(normalized)) {
+                return measure;
+            }
+        }
+        throw new IllegalArgumentException("Unknown measure: " + name);
+    }
+
+    public static boolean isMeasure(String name) {
+        String normalized = Dimension.normalize(name);
+        for (Measure measure : values()) {
+            if (Dimension.normalize(measure.name()).equals(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
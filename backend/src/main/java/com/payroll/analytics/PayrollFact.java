@@ -0,0 +1,28 @@
+package com.payroll.analytics;
+
+import com.payroll.enums.Role;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Flat, read-only view of one salary record joined with its employee and department.
+ * Loaded with a single constructor-expression query so the query engine never touches entities.
+ */
+public record PayrollFact(
+        Long salaryId,
+        Long employeeId,
+        String departmentName,
+        Role role,
+        Boolean active,
+        LocalDate hireDate,
+        Integer month,
+        Integer year,
+        BigDecimal basicSalary,
+        BigDecimal allowances,
+        BigDecimal deductions,
+        BigDecimal taxPercent,
+        BigDecimal grossSalary,
+        BigDecimal taxAmount,
+        BigDecimal netSalary) {
+}
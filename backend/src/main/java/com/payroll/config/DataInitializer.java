@@ -18,8 +18,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -39,6 +41,7 @@ public class DataInitializer implements CommandLineRunner {
     private PasswordEncoder passwordEncoder;
     
     private final Random random = new Random();
+    private final Set<String> usedCodes = new HashSet<>();
     
     @Override
     public void run(String... args) throws Exception {
@@ -280,6 +283,11 @@ public class DataInitializer implements CommandLineRunner {
 
     private String generateEmployeeCode(Department department) {
         String deptCode = department.getDeptName().substring(0, Math.min(3, department.getDeptName().length())).toUpperCase();
-        return deptCode + String.format("%04d", random.nextInt(9999) + 1);
+        String code;
+        // Employee codes are unique; draw again if the random suffix was already used
+        do {
+            code = deptCode + String.format("%04d", random.nextInt(9999) + 1);
+        } while (!usedCodes.add(code));
+        return code;
     }
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package com.payroll.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class GeminiConfig {
@@ -14,9 +20,51 @@ public class GeminiConfig {
     @Value("${gemini.api.url}")
     private String apiUrl;
     
+    @Value("${gemini.client.max-connections:50}")
+    private int maxConnections;
+    
+    @Value("${gemini.client.pending-acquire-max:100}")
+    private int pendingAcquireMax;
+    
+    @Value("${gemini.client.pending-acquire-timeout-ms:2000}")
+    private long pendingAcquireTimeoutMs;
+    
+    @Value("${gemini.client.max-idle-ms:30000}")
+    private long maxIdleMs;
+    
+    @Value("${gemini.client.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+    
+    @Value("${gemini.client.response-timeout-ms:30000}")
+    private long responseTimeoutMs;
+    
+    /**
+     * Pooled connections to the Gemini API. The pool bounds open connections and the requests waiting
+     * for one; a request that can't get a connection in time fails instead of queueing indefinitely.
+     * Idle connections are closed before the remote end drops them. Pool usage is published as
+     * {@code reactor.netty.connection.provider.*} metrics.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider geminiConnectionProvider() {
+        return ConnectionProvider.builder("gemini")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .evictInBackground(Duration.ofMillis(maxIdleMs))
+                .metrics(true)
+                .build();
+    }
+    
     @Bean
-    public WebClient geminiWebClient() {
+    public WebClient geminiWebClient(ConnectionProvider geminiConnectionProvider) {
+        // The response timeout bounds the wait for each read, so a stream only fails if Gemini goes quiet
+        HttpClient httpClient = HttpClient.create(geminiConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        
         return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .baseUrl(apiUrl)
                 .defaultHeader("Content-Type", "application/json")
                 .defaultHeader("x-goog-api-key", apiKey)
@@ -1,21 +1,28 @@
 package com.payroll.controller;
 
+import com.payroll.dto.AIStreamChunk;
 import com.payroll.dto.SalaryResponse;
-import com.payroll.entity.Employee;
+import com.payroll.security.AuthenticatedEmployee;
 import com.payroll.service.GeminiAIService;
 import com.payroll.service.SalaryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/ai")
@@ -42,30 +49,10 @@ public class AIAssistantController {
                 return Mono.just(ResponseEntity.ok("No salary data available for analysis."));
             }
             
-            SalaryResponse latestSalary = salaryHistory.get(0);
-            String employeeName = latestSalary.getEmployeeName();
+            String employeeName = salaryHistory.get(0).getEmployeeName();
             
-            StringBuilder salaryData = new StringBuilder();
-            salaryData.append("Employee: ").append(employeeName).append("\n");
-            salaryData.append("Latest Salary Details:\n");
-            salaryData.append("Basic Salary: ₹").append(latestSalary.getBasicSalary()).append("\n");
-            salaryData.append("Allowances: ₹").append(latestSalary.getAllowances()).append("\n");
-            salaryData.append("Deductions: ₹").append(latestSalary.getDeductions()).append("\n");
-            salaryData.append("Tax Percentage: ").append(latestSalary.getTaxPercent()).append("%\n");
-            salaryData.append("Gross Salary: ₹").append(latestSalary.getGrossSalary()).append("\n");
-            salaryData.append("Tax Amount: ₹").append(latestSalary.getTaxAmount()).append("\n");
-            salaryData.append("Net Salary: ₹").append(latestSalary.getNetSalary()).append("\n");
-            
-            if (salaryHistory.size() > 1) {
-                salaryData.append("\nSalary History (").append(salaryHistory.size()).append(" records):\n");
-                for (int i = 1; i < Math.min(salaryHistory.size(), 4); i++) {
-                    SalaryResponse historic = salaryHistory.get(i);
-                    salaryData.append("Month ").append(historic.getMonth()).append("/").append(historic.getYear())
-                             .append(": Net ₹").append(historic.getNetSalary()).append("\n");
-                }
-            }
-            
-            return geminiAIService.generateSalaryInsights(employeeName, salaryData.toString())
+            return geminiAIService.generateSalaryInsights(employeeId, salaryDataVersion(salaryHistory),
+                            employeeName, describeSalaryHistory(salaryHistory))
                     .map(ResponseEntity::ok);
                     
         } catch (Exception e) {
@@ -79,7 +66,7 @@ public class AIAssistantController {
                description = "Get personalized salary insights for the current employee")
     public Mono<ResponseEntity<String>> getMySalaryInsights() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Employee employee = (Employee) authentication.getPrincipal();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
         
         return getSalaryInsights(employee.getEmployeeId());
     }
@@ -96,17 +83,8 @@ public class AIAssistantController {
                 return Mono.just(ResponseEntity.ok("No salary data available for tax advice."));
             }
             
-            SalaryResponse latestSalary = salaryHistory.get(0);
-            
-            StringBuilder salaryStructure = new StringBuilder();
-            salaryStructure.append("Current Salary Structure:\n");
-            salaryStructure.append("Basic Salary: ₹").append(latestSalary.getBasicSalary()).append("\n");
-            salaryStructure.append("Allowances: ₹").append(latestSalary.getAllowances()).append("\n");
-            salaryStructure.append("Current Tax Rate: ").append(latestSalary.getTaxPercent()).append("%\n");
-            salaryStructure.append("Annual Gross: ₹").append(latestSalary.getGrossSalary().multiply(java.math.BigDecimal.valueOf(12))).append("\n");
-            salaryStructure.append("Annual Tax: ₹").append(latestSalary.getTaxAmount().multiply(java.math.BigDecimal.valueOf(12))).append("\n");
-            
-            return geminiAIService.generateTaxAdvice(salaryStructure.toString())
+            return geminiAIService.generateTaxAdvice(employeeId, salaryDataVersion(salaryHistory),
+                            describeSalaryStructure(salaryHistory.get(0)))
                     .map(ResponseEntity::ok);
                     
         } catch (Exception e) {
@@ -120,7 +98,7 @@ public class AIAssistantController {
                description = "Get personalized tax advice for the current employee")
     public Mono<ResponseEntity<String>> getMyTaxAdvice() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Employee employee = (Employee) authentication.getPrincipal();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
         
         return getTaxAdvice(employee.getEmployeeId());
     }
@@ -188,18 +166,140 @@ public class AIAssistantController {
                description = "Ask general payroll-related questions to the AI assistant")
     public Mono<ResponseEntity<String>> askQuestion(@RequestBody QuestionRequest request) {
         try {
-            String enhancedPrompt = "As a payroll and HR expert, please answer the following question: " + 
-                                  request.getQuestion() + 
-                                  "\n\nProvide practical, accurate, and helpful information related to payroll, " +
-                                  "compensation, taxes, and HR best practices.";
-            
-            return geminiAIService.generateText(enhancedPrompt)
+            return geminiAIService.generateText(questionPrompt(request.getQuestion()))
                     .map(ResponseEntity::ok);
         } catch (Exception e) {
             return Mono.just(ResponseEntity.ok("Unable to process your question at this time."));
         }
     }
     
+    @GetMapping(value = "/stream/salary-insights/{employeeId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('EMPLOYEE') and #employeeId == authentication.principal.employeeId)")
+    @Operation(summary = "Stream AI-powered salary insights", 
+               description = "Salary insights sent as Server-Sent Events while Gemini generates them")
+    public Flux<ServerSentEvent<AIStreamChunk>> streamSalaryInsights(@PathVariable Long employeeId) {
+        List<SalaryResponse> salaryHistory = salaryService.getEmployeeSalaryHistory(employeeId);
+        if (salaryHistory.isEmpty()) {
+            return toEvents(Flux.just("No salary data available for analysis."));
+        }
+        
+        return toEvents(geminiAIService.streamSalaryInsights(employeeId, salaryDataVersion(salaryHistory),
+                salaryHistory.get(0).getEmployeeName(), describeSalaryHistory(salaryHistory)));
+    }
+    
+    @GetMapping(value = "/stream/my-salary-insights", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    @Operation(summary = "Stream my salary insights", 
+               description = "Salary insights for the current employee, sent as Server-Sent Events")
+    public Flux<ServerSentEvent<AIStreamChunk>> streamMySalaryInsights() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
+        
+        return streamSalaryInsights(employee.getEmployeeId());
+    }
+    
+    @GetMapping(value = "/stream/tax-advice/{employeeId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('EMPLOYEE') and #employeeId == authentication.principal.employeeId)")
+    @Operation(summary = "Stream AI-powered tax advice", 
+               description = "Tax optimization advice sent as Server-Sent Events while Gemini generates it")
+    public Flux<ServerSentEvent<AIStreamChunk>> streamTaxAdvice(@PathVariable Long employeeId) {
+        List<SalaryResponse> salaryHistory = salaryService.getEmployeeSalaryHistory(employeeId);
+        if (salaryHistory.isEmpty()) {
+            return toEvents(Flux.just("No salary data available for tax advice."));
+        }
+        
+        return toEvents(geminiAIService.streamTaxAdvice(employeeId, salaryDataVersion(salaryHistory),
+                describeSalaryStructure(salaryHistory.get(0))));
+    }
+    
+    @GetMapping(value = "/stream/my-tax-advice", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('EMPLOYEE')")
+    @Operation(summary = "Stream my tax advice", 
+               description = "Tax advice for the current employee, sent as Server-Sent Events")
+    public Flux<ServerSentEvent<AIStreamChunk>> streamMyTaxAdvice() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
+        
+        return streamTaxAdvice(employee.getEmployeeId());
+    }
+    
+    @PostMapping(value = "/stream/ask-question", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('EMPLOYEE')")
+    @Operation(summary = "Ask AI assistant with a streamed answer", 
+               description = "Answer to a payroll question sent as Server-Sent Events while Gemini generates it")
+    public Flux<ServerSentEvent<AIStreamChunk>> streamQuestion(@RequestBody QuestionRequest request) {
+        return toEvents(geminiAIService.streamText(questionPrompt(request.getQuestion())));
+    }
+    
+    /**
+     * Each piece of the answer becomes a default event, followed by a {@code done} event. A failure
+     * mid-stream ends the stream with an {@code error} event instead, after whatever was already sent.
+     */
+    private static Flux<ServerSentEvent<AIStreamChunk>> toEvents(Flux<String> chunks) {
+        return chunks
+                .map(text -> ServerSentEvent.builder(new AIStreamChunk(text)).build())
+                .concatWith(Mono.just(ServerSentEvent.builder(new AIStreamChunk("")).event("done").build()))
+                .onErrorResume(error -> Mono.just(ServerSentEvent
+                        .builder(new AIStreamChunk("Sorry, I'm unable to process your request at the moment."))
+                        .event("error")
+                        .build()));
+    }
+    
+    private static String questionPrompt(String question) {
+        return "As a payroll and HR expert, please answer the following question: " + 
+               question + 
+               "\n\nProvide practical, accurate, and helpful information related to payroll, " +
+               "compensation, taxes, and HR best practices.";
+    }
+    
+    private static String describeSalaryHistory(List<SalaryResponse> salaryHistory) {
+        SalaryResponse latestSalary = salaryHistory.get(0);
+        
+        StringBuilder salaryData = new StringBuilder();
+        salaryData.append("Employee: ").append(latestSalary.getEmployeeName()).append("\n");
+        salaryData.append("Latest Salary Details:\n");
+        salaryData.append("Basic Salary: ₹").append(latestSalary.getBasicSalary()).append("\n");
+        salaryData.append("Allowances: ₹").append(latestSalary.getAllowances()).append("\n");
+        salaryData.append("Deductions: ₹").append(latestSalary.getDeductions()).append("\n");
+        salaryData.append("Tax Percentage: ").append(latestSalary.getTaxPercent()).append("%\n");
+        salaryData.append("Gross Salary: ₹").append(latestSalary.getGrossSalary()).append("\n");
+        salaryData.append("Tax Amount: ₹").append(latestSalary.getTaxAmount()).append("\n");
+        salaryData.append("Net Salary: ₹").append(latestSalary.getNetSalary()).append("\n");
+        
+        if (salaryHistory.size() > 1) {
+            salaryData.append("\nSalary History (").append(salaryHistory.size()).append(" records):\n");
+            for (int i = 1; i < Math.min(salaryHistory.size(), 4); i++) {
+                SalaryResponse historic = salaryHistory.get(i);
+                salaryData.append("Month ").append(historic.getMonth()).append("/").append(historic.getYear())
+                         .append(": Net ₹").append(historic.getNetSalary()).append("\n");
+            }
+        }
+        return salaryData.toString();
+    }
+    
+    private static String describeSalaryStructure(SalaryResponse latestSalary) {
+        StringBuilder salaryStructure = new StringBuilder();
+        salaryStructure.append("Current Salary Structure:\n");
+        salaryStructure.append("Basic Salary: ₹").append(latestSalary.getBasicSalary()).append("\n");
+        salaryStructure.append("Allowances: ₹").append(latestSalary.getAllowances()).append("\n");
+        salaryStructure.append("Current Tax Rate: ").append(latestSalary.getTaxPercent()).append("%\n");
+        salaryStructure.append("Annual Gross: ₹").append(latestSalary.getGrossSalary().multiply(java.math.BigDecimal.valueOf(12))).append("\n");
+        salaryStructure.append("Annual Tax: ₹").append(latestSalary.getTaxAmount().multiply(java.math.BigDecimal.valueOf(12))).append("\n");
+        return salaryStructure.toString();
+    }
+    
+    /**
+     * Record count plus the newest update time: changes whenever a salary record is added, edited or removed.
+     */
+    private static String salaryDataVersion(List<SalaryResponse> salaryHistory) {
+        LocalDateTime newest = salaryHistory.stream()
+                .map(SalaryResponse::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return salaryHistory.size() + "@" + newest;
+    }
+    
     // Inner class for request body
     public static class QuestionRequest {
         private String question;
@@ -1,10 +1,16 @@
 package com.payroll.controller;
 
+import com.payroll.dto.BulkEmployeeUpdateRequest;
+import com.payroll.dto.BulkUpdateResponse;
+import com.payroll.dto.EmployeeDirectoryResponse;
+import com.payroll.dto.EmployeeImportResult;
 import com.payroll.dto.EmployeeRequest;
 import com.payroll.dto.EmployeeResponse;
+import com.payroll.dto.EmployeeSuggestion;
 import com.payroll.entity.Department;
 import com.payroll.enums.Role;
 import com.payroll.service.DepartmentService;
+import com.payroll.service.EmployeeImportService;
 import com.payroll.service.EmployeeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -14,11 +20,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/admin")
@@ -33,6 +45,9 @@ public class AdminController {
     @Autowired
     private DepartmentService departmentService;
     
+    @Autowired
+    private EmployeeImportService employeeImportService;
+    
     // Employee Management
     @GetMapping("/employees")
     @PreAuthorize("hasRole('ADMIN')")
@@ -66,6 +81,18 @@ public class AdminController {
         return new ResponseEntity<>(employee, HttpStatus.CREATED);
     }
     
+    @PostMapping(value = "/employees/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Import employees", description = "Bulk import employees from a CSV file with a header row; returns a per-row error report")
+    public ResponseEntity<EmployeeImportResult> importEmployees(@RequestParam("file") MultipartFile file) throws IOException {
+        String name = file.getOriginalFilename() != null ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".xlsx") || name.endsWith(".xls")) {
+            throw new IllegalArgumentException("Spreadsheet uploads are not supported; export the sheet as CSV");
+        }
+        EmployeeImportResult result = employeeImportService.importCsv(file.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+    
     @PutMapping("/employees/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Update employee", description = "Update existing employee details")
@@ -83,6 +110,31 @@ public class AdminController {
         return ResponseEntity.ok("Employee deleted successfully");
     }
     
+    // Bulk mutations
+    @PostMapping("/employees/bulk/deactivate")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk deactivate employees", description = "Deactivate employees selected by ID list and/or filter in one statement")
+    public ResponseEntity<BulkUpdateResponse> bulkDeactivate(@RequestBody BulkEmployeeUpdateRequest request) {
+        BulkUpdateResponse response = employeeService.bulkDeactivate(request);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/employees/bulk/transfer")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk transfer employees", description = "Move employees selected by ID list and/or filter to another department")
+    public ResponseEntity<BulkUpdateResponse> bulkTransfer(@RequestBody BulkEmployeeUpdateRequest request) {
+        BulkUpdateResponse response = employeeService.bulkTransfer(request);
+        return ResponseEntity.ok(response);
+    }
+    
+    @PostMapping("/employees/bulk/role")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Bulk change role", description = "Change the role of employees selected by ID list and/or filter")
+    public ResponseEntity<BulkUpdateResponse> bulkChangeRole(@RequestBody BulkEmployeeUpdateRequest request) {
+        BulkUpdateResponse response = employeeService.bulkChangeRole(request);
+        return ResponseEntity.ok(response);
+    }
+    
     @GetMapping("/employees/search")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Search employees", description = "Search employees by keyword")
@@ -92,6 +144,35 @@ public class AdminController {
         return ResponseEntity.ok(employees);
     }
     
+    @GetMapping("/employees/directory")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Employee directory", description = "Filter employees by department, role, active flag and hire year with per-facet counts")
+    public ResponseEntity<EmployeeDirectoryResponse> getDirectory(@RequestParam(required = false) List<String> departmentId,
+                                                                  @RequestParam(required = false) Set<Role> role,
+                                                                  @RequestParam(required = false) Boolean active,
+                                                                  @RequestParam(required = false) Set<Integer> hireYear,
+                                                                  Pageable pageable) {
+        EmployeeDirectoryResponse directory = employeeService.getDirectory(departmentId, role, active, hireYear, pageable);
+        return ResponseEntity.ok(directory);
+    }
+    
+    @GetMapping("/employees/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get employees by IDs", description = "Resolve a list of employee IDs in one request, returned in request order")
+    public ResponseEntity<List<EmployeeResponse>> getEmployeesByIds(@RequestParam List<Long> ids) {
+        List<EmployeeResponse> employees = employeeService.getEmployeesByIds(ids);
+        return ResponseEntity.ok(employees);
+    }
+    
+    @GetMapping("/employees/suggest")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Suggest employees", description = "Type-ahead suggestions for active employees by name or employee code prefix")
+    public ResponseEntity<List<EmployeeSuggestion>> suggestEmployees(@RequestParam String prefix,
+                                                                     @RequestParam(defaultValue = "10") int limit) {
+        List<EmployeeSuggestion> suggestions = employeeService.suggestEmployees(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+    
     // New search endpoints
     @GetMapping("/employees/search/name")
     @PreAuthorize("hasRole('ADMIN')")
@@ -101,6 +182,16 @@ public class AdminController {
         return ResponseEntity.ok(employees);
     }
     
+    @GetMapping("/employees/search/fuzzy")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Fuzzy search by name", description = "Typo-tolerant search over active employee names (edit distance up to 2)")
+    public ResponseEntity<List<EmployeeResponse>> fuzzySearchByName(@RequestParam String name,
+                                                                    @RequestParam(defaultValue = "2") int maxDistance,
+                                                                    @RequestParam(defaultValue = "20") int limit) {
+        List<EmployeeResponse> employees = employeeService.fuzzySearchByName(name, maxDistance, limit);
+        return ResponseEntity.ok(employees);
+    }
+    
     @GetMapping("/employees/search/id/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Search employee by ID", description = "Search employee by employee ID")
@@ -1,12 +1,19 @@
 package com.payroll.controller;
 
+import com.payroll.dto.analytics.AnalyticsQueryRequest;
+import com.payroll.dto.analytics.AnalyticsQueryResponse;
+import com.payroll.service.AnalyticsQueryService;
+import com.payroll.service.AnalyticsResponseCache;
 import com.payroll.service.AnalyticsService;
+import com.payroll.service.AnalyticsStreamService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.Map;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -16,60 +23,76 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private AnalyticsQueryService analyticsQueryService;
+
+    @Autowired
+    private AnalyticsStreamService analyticsStreamService;
+
+    @Autowired
+    private AnalyticsResponseCache responseCache;
+
     @GetMapping("/overview")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getOverviewAnalytics() {
-        Map<String, Object> analytics = analyticsService.getOverviewAnalytics();
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getOverviewAnalytics(WebRequest request) {
+        return responseCache.respond("overview", request, analyticsService::getOverviewAnalytics);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
+    public SseEmitter streamDashboardFigures() {
+        return analyticsStreamService.subscribe();
     }
 
     @GetMapping("/monthly/{year}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getMonthlyAnalytics(@PathVariable int year) {
-        Map<String, Object> analytics = analyticsService.getMonthlyAnalytics(year);
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getMonthlyAnalytics(@PathVariable int year, WebRequest request) {
+        return responseCache.respond("monthly:" + year, request, () -> analyticsService.getMonthlyAnalytics(year));
     }
 
     @GetMapping("/department")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getDepartmentAnalytics() {
-        Map<String, Object> analytics = analyticsService.getDepartmentAnalytics();
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getDepartmentAnalytics(WebRequest request) {
+        return responseCache.respond("department", request, analyticsService::getDepartmentAnalytics);
     }
 
     @GetMapping("/salary-distribution")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getSalaryDistribution() {
-        Map<String, Object> analytics = analyticsService.getSalaryDistribution();
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getSalaryDistribution(WebRequest request) {
+        return responseCache.respond("salary-distribution", request, analyticsService::getSalaryDistribution);
     }
 
     @GetMapping("/attendance/{year}/{month}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getAttendanceAnalytics(
-            @PathVariable int year, @PathVariable int month) {
-        Map<String, Object> analytics = analyticsService.getAttendanceAnalytics(year, month);
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getAttendanceAnalytics(
+            @PathVariable int year, @PathVariable int month, WebRequest request) {
+        return responseCache.respond("attendance:" + year + ":" + month, request,
+                () -> analyticsService.getAttendanceAnalytics(year, month));
     }
 
     @GetMapping("/leave/{year}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getLeaveAnalytics(@PathVariable int year) {
-        Map<String, Object> analytics = analyticsService.getLeaveAnalytics(year);
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getLeaveAnalytics(@PathVariable int year, WebRequest request) {
+        return responseCache.respond("leave:" + year, request, () -> analyticsService.getLeaveAnalytics(year));
     }
 
     @GetMapping("/payroll/{year}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getPayrollAnalytics(@PathVariable int year) {
-        Map<String, Object> analytics = analyticsService.getPayrollAnalytics(year);
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getPayrollAnalytics(@PathVariable int year, WebRequest request) {
+        return responseCache.respond("payroll:" + year, request, () -> analyticsService.getPayrollAnalytics(year));
     }
 
     @GetMapping("/employee-growth/{years}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
-    public ResponseEntity<Map<String, Object>> getEmployeeGrowthTrend(@PathVariable int years) {
-        Map<String, Object> analytics = analyticsService.getEmployeeGrowthTrend(years);
-        return ResponseEntity.ok(analytics);
+    public ResponseEntity<byte[]> getEmployeeGrowthTrend(@PathVariable int years, WebRequest request) {
+        return responseCache.respond("employee-growth:" + years, request,
+                () -> analyticsService.getEmployeeGrowthTrend(years));
+    }
+
+    @PostMapping("/query")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('HR')")
+    public ResponseEntity<AnalyticsQueryResponse> runQuery(@Valid @RequestBody AnalyticsQueryRequest request) {
+        AnalyticsQueryResponse result = analyticsQueryService.execute(request);
+        return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,20 @@ package com.payroll.controller;
 
 import com.payroll.dto.JwtResponse;
 import com.payroll.dto.LoginRequest;
+import com.payroll.dto.RefreshTokenRequest;
 import com.payroll.entity.Employee;
+import com.payroll.security.AuthenticatedEmployee;
 import com.payroll.security.JwtUtils;
+import com.payroll.service.RefreshTokenService;
+import com.payroll.service.TokenRevocationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -27,6 +33,12 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user and return JWT token")
     public ResponseEntity<JwtResponse> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
@@ -35,12 +47,32 @@ public class AuthController {
                 new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword()));
         
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-        
         Employee employee = (Employee) authentication.getPrincipal();
+        String jwt = jwtUtils.generateJwtToken(employee);
         
         JwtResponse jwtResponse = new JwtResponse(
                 jwt,
+                refreshTokenService.issue(employee),
+                jwtUtils.getJwtExpirationMs() / 1000,
+                employee.getEmail(),
+                employee.getRole().name(),
+                employee.getEmployeeId(),
+                employee.getFullName()
+        );
+        
+        return ResponseEntity.ok(jwtResponse);
+    }
+    
+    @PostMapping("/refresh")
+    @Operation(summary = "Refresh access token", description = "Exchange a refresh token for a new access token and a new refresh token")
+    public ResponseEntity<JwtResponse> refreshToken(@Valid @RequestBody RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.refreshToken());
+        Employee employee = rotation.employee();
+        
+        JwtResponse jwtResponse = new JwtResponse(
+                jwtUtils.generateJwtToken(employee),
+                rotation.refreshToken(),
+                jwtUtils.getJwtExpirationMs() / 1000,
                 employee.getEmail(),
                 employee.getRole().name(),
                 employee.getEmployeeId(),
@@ -51,9 +83,28 @@ public class AuthController {
     }
     
     @PostMapping("/logout")
-    @Operation(summary = "User logout", description = "Logout user (client should remove token)")
-    public ResponseEntity<String> logoutUser() {
+    @Operation(summary = "User logout", description = "Logout user and revoke the presented token")
+    public ResponseEntity<String> logoutUser(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                             @RequestBody(required = false) RefreshTokenRequest request) {
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            tokenRevocationService.revokeToken(jwtUtils.verify(authorization.substring(7)));
+        }
+        if (request != null && request.refreshToken() != null) {
+            refreshTokenService.revoke(request.refreshToken());
+        }
         SecurityContextHolder.clearContext();
         return ResponseEntity.ok("User logged out successfully");
     }
+    
+    @PostMapping("/logout-all")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Logout everywhere", description = "Revoke every token issued to the current user")
+    public ResponseEntity<String> logoutAllSessions() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
+        
+        tokenRevocationService.revokeAllTokens(employee.getEmployeeId());
+        SecurityContextHolder.clearContext();
+        return ResponseEntity.ok("All sessions logged out successfully");
+    }
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package com.payroll.controller;
 
 import com.payroll.dto.EmployeeResponse;
-import com.payroll.entity.Employee;
+import com.payroll.security.AuthenticatedEmployee;
 import com.payroll.service.EmployeeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -28,7 +28,7 @@ public class EmployeeController {
     @Operation(summary = "Get employee profile", description = "Get current logged in employee's profile")
     public ResponseEntity<EmployeeResponse> getProfile() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Employee employee = (Employee) authentication.getPrincipal();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
         
         EmployeeResponse employeeResponse = employeeService.getEmployeeById(employee.getEmployeeId());
         return ResponseEntity.ok(employeeResponse);
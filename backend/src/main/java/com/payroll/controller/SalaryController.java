@@ -2,7 +2,7 @@ package com.payroll.controller;
 
 import com.payroll.dto.SalaryRequest;
 import com.payroll.dto.SalaryResponse;
-import com.payroll.entity.Employee;
+import com.payroll.security.AuthenticatedEmployee;
 import com.payroll.service.PayslipService;
 import com.payroll.service.SalaryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -82,6 +82,14 @@ public class SalaryController {
         return ResponseEntity.ok(salaries);
     }
     
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Get salaries by IDs", description = "Resolve a list of salary record IDs in one request, returned in request order")
+    public ResponseEntity<List<SalaryResponse>> getSalariesByIds(@RequestParam List<Long> ids) {
+        List<SalaryResponse> salaries = salaryService.getSalariesByIds(ids);
+        return ResponseEntity.ok(salaries);
+    }
+    
     @GetMapping("/year/{year}")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get all salaries by year", description = "Get all employee salaries for specific year")
@@ -161,7 +169,7 @@ public class SalaryController {
     @Operation(summary = "Get my salary history", description = "Get current employee's salary history")
     public ResponseEntity<List<SalaryResponse>> getMySalaryHistory() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Employee employee = (Employee) authentication.getPrincipal();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
         
         List<SalaryResponse> salaryHistory = salaryService.getEmployeeSalaryHistory(employee.getEmployeeId());
         return ResponseEntity.ok(salaryHistory);
@@ -173,7 +181,7 @@ public class SalaryController {
     public ResponseEntity<SalaryResponse> getMySalaryByMonth(@PathVariable Integer month,
                                                            @PathVariable Integer year) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        Employee employee = (Employee) authentication.getPrincipal();
+        AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
         
         SalaryResponse salary = salaryService.getEmployeeSalaryByMonth(employee.getEmployeeId(), month, year);
         return ResponseEntity.ok(salary);
@@ -186,7 +194,7 @@ public class SalaryController {
                                                    @PathVariable Integer year) {
         try {
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            Employee employee = (Employee) authentication.getPrincipal();
+            AuthenticatedEmployee employee = (AuthenticatedEmployee) authentication.getPrincipal();
             
             byte[] pdfContent = payslipService.generatePayslip(employee.getEmployeeId(), month, year);
             
@@ -0,0 +1,8 @@
+package com.payroll.dto;
+
+/**
+ * One piece of a streamed AI answer, sent as the data of a Server-Sent Event. Wrapping the text in
+ * JSON keeps leading spaces and line breaks intact across the SSE framing.
+ */
+public record AIStreamChunk(String text) {
+}
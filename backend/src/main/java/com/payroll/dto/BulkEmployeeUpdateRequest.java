@@ -0,0 +1,23 @@
+package com.payroll.dto;
+
+import com.payroll.enums.Role;
+
+import java.util.List;
+
+/**
+ * Selects employees for a bulk update, either by explicit {@code employeeIds} or by {@code filter}
+ * (when both are given the employee must match both), and carries the value to apply:
+ * {@code departmentId} for transfers, {@code role} for role changes.
+ */
+public record BulkEmployeeUpdateRequest(List<Long> employeeIds, Filter filter, Long departmentId, Role role) {
+    
+    /**
+     * Criteria are AND-ed; a {@code null} criterion is ignored.
+     */
+    public record Filter(Long departmentId, Role role, Boolean active) {
+        
+        public boolean isEmpty() {
+            return departmentId == null && role == null && active == null;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.payroll.dto;
+
+/**
+ * Number of rows a bulk update actually changed; rows already in the target state are not counted.
+ */
+public record BulkUpdateResponse(int affected) {
+}
@@ -0,0 +1,21 @@
+package com.payroll.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of the employee directory plus facet counts for building filter UIs.
+ *
+ * <p>Each facet's counts apply every selected filter except the facet's own, so the UI can show how
+ * many employees picking another value of that facet would return.</p>
+ */
+public record EmployeeDirectoryResponse(
+        List<EmployeeResponse> content,
+        long totalElements,
+        int page,
+        int size,
+        Map<String, List<FacetCount>> facets) {
+    
+    public record FacetCount(String value, String label, int count) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.payroll.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk employee import. Rows are numbered by their line in the uploaded file.
+ */
+public record EmployeeImportResult(
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        long durationMs,
+        double rowsPerSecond,
+        List<RowError> errors,
+        boolean errorsTruncated) {
+    
+    public record RowError(long row, String email, String message) {
+    }
+}
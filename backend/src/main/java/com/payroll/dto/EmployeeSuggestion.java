@@ -0,0 +1,7 @@
+package com.payroll.dto;
+
+/**
+ * Lightweight type-ahead entry; everything needed to render a suggestion without loading the employee.
+ */
+public record EmployeeSuggestion(Long employeeId, String employeeCode, String fullName, String departmentName) {
+}
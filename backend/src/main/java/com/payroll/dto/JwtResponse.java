@@ -3,6 +3,8 @@ package com.payroll.dto;
 public class JwtResponse {
     
     private String token;
+    private String refreshToken;
+    private long expiresIn;
     private String type = "Bearer";
     private String email;
     private String role;
@@ -20,6 +22,13 @@ public class JwtResponse {
         this.fullName = fullName;
     }
     
+    public JwtResponse(String token, String refreshToken, long expiresIn, String email, String role,
+                       Long employeeId, String fullName) {
+        this(token, email, role, employeeId, fullName);
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+    }
+    
     // Getters and Setters
     public String getToken() {
         return token;
@@ -29,6 +38,25 @@ public class JwtResponse {
         this.token = token;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    /**
+     * Access token lifetime in seconds.
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+    
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+    
     public String getType() {
         return type;
     }
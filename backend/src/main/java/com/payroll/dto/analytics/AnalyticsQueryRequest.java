@@ -0,0 +1,144 @@
+package com.payroll.dto.analytics;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AnalyticsQueryRequest {
+    
+    private List<String> groupBy = new ArrayList<>();
+    
+    @Valid
+    private List<Filter> filters = new ArrayList<>();
+    
+    @Valid
+    @NotEmpty(message = "At least one aggregate is required")
+    private List<Aggregate> aggregates = new ArrayList<>();
+    
+    @Positive(message = "maxRows must be positive")
+    private Integer maxRows;
+    
+    @Positive(message = "timeoutMs must be positive")
+    private Long timeoutMs;
+    
+    // Constructors
+    public AnalyticsQueryRequest() {}
+    
+    // Getters and Setters
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+    
+    public void setGroupBy(List<String> groupBy) {
+        this.groupBy = groupBy;
+    }
+    
+    public List<Filter> getFilters() {
+        return filters;
+    }
+    
+    public void setFilters(List<Filter> filters) {
+        this.filters = filters;
+    }
+    
+    public List<Aggregate> getAggregates() {
+        return aggregates;
+    }
+    
+    public void setAggregates(List<Aggregate> aggregates) {
+        this.aggregates = aggregates;
+    }
+    
+    public Integer getMaxRows() {
+        return maxRows;
+    }
+    
+    public void setMaxRows(Integer maxRows) {
+        this.maxRows = maxRows;
+    }
+    
+    public Long getTimeoutMs() {
+        return timeoutMs;
+    }
+    
+    public void setTimeoutMs(Long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+    
+    /**
+     * Dimension filters match any of {@code values}; measure filters use the inclusive {@code min}/{@code max} range.
+     */
+    public static class Filter {
+        @NotBlank(message = "Filter field is required")
+        private String field;
+        private List<String> values = new ArrayList<>();
+        private BigDecimal min;
+        private BigDecimal max;
+        
+        public String getField() {
+            return field;
+        }
+        
+        public void setField(String field) {
+            this.field = field;
+        }
+        
+        public List<String> getValues() {
+            return values;
+        }
+        
+        public void setValues(List<String> values) {
+            this.values = values;
+        }
+        
+        public BigDecimal getMin() {
+            return min;
+        }
+        
+        public void setMin(BigDecimal min) {
+            this.min = min;
+        }
+        
+        public BigDecimal getMax() {
+            return max;
+        }
+        
+        public void setMax(BigDecimal max) {
+            this.max = max;
+        }
+    }
+    
+    public static class Aggregate {
+        @NotBlank(message = "Aggregate function is required")
+        private String function;
+        private String field;
+        
+        public Aggregate() {}
+        
+        public Aggregate(String function, String field) {
+            this.function = function;
+            this.field = field;
+        }
+        
+        public String getFunction() {
+            return function;
+        }
+        
+        public void setFunction(String function) {
+            this.function = function;
+        }
+        
+        public String getField() {
+            return field;
+        }
+        
+        public void setField(String field) {
+            this.field = field;
+        }
+    }
+}
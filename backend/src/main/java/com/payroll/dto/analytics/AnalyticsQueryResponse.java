@@ -0,0 +1,76 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+import java.util.Map;
+
+public class AnalyticsQueryResponse {
+    
+    private List<String> groupBy;
+    private List<String> aggregates;
+    private List<Map<String, Object>> rows;
+    private long scannedRows;
+    private long matchedRows;
+    private long elapsedMs;
+    
+    // Constructors
+    public AnalyticsQueryResponse() {}
+    
+    public AnalyticsQueryResponse(List<String> groupBy, List<String> aggregates, List<Map<String, Object>> rows,
+                                  long scannedRows, long matchedRows, long elapsedMs) {
+        this.groupBy = groupBy;
+        this.aggregates = aggregates;
+        this.rows = rows;
+        this.scannedRows = scannedRows;
+        this.matchedRows = matchedRows;
+        this.elapsedMs = elapsedMs;
+    }
+    
+    // Getters and Setters
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+    
+    public void setGroupBy(List<String> groupBy) {
+        this.groupBy = groupBy;
+    }
+    
+    public List<String> getAggregates() {
+        return aggregates;
+    }
+    
+    public void setAggregates(List<String> aggregates) {
+        this.aggregates = aggregates;
+    }
+    
+    public List<Map<String, Object>> getRows() {
+        return rows;
+    }
+    
+    public void setRows(List<Map<String, Object>> rows) {
+        this.rows = rows;
+    }
+    
+    public long getScannedRows() {
+        return scannedRows;
+    }
+    
+    public void setScannedRows(long scannedRows) {
+        this.scannedRows = scannedRows;
+    }
+    
+    public long getMatchedRows() {
+        return matchedRows;
+    }
+    
+    public void setMatchedRows(long matchedRows) {
+        this.matchedRows = matchedRows;
+    }
+    
+    public long getElapsedMs() {
+        return elapsedMs;
+    }
+    
+    public void setElapsedMs(long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+}
@@ -0,0 +1,15 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+
+public record AttendanceAnalytics(
+        int totalWorkingDays,
+        double averageAttendance,
+        int presentDays,
+        int absentDays,
+        int lateDays,
+        List<DailyAttendance> dailyAttendance) {
+
+    public record DailyAttendance(int date, int present, int absent, int late) {
+    }
+}
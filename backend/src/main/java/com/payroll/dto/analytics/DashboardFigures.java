@@ -0,0 +1,51 @@
+package com.payroll.dto.analytics;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Headline numbers shown on the admin dashboard and the analytics overview.
+ */
+public record DashboardFigures(
+        long totalEmployees,
+        long activeEmployees,
+        long totalDepartments,
+        BigDecimal totalSalaryBudget,
+        BigDecimal averageSalary,
+        long pendingSalaries) {
+    
+    public Map<String, Object> toMap() {
+        Map<String, Object> figures = new LinkedHashMap<>();
+        figures.put("totalEmployees", totalEmployees);
+        figures.put("activeEmployees", activeEmployees);
+        figures.put("totalDepartments", totalDepartments);
+        figures.put("totalSalaryBudget", totalSalaryBudget);
+        figures.put("averageSalary", averageSalary);
+        figures.put("pendingSalaries", pendingSalaries);
+        return figures;
+    }
+    
+    /**
+     * Returns only the figures that differ from {@code previous}; everything when there is no previous snapshot.
+     */
+    public Map<String, Object> deltaFrom(DashboardFigures previous) {
+        Map<String, Object> current = toMap();
+        if (previous == null) {
+            return current;
+        }
+        Map<String, Object> before = previous.toMap();
+        Map<String, Object> delta = new LinkedHashMap<>();
+        current.forEach((key, value) -> {
+            Object old = before.get(key);
+            boolean changed = value instanceof BigDecimal && old instanceof BigDecimal
+                    ? ((BigDecimal) value).compareTo((BigDecimal) old) != 0
+                    : !Objects.equals(value, old);
+            if (changed) {
+                delta.put(key, value);
+            }
+        });
+        return delta;
+    }
+}
@@ -0,0 +1,9 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+
+public record DepartmentAnalytics(List<DepartmentData> departmentData) {
+
+    public record DepartmentData(String name, int employees, double budget) {
+    }
+}
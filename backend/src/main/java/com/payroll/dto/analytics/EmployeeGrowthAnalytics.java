@@ -0,0 +1,9 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+
+public record EmployeeGrowthAnalytics(List<YearGrowth> growthData) {
+
+    public record YearGrowth(int year, int employees, int joinings, int separations) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+
+public record LeaveAnalytics(
+        int totalLeaveApplications,
+        int approvedLeaves,
+        int pendingLeaves,
+        int rejectedLeaves,
+        List<LeaveTypeData> leaveTypeData) {
+
+    public record LeaveTypeData(String type, int total, int approved, int pending, int rejected) {
+    }
+}
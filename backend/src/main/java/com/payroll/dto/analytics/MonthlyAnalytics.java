@@ -0,0 +1,9 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+
+public record MonthlyAnalytics(List<MonthData> monthlyData) {
+
+    public record MonthData(String month, int employees, long salaryBudget, int attendanceRate) {
+    }
+}
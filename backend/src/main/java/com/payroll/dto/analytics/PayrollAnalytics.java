@@ -0,0 +1,14 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+
+public record PayrollAnalytics(
+        double totalPayrollCost,
+        double averageMonthlyPayroll,
+        double totalTaxDeducted,
+        double totalProvidentFund,
+        List<MonthlyPayroll> monthlyPayroll) {
+
+    public record MonthlyPayroll(String month, long gross, long deductions, long net) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.payroll.dto.analytics;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated salary figures for one payroll month.
+ */
+public record PayrollTotals(
+        Integer year,
+        Integer month,
+        Long salaryCount,
+        BigDecimal grossTotal,
+        BigDecimal netTotal,
+        BigDecimal taxTotal) {
+}
@@ -0,0 +1,9 @@
+package com.payroll.dto.analytics;
+
+import java.util.List;
+
+public record SalaryDistributionAnalytics(List<SalaryRange> salaryDistribution) {
+
+    public record SalaryRange(String range, int count) {
+    }
+}
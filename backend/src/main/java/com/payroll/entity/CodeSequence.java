@@ -0,0 +1,44 @@
+package com.payroll.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * A named counter handing out blocks of identifiers, e.g. the numeric part of employee codes.
+ * Rows are only ever read and advanced under a pessimistic lock.
+ */
+@Entity
+@Table(name = "code_sequences")
+public class CodeSequence {
+    
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+    
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+    
+    // Constructors
+    public CodeSequence() {}
+    
+    public CodeSequence(String name, Long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Long getNextValue() {
+        return nextValue;
+    }
+    
+    public void setNextValue(Long nextValue) {
+        this.nextValue = nextValue;
+    }
+}
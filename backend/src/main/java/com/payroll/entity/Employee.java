@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -19,7 +20,10 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "employees")
+@Table(name = "employees", indexes = {
+    @Index(name = "idx_employees_first_name", columnList = "first_name"),
+    @Index(name = "idx_employees_last_name", columnList = "last_name")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Employee implements UserDetails {
     
@@ -66,7 +70,8 @@ public class Employee implements UserDetails {
     @Column(name = "role", nullable = false)
     private Role role;
     
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lazy: names come from DepartmentRegistry; use an entity graph where the entity itself is needed
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id", referencedColumnName = "dept_id")
     private Department department;
     
@@ -77,6 +82,11 @@ public class Employee implements UserDetails {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Carried in issued tokens; bumping it invalidates every token issued before
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion = 0L;
+    
     @CreatedDate
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -242,6 +252,14 @@ public class Employee implements UserDetails {
         this.isActive = isActive;
     }
     
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(Long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -262,4 +280,8 @@ public class Employee implements UserDetails {
     public String getFullName() {
         return firstName + " " + lastName;
     }
+    
+    public void revokeTokens() {
+        tokenVersion = tokenVersion == null ? 1L : tokenVersion + 1;
+    }
 }
\ No newline at end of file
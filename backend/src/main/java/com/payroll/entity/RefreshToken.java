@@ -0,0 +1,136 @@
+package com.payroll.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A refresh token, stored only as the SHA-256 hash of the opaque value handed to the client.
+ *
+ * <p>Every rotation creates a new row in the same family and stamps the old row as rotated. Rotated
+ * rows are kept until they expire so that replaying one can be detected and the whole family
+ * revoked.</p>
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_tokens_expires_at", columnList = "expires_at"),
+    @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+    @Index(name = "idx_refresh_tokens_rotated_at", columnList = "rotated_at")
+})
+public class RefreshToken implements Persistable<String> {
+    
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private Employee employee;
+    
+    @Column(name = "family_id", length = 36, nullable = false)
+    private String familyId;
+    
+    // Employee token version at issue time; bumping the version also retires outstanding refresh tokens
+    @Column(name = "token_version", nullable = false)
+    private Long tokenVersion;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "rotated_at")
+    private LocalDateTime rotatedAt;
+    
+    // Of two concurrent rotations of the same token, only the first to commit succeeds
+    @Version
+    @Column(name = "version")
+    private Long version;
+    
+    // The ID is assigned, so tell Spring Data a new row is new instead of letting save() select first
+    @Transient
+    private boolean isNew = true;
+    
+    // Constructors
+    public RefreshToken() {}
+    
+    public RefreshToken(String tokenHash, Employee employee, String familyId, Long tokenVersion, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.employee = employee;
+        this.familyId = familyId;
+        this.tokenVersion = tokenVersion;
+        this.expiresAt = expiresAt;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+    
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+    
+    // Getters and Setters
+    public String getTokenHash() {
+        return tokenHash;
+    }
+    
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+    
+    public Employee getEmployee() {
+        return employee;
+    }
+    
+    public void setEmployee(Employee employee) {
+        this.employee = employee;
+    }
+    
+    public String getFamilyId() {
+        return familyId;
+    }
+    
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+    
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(Long tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getRotatedAt() {
+        return rotatedAt;
+    }
+    
+    public void setRotatedAt(LocalDateTime rotatedAt) {
+        this.rotatedAt = rotatedAt;
+    }
+}
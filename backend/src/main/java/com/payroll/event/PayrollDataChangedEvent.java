@@ -0,0 +1,48 @@
+package com.payroll.event;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published by the write services whenever employee, salary or department data changes.
+ * Listeners that derive state from the database (live analytics, in-memory indexes) react to it
+ * instead of being called directly from each mutation.
+ */
+public class PayrollDataChangedEvent {
+    
+    public enum Kind {
+        EMPLOYEE, SALARY, DEPARTMENT
+    }
+    
+    private final Kind kind;
+    private final List<Long> ids;
+    
+    public PayrollDataChangedEvent(Kind kind, Long id) {
+        this(kind, id != null ? List.of(id) : List.of());
+    }
+    
+    /**
+     * @param ids identifiers of the changed rows; empty when the change is not tracked per row
+     */
+    public PayrollDataChangedEvent(Kind kind, Collection<Long> ids) {
+        this.kind = kind;
+        this.ids = List.copyOf(ids);
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    public List<Long> getIds() {
+        return ids;
+    }
+    
+    public boolean isBulk() {
+        return ids.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "PayrollDataChangedEvent{kind=" + kind + ", ids=" + ids + "}";
+    }
+}
@@ -0,0 +1,12 @@
+package com.payroll.exception;
+
+public class QueryBudgetExceededException extends RuntimeException {
+    
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+    
+    public QueryBudgetExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,19 @@
+package com.payroll.repository;
+
+import com.payroll.dto.BulkEmployeeUpdateRequest;
+import com.payroll.enums.Role;
+
+import java.util.Collection;
+
+/**
+ * Set-based updates run as a single {@code UPDATE} statement, bypassing the persistence context.
+ * Each method only touches rows whose value actually changes and returns how many that was.
+ */
+public interface EmployeeBulkOperations {
+    
+    int deactivate(Collection<Long> employeeIds, BulkEmployeeUpdateRequest.Filter filter);
+    
+    int transfer(Collection<Long> employeeIds, BulkEmployeeUpdateRequest.Filter filter, Long departmentId);
+    
+    int changeRole(Collection<Long> employeeIds, BulkEmployeeUpdateRequest.Filter filter, Role role);
+}
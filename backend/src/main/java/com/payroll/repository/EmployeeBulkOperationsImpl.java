@@ -0,0 +1,99 @@
+package com.payroll.repository;
+
+import com.payroll.dto.BulkEmployeeUpdateRequest;
+import com.payroll.entity.Department;
+import com.payroll.entity.Employee;
+import com.payroll.enums.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Criteria-based implementation of {@link EmployeeBulkOperations}, picked up by Spring Data as a
+ * fragment of {@link EmployeeRepository}. Only the supplied selection criteria end up in the WHERE clause.
+ */
+public class EmployeeBulkOperationsImpl implements EmployeeBulkOperations {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public int deactivate(Collection<Long> employeeIds, BulkEmployeeUpdateRequest.Filter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+        
+        update.set(root.<Boolean>get("isActive"), false);
+        revokeTokens(cb, update, root);
+        return execute(update, root, employeeIds, filter, cb.isTrue(root.get("isActive")));
+    }
+    
+    @Override
+    public int transfer(Collection<Long> employeeIds, BulkEmployeeUpdateRequest.Filter filter, Long departmentId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+        
+        // A reference is enough to write the foreign key; the department row is never loaded
+        update.set(root.<Department>get("department"), entityManager.getReference(Department.class, departmentId));
+        Predicate changes = cb.or(
+                cb.isNull(root.get("department")),
+                cb.notEqual(root.get("department").get("deptId"), departmentId));
+        return execute(update, root, employeeIds, filter, changes);
+    }
+    
+    @Override
+    public int changeRole(Collection<Long> employeeIds, BulkEmployeeUpdateRequest.Filter filter, Role role) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+        
+        update.set(root.<Role>get("role"), role);
+        // Tokens carry the role, so ones issued under the old role must stop working
+        revokeTokens(cb, update, root);
+        return execute(update, root, employeeIds, filter, cb.notEqual(root.get("role"), role));
+    }
+    
+    private static void revokeTokens(CriteriaBuilder cb, CriteriaUpdate<Employee> update, Root<Employee> root) {
+        update.set(root.<Long>get("tokenVersion"), cb.sum(root.<Long>get("tokenVersion"), 1L));
+    }
+    
+    private int execute(CriteriaUpdate<Employee> update, Root<Employee> root, Collection<Long> employeeIds,
+                        BulkEmployeeUpdateRequest.Filter filter, Predicate changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        // Bulk statements skip the auditing listener, so stamp updatedAt explicitly
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(changes);
+        if (employeeIds != null && !employeeIds.isEmpty()) {
+            predicates.add(root.get("employeeId").in(employeeIds));
+        }
+        if (filter != null) {
+            if (filter.departmentId() != null) {
+                predicates.add(cb.equal(root.get("department").get("deptId"), filter.departmentId()));
+            }
+            if (filter.role() != null) {
+                predicates.add(cb.equal(root.get("role"), filter.role()));
+            }
+            if (filter.active() != null) {
+                predicates.add(cb.equal(root.get("isActive"), filter.active()));
+            }
+        }
+        update.where(predicates.toArray(new Predicate[0]));
+        
+        // Write pending changes first and drop managed employees afterwards, since the statement bypasses them
+        entityManager.flush();
+        int affected = entityManager.createQuery(update).executeUpdate();
+        entityManager.clear();
+        return affected;
+    }
+}
@@ -2,21 +2,40 @@ package com.payroll.repository;
 
 import com.payroll.entity.Employee;
 import com.payroll.enums.Role;
+import com.payroll.search.EmployeeDocument;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeBulkOperations {
     
     Optional<Employee> findByEmail(String email);
     
+    @Query("SELECT e.tokenVersion FROM Employee e WHERE e.employeeId = :employeeId")
+    Optional<Long> findTokenVersion(@Param("employeeId") Long employeeId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Employee e SET e.tokenVersion = e.tokenVersion + 1 WHERE e.employeeId = :employeeId")
+    int incrementTokenVersion(@Param("employeeId") Long employeeId);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Employee e SET e.password = :password WHERE e.employeeId = :employeeId")
+    int updatePassword(@Param("employeeId") Long employeeId, @Param("password") String password);
+    
     Optional<Employee> findByEmployeeCode(String employeeCode);
     
     List<Employee> findByRole(Role role);
@@ -34,6 +53,16 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
            "LOWER(e.employeeCode) LIKE LOWER(CONCAT('%', :keyword, '%')))")
     Page<Employee> searchActiveEmployees(@Param("keyword") String keyword, Pageable pageable);
     
+    // FULLTEXT search (MySQL only); :query is a BOOLEAN MODE expression, ordered by relevance
+    @Query(value = "SELECT * FROM employees e WHERE e.is_active = TRUE AND " +
+                   "MATCH(e.first_name, e.last_name, e.email, e.employee_code) AGAINST (:query IN BOOLEAN MODE) " +
+                   "ORDER BY MATCH(e.first_name, e.last_name, e.email, e.employee_code) AGAINST (:query IN BOOLEAN MODE) DESC, " +
+                   "e.employee_id",
+           countQuery = "SELECT COUNT(*) FROM employees e WHERE e.is_active = TRUE AND " +
+                        "MATCH(e.first_name, e.last_name, e.email, e.employee_code) AGAINST (:query IN BOOLEAN MODE)",
+           nativeQuery = true)
+    Page<Employee> fullTextSearchActiveEmployees(@Param("query") String query, Pageable pageable);
+    
     // Search by employee name (first or last name)
     @Query("SELECT e FROM Employee e WHERE e.isActive = true AND " +
            "(LOWER(CONCAT(e.firstName, ' ', e.lastName)) LIKE LOWER(CONCAT('%', :name, '%')))")
@@ -52,7 +81,8 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
            "LOWER(d.deptName) LIKE LOWER(CONCAT('%', :deptName, '%'))")
     List<Employee> searchByDepartmentName(@Param("deptName") String deptName);
     
-    // Advanced search with multiple criteria
+    // Advanced search with multiple criteria. Superseded by EmployeeSpecifications, whose generated
+    // queries only carry the supplied filters; kept as the baseline for the search query benchmark.
     @Query("SELECT e FROM Employee e LEFT JOIN e.department d WHERE e.isActive = true AND " +
            "(:name IS NULL OR LOWER(CONCAT(e.firstName, ' ', e.lastName)) LIKE LOWER(CONCAT('%', :name, '%'))) AND " +
            "(:employeeId IS NULL OR e.employeeId = :employeeId) AND " +
@@ -66,12 +96,29 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
         Pageable pageable
     );
     
+    // Search index projections
+    @Query("SELECT new com.payroll.search.EmployeeDocument(e.employeeId, e.firstName, e.lastName, e.email, " +
+           "e.employeeCode, d.deptId, d.deptName, e.role, e.isActive, e.hireDate) " +
+           "FROM Employee e LEFT JOIN e.department d")
+    List<EmployeeDocument> findAllDocuments();
+    
+    @Query("SELECT new com.payroll.search.EmployeeDocument(e.employeeId, e.firstName, e.lastName, e.email, " +
+           "e.employeeCode, d.deptId, d.deptName, e.role, e.isActive, e.hireDate) " +
+           "FROM Employee e LEFT JOIN e.department d WHERE e.employeeId IN :ids")
+    List<EmployeeDocument> findDocumentsByIds(@Param("ids") Collection<Long> ids);
+    
     @Query("SELECT COUNT(e) FROM Employee e WHERE e.isActive = true")
     Long countActiveEmployees();
     
     @Query("SELECT COUNT(e) FROM Employee e WHERE e.department.deptId = :departmentId AND e.isActive = true")
     Long countActiveEmployeesByDepartment(@Param("departmentId") Long departmentId);
     
+    @Query("SELECT e.employeeCode FROM Employee e WHERE e.employeeCode LIKE CONCAT(:prefix, '%')")
+    List<String> findEmployeeCodesStartingWith(@Param("prefix") String prefix);
+    
+    @Query("SELECT e.email FROM Employee e WHERE e.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
     Boolean existsByEmail(String email);
     
     Boolean existsByEmployeeCode(String employeeCode);
@@ -0,0 +1,66 @@
+package com.payroll.repository;
+
+import com.payroll.entity.Employee;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Composable predicates for {@link EmployeeRepository#findAll(Specification, org.springframework.data.domain.Pageable)}.
+ *
+ * <p>Callers add only the filters they actually have, so the database sees a query it can plan against
+ * real indexes rather than a catch-all {@code (:x IS NULL OR ...)} predicate. Text filters are prefix
+ * matches on the bare column without {@code LOWER()}: case-insensitivity comes from the column collation
+ * (MySQL's default {@code _ci} collations, {@code IGNORECASE} on H2), which keeps them index range scans.</p>
+ */
+public final class EmployeeSpecifications {
+    
+    private static final char ESCAPE = '\\';
+    
+    private EmployeeSpecifications() {
+    }
+    
+    public static Specification<Employee> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("isActive"));
+    }
+    
+    public static Specification<Employee> hasEmployeeId(Long employeeId) {
+        return (root, query, cb) -> cb.equal(root.get("employeeId"), employeeId);
+    }
+    
+    /**
+     * Compares the foreign key column directly, without joining departments.
+     */
+    public static Specification<Employee> inDepartment(Long deptId) {
+        return (root, query, cb) -> cb.equal(root.get("department").get("deptId"), deptId);
+    }
+    
+    public static Specification<Employee> employeeCodeStartsWith(String code) {
+        return (root, query, cb) -> cb.like(root.get("employeeCode"), prefixPattern(code), ESCAPE);
+    }
+    
+    /**
+     * Every word must be the start of the first or the last name, in any order: "pri gup" and
+     * "gup pri" both match Priya Gupta, and "priya g" matches her but not Priya Sharma.
+     */
+    public static Specification<Employee> nameStartsWith(String name) {
+        String[] words = name.trim().split("\\s+");
+        return (root, query, cb) -> {
+            Predicate[] matches = new Predicate[words.length];
+            for (int i = 0; i < words.length; i++) {
+                String pattern = prefixPattern(words[i]);
+                matches[i] = cb.or(
+                        cb.like(root.get("firstName"), pattern, ESCAPE),
+                        cb.like(root.get("lastName"), pattern, ESCAPE));
+            }
+            return cb.and(matches);
+        };
+    }
+    
+    private static String prefixPattern(String value) {
+        String escaped = value.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return escaped + "%";
+    }
+}
@@ -0,0 +1,19 @@
+package com.payroll.repository;
+
+import com.payroll.analytics.CompiledQuery;
+import com.payroll.analytics.PayrollFact;
+
+import java.util.List;
+
+/**
+ * Loads the rows an ad-hoc analytics query aggregates, with its filters applied by the database.
+ */
+public interface PayrollFactQueries {
+    
+    /**
+     * Returns at most {@code limit} facts matching the query's filters, ordered by salary id.
+     *
+     * @param timeoutMs statement timeout; the query fails with a {@code QueryTimeoutException} past it
+     */
+    List<PayrollFact> findPayrollFacts(CompiledQuery query, int limit, long timeoutMs);
+}
@@ -0,0 +1,126 @@
+package com.payroll.repository;
+
+import com.payroll.analytics.CompiledQuery;
+import com.payroll.analytics.PayrollFact;
+import com.payroll.entity.Department;
+import com.payroll.entity.Employee;
+import com.payroll.entity.SalaryDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria-based implementation of {@link PayrollFactQueries}, picked up by Spring Data as a fragment of
+ * {@link SalaryDetailsRepository}. Each filter becomes a predicate on the bare column (hire years as date
+ * ranges), so the row limit counts matching rows and the database can use its indexes.
+ */
+public class PayrollFactQueriesImpl implements PayrollFactQueries {
+    
+    private static final String TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<PayrollFact> findPayrollFacts(CompiledQuery compiled, int limit, long timeoutMs) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PayrollFact> query = cb.createQuery(PayrollFact.class);
+        Root<SalaryDetails> salary = query.from(SalaryDetails.class);
+        Join<SalaryDetails, Employee> employee = salary.join("employee");
+        Join<Employee, Department> department = employee.join("department", JoinType.LEFT);
+        
+        query.select(cb.construct(PayrollFact.class,
+                salary.get("salaryId"), employee.get("employeeId"), department.get("deptName"), employee.get("role"),
+                employee.get("isActive"), employee.get("hireDate"), salary.get("month"), salary.get("year"),
+                salary.get("basicSalary"), salary.get("allowances"), salary.get("deductions"), salary.get("taxPercent"),
+                salary.get("grossSalary"), salary.get("taxAmount"), salary.get("netSalary")));
+        
+        List<Predicate> predicates = new ArrayList<>();
+        for (CompiledQuery.DimensionFilter filter : compiled.getDimensionFilters()) {
+            predicates.add(dimensionPredicate(cb, salary, employee, department, filter));
+        }
+        for (CompiledQuery.MeasureFilter filter : compiled.getMeasureFilters()) {
+            predicates.add(measurePredicate(cb, salary.get(CompiledQuery.camelCase(filter.measure().name())), filter));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(salary.get("salaryId")));
+        
+        // Whole seconds are the finest timeout most drivers honour
+        int timeoutSeconds = (int) Math.min(Integer.MAX_VALUE / 1000, Math.max(1, (timeoutMs + 999) / 1000));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(TIMEOUT_HINT, timeoutSeconds * 1000)
+                .getResultList();
+    }
+    
+    private Predicate dimensionPredicate(CriteriaBuilder cb, Root<SalaryDetails> salary, Join<SalaryDetails, Employee> employee,
+                                         Join<Employee, Department> department, CompiledQuery.DimensionFilter filter) {
+        List<Object> values = filter.values();
+        switch (filter.dimension()) {
+            case DEPARTMENT:
+                Predicate named = cb.lower(department.get("deptName")).in(values);
+                // Employees without a department are reported as "Unassigned"
+                return values.contains("unassigned") ? cb.or(named, cb.isNull(department.get("deptName"))) : named;
+            case ROLE:
+                return employee.get("role").in(values);
+            case ACTIVE:
+                boolean active = values.contains(Boolean.TRUE);
+                boolean inactive = values.contains(Boolean.FALSE);
+                if (active && inactive) {
+                    return cb.conjunction();
+                }
+                Path<Boolean> isActive = employee.get("isActive");
+                return active ? cb.isTrue(isActive) : cb.or(cb.isFalse(isActive), cb.isNull(isActive));
+            case MONTH:
+                return salary.get("month").in(values);
+            case YEAR:
+                return salary.get("year").in(values);
+            case HIRE_YEAR:
+                Path<LocalDate> hireDate = employee.get("hireDate");
+                List<Predicate> years = new ArrayList<>();
+                for (Object value : values) {
+                    int year = (Integer) value;
+                    years.add(cb.between(hireDate, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)));
+                }
+                return cb.or(years.toArray(new Predicate[0]));
+            case TAX_BRACKET:
+                Path<BigDecimal> taxPercent = salary.get("taxPercent");
+                List<Predicate> brackets = new ArrayList<>();
+                for (Object value : values) {
+                    BigDecimal percent = (BigDecimal) value;
+                    brackets.add(cb.equal(taxPercent, percent));
+                    if (percent.signum() == 0) {
+                        brackets.add(cb.isNull(taxPercent));
+                    }
+                }
+                return cb.or(brackets.toArray(new Predicate[0]));
+            default:
+                throw new IllegalStateException("Unsupported dimension: " + filter.dimension());
+        }
+    }
+    
+    private Predicate measurePredicate(CriteriaBuilder cb, Path<BigDecimal> column, CompiledQuery.MeasureFilter filter) {
+        List<Predicate> bounds = new ArrayList<>();
+        if (filter.min() != null) {
+            bounds.add(cb.greaterThanOrEqualTo(column, filter.min()));
+        }
+        if (filter.max() != null) {
+            bounds.add(cb.lessThanOrEqualTo(column, filter.max()));
+        }
+        Predicate inRange = cb.and(bounds.toArray(new Predicate[0]));
+        boolean includesZero = (filter.min() == null || filter.min().signum() <= 0)
+                && (filter.max() == null || filter.max().signum() >= 0);
+        return includesZero ? cb.or(inRange, cb.isNull(column)) : inRange;
+    }
+}
@@ -0,0 +1,37 @@
+package com.payroll.repository;
+
+import com.payroll.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+    
+    // Primary-key lookup with the employee joined in
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.employee WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithEmployee(@Param("tokenHash") String tokenHash);
+    
+    // Conditional, so of two concurrent rotations of one token only the first matches a row
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.rotatedAt = :now, r.version = r.version + 1 " +
+            "WHERE r.tokenHash = :tokenHash AND r.rotatedAt IS NULL")
+    int markRotated(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.rotatedAt < :before")
+    int deleteRotatedBefore(@Param("before") LocalDateTime before);
+}
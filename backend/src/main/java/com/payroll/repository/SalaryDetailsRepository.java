@@ -1,37 +1,65 @@
 package com.payroll.repository;
 
+import com.payroll.dto.analytics.PayrollTotals;
 import com.payroll.entity.SalaryDetails;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface SalaryDetailsRepository extends JpaRepository<SalaryDetails, Long> {
+public interface SalaryDetailsRepository extends JpaRepository<SalaryDetails, Long>, PayrollFactQueries {
     
     List<SalaryDetails> findByEmployeeEmployeeId(Long employeeId);
     
     Optional<SalaryDetails> findByEmployeeEmployeeIdAndMonthAndYear(Long employeeId, Integer month, Integer year);
     
+    // Listings render the employee name, so fetch employees in the same query
+    @EntityGraph(attributePaths = "employee")
     List<SalaryDetails> findByMonthAndYear(Integer month, Integer year);
     
     List<SalaryDetails> findByEmployeeEmployeeIdOrderByYearDescMonthDesc(Long employeeId);
     
     Page<SalaryDetails> findByEmployeeEmployeeIdOrderByYearDescMonthDesc(Long employeeId, Pageable pageable);
     
+    @EntityGraph(attributePaths = "employee")
     @Query("SELECT s FROM SalaryDetails s WHERE s.year = :year ORDER BY s.month DESC")
     List<SalaryDetails> findByYearOrderByMonth(@Param("year") Integer year);
     
+    @EntityGraph(attributePaths = "employee")
     @Query("SELECT s FROM SalaryDetails s WHERE s.isProcessed = :processed")
     List<SalaryDetails> findByProcessedStatus(@Param("processed") Boolean processed);
     
+    @EntityGraph(attributePaths = "employee")
+    @Query("SELECT s FROM SalaryDetails s WHERE s.salaryId IN :ids")
+    List<SalaryDetails> findWithEmployeeByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Payslips print the employee and department, loaded with the salary in one query
+    @EntityGraph(attributePaths = {"employee", "employee.department"})
+    @Query("SELECT s FROM SalaryDetails s WHERE s.employee.employeeId = :employeeId AND s.month = :month AND s.year = :year")
+    Optional<SalaryDetails> findForPayslip(@Param("employeeId") Long employeeId, @Param("month") Integer month,
+                                           @Param("year") Integer year);
+    
+    @EntityGraph(attributePaths = {"employee", "employee.department"})
+    @Query("SELECT s FROM SalaryDetails s WHERE s.salaryId = :salaryId")
+    Optional<SalaryDetails> findForPayslipById(@Param("salaryId") Long salaryId);
+    
     @Query("SELECT COUNT(s) FROM SalaryDetails s WHERE s.employee.employeeId = :employeeId")
     Long countSalaryRecordsByEmployee(@Param("employeeId") Long employeeId);
     
     Boolean existsByEmployeeEmployeeIdAndMonthAndYear(Long employeeId, Integer month, Integer year);
+    
+    Long countByIsProcessed(Boolean isProcessed);
+    
+    @Query("SELECT new com.payroll.dto.analytics.PayrollTotals(s.year, s.month, COUNT(s), " +
+           "SUM(s.grossSalary), SUM(s.netSalary), SUM(s.taxAmount)) " +
+           "FROM SalaryDetails s GROUP BY s.year, s.month ORDER BY s.year DESC, s.month DESC")
+    List<PayrollTotals> findMonthlyTotals(Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.payroll.search;
+
+import com.payroll.enums.Role;
+
+import java.util.Set;
+
+/**
+ * Selected directory filters. Values within one facet are OR-ed, facets are AND-ed; an empty set or
+ * {@code null} flag leaves that facet unfiltered. {@code null} in {@code departmentIds} selects
+ * employees without a department.
+ */
+public record DirectoryFilter(Set<Long> departmentIds, Set<Role> roles, Boolean active, Set<Integer> hireYears) {
+    
+    public DirectoryFilter {
+        departmentIds = departmentIds != null ? departmentIds : Set.of();
+        roles = roles != null ? roles : Set.of();
+        hireYears = hireYears != null ? hireYears : Set.of();
+    }
+}
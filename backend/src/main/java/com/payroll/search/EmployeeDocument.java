@@ -0,0 +1,30 @@
+package com.payroll.search;
+
+import com.payroll.enums.Role;
+
+import java.time.LocalDate;
+
+/**
+ * Searchable projection of an employee, loaded without the password hash or audit columns.
+ * All in-memory employee indexes are built from these.
+ */
+public record EmployeeDocument(
+        Long employeeId,
+        String firstName,
+        String lastName,
+        String email,
+        String employeeCode,
+        Long departmentId,
+        String departmentName,
+        Role role,
+        Boolean active,
+        LocalDate hireDate) {
+    
+    public String fullName() {
+        return firstName + " " + lastName;
+    }
+    
+    public boolean isActive() {
+        return Boolean.TRUE.equals(active);
+    }
+}
@@ -0,0 +1,24 @@
+package com.payroll.search;
+
+import java.util.Collection;
+
+/**
+ * An in-memory structure kept in sync with the employees table by {@link EmployeeIndexer}.
+ */
+public interface EmployeeIndex {
+    
+    /**
+     * Replaces the whole index content.
+     */
+    void rebuild(Collection<EmployeeDocument> documents);
+    
+    /**
+     * Applies changed or newly created employees. Employees are only ever soft-deleted, so a
+     * deactivation arrives here as a document with {@code active = false}.
+     *
+     * <p>Indexes that can't be updated in place simply rebuild from {@code allDocuments}.</p>
+     */
+    default void update(Collection<EmployeeDocument> changed, Collection<EmployeeDocument> allDocuments) {
+        rebuild(allDocuments);
+    }
+}
@@ -0,0 +1,137 @@
+package com.payroll.search;
+
+import com.payroll.event.PayrollDataChangedEvent;
+import com.payroll.repository.EmployeeRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads employee documents and keeps every {@link EmployeeIndex} in sync with committed changes.
+ *
+ * <p>Indexes are built once the application is ready and then patched from
+ * {@link PayrollDataChangedEvent}s: single-employee changes reload only the affected rows, while
+ * department changes and untracked bulk changes reload everything, since a department rename
+ * touches every member's document.</p>
+ */
+@Component
+public class EmployeeIndexer {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeIndexer.class);
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private List<EmployeeIndex> indexes;
+    
+    private final Map<Long, EmployeeDocument> documents = new ConcurrentHashMap<>();
+    
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "employee-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean(false);
+    
+    private volatile boolean ready;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Failed to build employee search indexes, falling back to database search: {}", e.getMessage());
+        }
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayrollDataChanged(PayrollDataChangedEvent event) {
+        if (!ready || event.getKind() == PayrollDataChangedEvent.Kind.SALARY) {
+            return;
+        }
+        try {
+            if (event.getKind() == PayrollDataChangedEvent.Kind.EMPLOYEE && !event.isBulk()) {
+                update(event.getIds());
+            } else {
+                rebuild();
+            }
+        } catch (Exception e) {
+            // A stale index would silently return wrong results, so stop serving from it
+            ready = false;
+            logger.error("Failed to update employee search indexes for {}: {}", event, e.getMessage());
+        }
+    }
+    
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        List<EmployeeDocument> loaded = employeeRepository.findAllDocuments();
+        documents.clear();
+        for (EmployeeDocument document : loaded) {
+            documents.put(document.employeeId(), document);
+        }
+        for (EmployeeIndex index : indexes) {
+            index.rebuild(loaded);
+        }
+        ready = true;
+        logger.info("Indexed {} employees for search in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    /**
+     * Queues a full rebuild off the calling thread, unless one is already queued; returns immediately.
+     */
+    public void rebuildInBackground() {
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        rebuildExecutor.execute(() -> {
+            rebuildPending.set(false);
+            try {
+                rebuild();
+            } catch (Exception e) {
+                logger.error("Failed to rebuild employee search indexes: {}", e.getMessage());
+            }
+        });
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+    
+    private synchronized void update(Collection<Long> employeeIds) {
+        List<EmployeeDocument> changed = employeeRepository.findDocumentsByIds(employeeIds);
+        for (EmployeeDocument document : changed) {
+            documents.put(document.employeeId(), document);
+        }
+        List<EmployeeDocument> all = new ArrayList<>(documents.values());
+        for (EmployeeIndex index : indexes) {
+            index.update(changed, all);
+        }
+    }
+    
+    /**
+     * Whether the indexes reflect the database; callers fall back to SQL search when they don't.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    public EmployeeDocument getDocument(Long employeeId) {
+        return documents.get(employeeId);
+    }
+}
@@ -0,0 +1,318 @@
+package com.payroll.search;
+
+import com.payroll.dto.EmployeeDirectoryResponse.FacetCount;
+import com.payroll.enums.Role;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Bitmap index over department, role, active flag and hire year for the faceted employee directory.
+ *
+ * <p>Employees are assigned dense positions in name order and every facet value owns a {@link BitSet}
+ * of positions. A directory query is then a handful of bitmap ORs and ANDs, facet counts are popcounts,
+ * and walking the result bitmap yields employees already sorted by name. Snapshots are immutable and
+ * built in a single linear pass.</p>
+ *
+ * <p>Single-employee changes don't re-sort everything: the old position is cleared from a live bitmap
+ * and the new version is appended past the name-ordered base, with only the touched bitmaps copied.
+ * Queries merge the base with the small, separately sorted tail. Once the tail outgrows
+ * {@link #MIN_TAIL_BEFORE_COMPACTION} or an eighth of the base, the next update compacts everything
+ * back into a fresh base.</p>
+ */
+@Component
+public class FacetEmployeeIndex implements EmployeeIndex {
+    
+    public static final String DEPARTMENT = "department";
+    public static final String ROLE = "role";
+    public static final String ACTIVE = "active";
+    public static final String HIRE_YEAR = "hireYear";
+    
+    static final int MIN_TAIL_BEFORE_COMPACTION = 256;
+    
+    private static final Comparator<EmployeeDocument> NAME_ORDER = Comparator
+            .comparing((EmployeeDocument d) -> nullToEmpty(d.lastName()), String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(d -> nullToEmpty(d.firstName()), String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(EmployeeDocument::employeeId);
+    
+    private volatile Snapshot snapshot = new Snapshot(List.of());
+    
+    @Override
+    public synchronized void rebuild(Collection<EmployeeDocument> documents) {
+        List<EmployeeDocument> ordered = new ArrayList<>(documents);
+        ordered.sort(NAME_ORDER);
+        snapshot = new Snapshot(ordered);
+    }
+    
+    @Override
+    public synchronized void update(Collection<EmployeeDocument> changed, Collection<EmployeeDocument> allDocuments) {
+        Snapshot current = snapshot;
+        if (current.tail.size() + changed.size() > Math.max(MIN_TAIL_BEFORE_COMPACTION, current.base.size() / 8)) {
+            rebuild(allDocuments);
+        } else {
+            snapshot = current.withChanges(changed);
+        }
+    }
+    
+    public Result query(DirectoryFilter filter, long offset, int limit) {
+        Snapshot current = snapshot;
+        
+        Map<String, BitSet> selections = new LinkedHashMap<>();
+        selections.put(DEPARTMENT, current.union(current.byDepartment, filter.departmentIds()));
+        selections.put(ROLE, current.union(current.byRole, filter.roles()));
+        selections.put(ACTIVE, filter.active() == null ? null
+                : current.union(current.byActive, Set.of(filter.active())));
+        selections.put(HIRE_YEAR, current.union(current.byHireYear, filter.hireYears()));
+        
+        BitSet matches = current.intersect(selections, null);
+        
+        // Merge the name-ordered base with the name-ordered tail of appended changes
+        List<Long> pageIds = new ArrayList<>(Math.min(limit, 1024));
+        int basePosition = current.nextBase(matches, 0);
+        int tailIndex = current.nextTail(matches, 0);
+        long skipped = 0;
+        while ((basePosition >= 0 || tailIndex >= 0) && pageIds.size() < limit) {
+            EmployeeDocument fromBase = basePosition >= 0 ? current.document(basePosition) : null;
+            EmployeeDocument fromTail = tailIndex >= 0 ? current.document(current.tailOrder[tailIndex]) : null;
+            EmployeeDocument document;
+            if (fromTail != null && (fromBase == null || NAME_ORDER.compare(fromTail, fromBase) < 0)) {
+                document = fromTail;
+                tailIndex = current.nextTail(matches, tailIndex + 1);
+            } else {
+                document = fromBase;
+                basePosition = current.nextBase(matches, basePosition + 1);
+            }
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                pageIds.add(document.employeeId());
+            }
+        }
+        
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        List<FacetCount> departments = current.counts(current.byDepartment, current.intersect(selections, DEPARTMENT),
+                id -> id == null ? "none" : id.toString(), current.departmentNames::get);
+        departments.sort(Comparator.comparing(FacetCount::label, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        facets.put(DEPARTMENT, departments);
+        facets.put(ROLE, current.counts(current.byRole, current.intersect(selections, ROLE), Role::name, Role::name));
+        facets.put(ACTIVE, current.counts(current.byActive, current.intersect(selections, ACTIVE),
+                String::valueOf, active -> active ? "Active" : "Inactive"));
+        facets.put(HIRE_YEAR, current.counts(current.byHireYear, current.intersect(selections, HIRE_YEAR),
+                String::valueOf, String::valueOf));
+        
+        return new Result(pageIds, matches.cardinality(), facets);
+    }
+    
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+    
+    public record Result(List<Long> pageIds, long total, Map<String, List<FacetCount>> facets) {
+    }
+    
+    private static final class Snapshot {
+        
+        // Positions below base.size() are in name order; later ones index into tail in order of arrival
+        private final List<EmployeeDocument> base;
+        private final Map<Long, Integer> basePositions;
+        private final List<EmployeeDocument> tail;
+        private final Map<Long, Integer> tailPositions;
+        private int[] tailOrder;
+        private final BitSet live;
+        private final Map<Long, BitSet> byDepartment;
+        private final Map<Long, String> departmentNames;
+        private final Map<Role, BitSet> byRole;
+        private final Map<Boolean, BitSet> byActive;
+        private final SortedMap<Integer, BitSet> byHireYear;
+        
+        private Snapshot(List<EmployeeDocument> documents) {
+            this.base = List.copyOf(documents);
+            this.basePositions = new HashMap<>();
+            this.tail = List.of();
+            this.tailPositions = Map.of();
+            this.tailOrder = new int[0];
+            this.live = new BitSet(documents.size());
+            this.live.set(0, documents.size());
+            this.byDepartment = new HashMap<>();
+            this.departmentNames = new HashMap<>();
+            this.byRole = new EnumMap<>(Role.class);
+            this.byActive = new HashMap<>();
+            this.byHireYear = new TreeMap<>(Comparator.reverseOrder());
+            
+            departmentNames.put(null, "No department");
+            Set<BitSet> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (int position = 0; position < documents.size(); position++) {
+                basePositions.put(documents.get(position).employeeId(), position);
+                index(position, documents.get(position), owned);
+            }
+        }
+        
+        /**
+         * Copy of {@code previous} sharing every bitmap the changes don't touch.
+         */
+        private Snapshot(Snapshot previous, List<EmployeeDocument> tail, Map<Long, Integer> tailPositions) {
+            this.base = previous.base;
+            this.basePositions = previous.basePositions;
+            this.tail = tail;
+            this.tailPositions = tailPositions;
+            this.live = (BitSet) previous.live.clone();
+            this.byDepartment = new HashMap<>(previous.byDepartment);
+            this.departmentNames = new HashMap<>(previous.departmentNames);
+            this.byRole = new EnumMap<>(previous.byRole);
+            this.byActive = new HashMap<>(previous.byActive);
+            this.byHireYear = new TreeMap<>(previous.byHireYear);
+        }
+        
+        private Snapshot withChanges(Collection<EmployeeDocument> changed) {
+            List<EmployeeDocument> nextTail = new ArrayList<>(tail);
+            Map<Long, Integer> nextTailPositions = new HashMap<>(tailPositions);
+            Snapshot next = new Snapshot(this, nextTail, nextTailPositions);
+            
+            Set<BitSet> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (EmployeeDocument document : changed) {
+                Integer previous = nextTailPositions.getOrDefault(document.employeeId(), basePositions.get(document.employeeId()));
+                if (previous != null && next.live.get(previous)) {
+                    next.unindex(previous, next.document(previous), owned);
+                }
+                int position = base.size() + nextTail.size();
+                nextTail.add(document);
+                nextTailPositions.put(document.employeeId(), position);
+                next.index(position, document, owned);
+            }
+            
+            // Not final, but only written before the snapshot is published through the volatile field
+            next.tailOrder = next.live.stream().filter(position -> position >= base.size())
+                    .boxed()
+                    .sorted(Comparator.comparing(position -> nextTail.get(position - base.size()), NAME_ORDER))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            return next;
+        }
+        
+        private EmployeeDocument document(int position) {
+            return position < base.size() ? base.get(position) : tail.get(position - base.size());
+        }
+        
+        private int size() {
+            return base.size() + tail.size();
+        }
+        
+        private void index(int position, EmployeeDocument document, Set<BitSet> owned) {
+            live.set(position);
+            bitmap(byDepartment, document.departmentId(), owned).set(position);
+            if (document.departmentId() != null) {
+                departmentNames.put(document.departmentId(), document.departmentName());
+            }
+            if (document.role() != null) {
+                bitmap(byRole, document.role(), owned).set(position);
+            }
+            bitmap(byActive, document.isActive(), owned).set(position);
+            if (document.hireDate() != null) {
+                bitmap(byHireYear, document.hireDate().getYear(), owned).set(position);
+            }
+        }
+        
+        private void unindex(int position, EmployeeDocument document, Set<BitSet> owned) {
+            live.clear(position);
+            clear(byDepartment, document.departmentId(), position, owned);
+            if (document.role() != null) {
+                clear(byRole, document.role(), position, owned);
+            }
+            clear(byActive, document.isActive(), position, owned);
+            if (document.hireDate() != null) {
+                clear(byHireYear, document.hireDate().getYear(), position, owned);
+            }
+        }
+        
+        /**
+         * The bitmap for {@code key}, copied first if it may still be shared with an older snapshot.
+         */
+        private static <K> BitSet bitmap(Map<K, BitSet> bitmaps, K key, Set<BitSet> owned) {
+            BitSet bitmap = bitmaps.get(key);
+            if (bitmap == null || !owned.contains(bitmap)) {
+                bitmap = bitmap == null ? new BitSet() : (BitSet) bitmap.clone();
+                bitmaps.put(key, bitmap);
+                owned.add(bitmap);
+            }
+            return bitmap;
+        }
+        
+        private static <K> void clear(Map<K, BitSet> bitmaps, K key, int position, Set<BitSet> owned) {
+            BitSet bitmap = bitmap(bitmaps, key, owned);
+            bitmap.clear(position);
+            if (bitmap.isEmpty()) {
+                // A value no employee has any more shouldn't linger in the facet counts
+                bitmaps.remove(key);
+            }
+        }
+        
+        private int nextBase(BitSet matches, int from) {
+            int position = matches.nextSetBit(from);
+            return position >= 0 && position < base.size() ? position : -1;
+        }
+        
+        private int nextTail(BitSet matches, int from) {
+            for (int i = from; i < tailOrder.length; i++) {
+                if (matches.get(tailOrder[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        
+        /**
+         * OR of the bitmaps of the selected values, or {@code null} when nothing is selected.
+         */
+        private <K> BitSet union(Map<K, BitSet> bitmaps, Set<K> selected) {
+            if (selected.isEmpty()) {
+                return null;
+            }
+            BitSet union = new BitSet(size());
+            for (K value : selected) {
+                BitSet bitmap = bitmaps.get(value);
+                if (bitmap != null) {
+                    union.or(bitmap);
+                }
+            }
+            return union;
+        }
+        
+        /**
+         * AND of every active selection except {@code excludedFacet}, restricted to live positions.
+         */
+        private BitSet intersect(Map<String, BitSet> selections, String excludedFacet) {
+            BitSet result = (BitSet) live.clone();
+            selections.forEach((facet, selection) -> {
+                if (selection != null && !facet.equals(excludedFacet)) {
+                    result.and(selection);
+                }
+            });
+            return result;
+        }
+        
+        private <K> List<FacetCount> counts(Map<K, BitSet> bitmaps, BitSet base,
+                                            Function<K, String> value, Function<K, String> label) {
+            List<FacetCount> counts = new ArrayList<>(bitmaps.size());
+            bitmaps.forEach((key, bitmap) -> {
+                BitSet intersection = (BitSet) bitmap.clone();
+                intersection.and(base);
+                counts.add(new FacetCount(value.apply(key), label.apply(key), intersection.cardinality()));
+            });
+            return counts;
+        }
+    }
+}
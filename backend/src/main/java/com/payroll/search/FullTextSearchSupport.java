@@ -0,0 +1,99 @@
+package com.payroll.search;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Creates the MySQL FULLTEXT index used by {@link SearchMode#FULLTEXT} and reports whether it can be used.
+ *
+ * <p>Hibernate's schema update can't declare FULLTEXT indexes, so it is added here on startup when
+ * missing. On any other database (H2 in tests) the mode stays unavailable and searches use LIKE.</p>
+ */
+@Component
+public class FullTextSearchSupport {
+    
+    public static final String INDEX_NAME = "ft_employees_search";
+    
+    private static final int MIN_TOKEN_SIZE = 3;
+    
+    private static final Logger logger = LoggerFactory.getLogger(FullTextSearchSupport.class);
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${employee.search.mode:memory}")
+    private String configuredMode;
+    
+    private SearchMode searchMode;
+    
+    private volatile boolean available;
+    
+    @PostConstruct
+    public void init() {
+        searchMode = SearchMode.valueOf(configuredMode.trim().toUpperCase(Locale.ROOT));
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndex() {
+        if (searchMode != SearchMode.FULLTEXT) {
+            return;
+        }
+        try {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            if (product == null || !product.toLowerCase(Locale.ROOT).contains("mysql")) {
+                logger.info("FULLTEXT search mode needs MySQL, {} detected; using LIKE search", product);
+                return;
+            }
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'employees' AND index_name = ?",
+                    Integer.class, INDEX_NAME);
+            if (existing == null || existing == 0) {
+                logger.info("Creating FULLTEXT index {} on employees", INDEX_NAME);
+                jdbcTemplate.execute("ALTER TABLE employees ADD FULLTEXT INDEX " + INDEX_NAME +
+                        " (first_name, last_name, email, employee_code)");
+            }
+            available = true;
+        } catch (Exception e) {
+            logger.error("FULLTEXT search unavailable, using LIKE search: {}", e.getMessage());
+        }
+    }
+    
+    public SearchMode getSearchMode() {
+        return searchMode;
+    }
+    
+    public boolean isAvailable() {
+        return available;
+    }
+    
+    /**
+     * Turns a user keyword into a BOOLEAN MODE query requiring every word as a prefix,
+     * e.g. {@code "ravi sha"} becomes {@code "+ravi* +sha*"}. Words shorter than InnoDB's default
+     * minimum token size are dropped; returns {@code null} when nothing searchable remains.
+     */
+    public static String toBooleanQuery(String keyword) {
+        StringBuilder query = new StringBuilder();
+        // Boolean-mode operators in user input would change the query's meaning
+        for (String word : keyword.replaceAll("[+\\-<>()~*\"@.]", " ").trim().split("\\s+")) {
+            if (word.length() >= MIN_TOKEN_SIZE) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append('+').append(word).append('*');
+            }
+        }
+        return query.length() > 0 ? query.toString() : null;
+    }
+}
@@ -0,0 +1,249 @@
+package com.payroll.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * BK-tree over active employees' full, first and last names for typo-tolerant search.
+ *
+ * <p>Every node stores a distinct lower-cased name and its children keyed by edit distance. By the
+ * triangle inequality a query with tolerance {@code k} only needs to descend into children whose edge
+ * distance lies in {@code [d - k, d + k]}, so a lookup computes edit distance against a small fraction of
+ * the names instead of every row.</p>
+ *
+ * <p>Removed employees are dropped from their node's posting set; nodes themselves stay in place as
+ * routing points and the tree is rebuilt once too many of them are empty.</p>
+ *
+ * <p>Each visited node costs one O(n·m) edit-distance computation, so queries longer than
+ * {@link #MAX_QUERY_LENGTH} are refused rather than let a single request pin a CPU.</p>
+ */
+@Component
+public class FuzzyNameIndex implements EmployeeIndex {
+    
+    public static final int MAX_DISTANCE = 2;
+    public static final int MAX_QUERY_LENGTH = 64;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, EmployeeDocument> documents = new HashMap<>();
+    private Node root;
+    private int nodeCount;
+    private int emptyNodeCount;
+    
+    @Override
+    public void rebuild(Collection<EmployeeDocument> allDocuments) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            root = null;
+            nodeCount = 0;
+            emptyNodeCount = 0;
+            for (EmployeeDocument document : allDocuments) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void update(Collection<EmployeeDocument> changed, Collection<EmployeeDocument> allDocuments) {
+        lock.writeLock().lock();
+        try {
+            for (EmployeeDocument document : changed) {
+                EmployeeDocument previous = documents.remove(document.employeeId());
+                if (previous != null) {
+                    for (String key : keys(previous)) {
+                        Node node = find(key);
+                        if (node != null && node.ids.remove(previous.employeeId()) && node.ids.isEmpty()) {
+                            emptyNodeCount++;
+                        }
+                    }
+                }
+                add(document);
+            }
+            if (emptyNodeCount > nodeCount / 4) {
+                List<EmployeeDocument> live = new ArrayList<>(documents.values());
+                documents.clear();
+                root = null;
+                nodeCount = 0;
+                emptyNodeCount = 0;
+                live.forEach(this::add);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Returns IDs of active employees whose full, first or last name is within {@code maxDistance}
+     * edits of {@code name}, ranked by distance, then by whether the name starts with the query,
+     * then alphabetically. A query longer than {@link #MAX_QUERY_LENGTH} matches nothing.
+     */
+    public List<Long> search(String name, int maxDistance, int limit) {
+        if (name == null || name.isBlank()) {
+            return List.of();
+        }
+        String query = normalize(name);
+        if (query.length() > MAX_QUERY_LENGTH) {
+            return List.of();
+        }
+        int tolerance = Math.max(0, Math.min(maxDistance, MAX_DISTANCE));
+        
+        lock.readLock().lock();
+        try {
+            Map<Long, Hit> best = new HashMap<>();
+            if (root != null) {
+                Deque<Node> pending = new ArrayDeque<>();
+                pending.push(root);
+                while (!pending.isEmpty()) {
+                    Node node = pending.pop();
+                    int distance = distance(query, node.key);
+                    if (distance <= tolerance) {
+                        boolean prefix = node.key.startsWith(query);
+                        for (Long id : node.ids) {
+                            Hit hit = new Hit(id, distance, prefix, documents.get(id).fullName().toLowerCase(Locale.ROOT));
+                            best.merge(id, hit, (a, b) -> RANKING.compare(a, b) <= 0 ? a : b);
+                        }
+                    }
+                    for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                        int edge = child.getKey();
+                        if (edge >= distance - tolerance && edge <= distance + tolerance) {
+                            pending.push(child.getValue());
+                        }
+                    }
+                }
+            }
+            
+            List<Hit> hits = new ArrayList<>(best.values());
+            hits.sort(RANKING);
+            List<Long> ids = new ArrayList<>(Math.min(limit, hits.size()));
+            for (int i = 0; i < hits.size() && i < limit; i++) {
+                ids.add(hits.get(i).id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void add(EmployeeDocument document) {
+        if (!document.isActive()) {
+            return;
+        }
+        documents.put(document.employeeId(), document);
+        for (String key : keys(document)) {
+            insert(key, document.employeeId());
+        }
+    }
+    
+    private void insert(String key, Long id) {
+        if (root == null) {
+            root = new Node(key);
+            root.ids.add(id);
+            nodeCount++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(key, node.key);
+            if (distance == 0) {
+                if (node.ids.isEmpty()) {
+                    emptyNodeCount--;
+                }
+                node.ids.add(id);
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                child = new Node(key);
+                child.ids.add(id);
+                node.children.put(distance, child);
+                nodeCount++;
+                return;
+            }
+            node = child;
+        }
+    }
+    
+    private Node find(String key) {
+        Node node = root;
+        while (node != null) {
+            int distance = distance(key, node.key);
+            if (distance == 0) {
+                return node;
+            }
+            node = node.children.get(distance);
+        }
+        return null;
+    }
+    
+    private static Set<String> keys(EmployeeDocument document) {
+        Set<String> keys = new HashSet<>();
+        for (String value : new String[] {document.fullName(), document.firstName(), document.lastName()}) {
+            if (value != null && !value.isBlank()) {
+                keys.add(normalize(value));
+            }
+        }
+        return keys;
+    }
+    
+    private static String normalize(String value) {
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Levenshtein distance with two rolling rows.
+     */
+    static int distance(String a, String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+    
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::distance)
+            .thenComparing(hit -> !hit.prefix())
+            .thenComparing(Hit::name)
+            .thenComparing(Hit::id);
+    
+    private record Hit(Long id, int distance, boolean prefix, String name) {
+    }
+    
+    private static final class Node {
+        private final String key;
+        private final Set<Long> ids = new HashSet<>();
+        private final Map<Integer, Node> children = new HashMap<>();
+        
+        private Node(String key) {
+            this.key = key;
+        }
+    }
+}
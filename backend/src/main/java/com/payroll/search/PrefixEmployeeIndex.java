@@ -0,0 +1,169 @@
+package com.payroll.search;
+
+import com.payroll.dto.EmployeeSuggestion;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sorted-array prefix index over active employees' full name, last name and employee code,
+ * used for type-ahead suggestions.
+ *
+ * <p>The keys live in one sorted {@code String[]} with a parallel {@code long[]} of employee IDs, so a
+ * lookup is a binary search for the first key at or after the prefix followed by a short forward scan.
+ * Snapshots are immutable and replaced atomically: readers never lock, and a change builds a new
+ * snapshot by merging the changed employees' keys into a copy of the current arrays.</p>
+ */
+@Component
+public class PrefixEmployeeIndex implements EmployeeIndex {
+    
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    
+    @Override
+    public void rebuild(Collection<EmployeeDocument> documents) {
+        List<Entry> entries = new ArrayList<>();
+        Map<Long, EmployeeSuggestion> suggestions = new HashMap<>();
+        for (EmployeeDocument document : documents) {
+            addEntries(document, entries, suggestions);
+        }
+        entries.sort(null);
+        snapshot = Snapshot.of(entries, suggestions);
+    }
+    
+    @Override
+    public void update(Collection<EmployeeDocument> changed, Collection<EmployeeDocument> allDocuments) {
+        Snapshot current = snapshot;
+        
+        Set<Long> changedIds = new HashSet<>();
+        List<Entry> added = new ArrayList<>();
+        Map<Long, EmployeeSuggestion> suggestions = new HashMap<>(current.suggestions);
+        for (EmployeeDocument document : changed) {
+            changedIds.add(document.employeeId());
+            suggestions.remove(document.employeeId());
+            addEntries(document, added, suggestions);
+        }
+        added.sort(null);
+        
+        // Linear merge of the surviving entries with the new ones keeps updates O(n) instead of a full sort
+        int size = current.keys.length;
+        List<Entry> merged = new ArrayList<>(size + added.size());
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (changedIds.contains(current.ids[i])) {
+                continue;
+            }
+            Entry existing = new Entry(current.keys[i], current.ids[i]);
+            while (j < added.size() && added.get(j).compareTo(existing) < 0) {
+                merged.add(added.get(j++));
+            }
+            merged.add(existing);
+        }
+        while (j < added.size()) {
+            merged.add(added.get(j++));
+        }
+        snapshot = Snapshot.of(merged, suggestions);
+    }
+    
+    /**
+     * Returns up to {@code limit} distinct active employees having a name, last name or code that
+     * starts with {@code prefix}, in key order (so an exact match always comes first).
+     */
+    public List<EmployeeSuggestion> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        String query = prefix.trim().toLowerCase(Locale.ROOT);
+        Snapshot current = snapshot;
+        
+        Set<Long> seen = new LinkedHashSet<>();
+        for (int i = current.lowerBound(query); i < current.keys.length && seen.size() < limit; i++) {
+            if (!current.keys[i].startsWith(query)) {
+                break;
+            }
+            seen.add(current.ids[i]);
+        }
+        
+        List<EmployeeSuggestion> results = new ArrayList<>(seen.size());
+        for (Long id : seen) {
+            results.add(current.suggestions.get(id));
+        }
+        return results;
+    }
+    
+    public int size() {
+        return snapshot.suggestions.size();
+    }
+    
+    private static void addEntries(EmployeeDocument document, List<Entry> entries, Map<Long, EmployeeSuggestion> suggestions) {
+        if (!document.isActive()) {
+            return;
+        }
+        long id = document.employeeId();
+        addEntry(entries, document.fullName(), id);
+        addEntry(entries, document.lastName(), id);
+        addEntry(entries, document.employeeCode(), id);
+        suggestions.put(id, new EmployeeSuggestion(id, document.employeeCode(), document.fullName(), document.departmentName()));
+    }
+    
+    private static void addEntry(List<Entry> entries, String value, long id) {
+        if (value != null && !value.isBlank()) {
+            entries.add(new Entry(value.toLowerCase(Locale.ROOT), id));
+        }
+    }
+    
+    private record Entry(String key, long id) implements Comparable<Entry> {
+        
+        @Override
+        public int compareTo(Entry other) {
+            int byKey = key.compareTo(other.key);
+            return byKey != 0 ? byKey : Long.compare(id, other.id);
+        }
+    }
+    
+    private static final class Snapshot {
+        
+        private static final Snapshot EMPTY = new Snapshot(new String[0], new long[0], Map.of());
+        
+        private final String[] keys;
+        private final long[] ids;
+        private final Map<Long, EmployeeSuggestion> suggestions;
+        
+        private Snapshot(String[] keys, long[] ids, Map<Long, EmployeeSuggestion> suggestions) {
+            this.keys = keys;
+            this.ids = ids;
+            this.suggestions = suggestions;
+        }
+        
+        private static Snapshot of(List<Entry> sortedEntries, Map<Long, EmployeeSuggestion> suggestions) {
+            String[] keys = new String[sortedEntries.size()];
+            long[] ids = new long[sortedEntries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                Entry entry = sortedEntries.get(i);
+                keys[i] = entry.key();
+                ids[i] = entry.id();
+            }
+            return new Snapshot(keys, ids, Map.copyOf(suggestions));
+        }
+        
+        private int lowerBound(String prefix) {
+            int index = Arrays.binarySearch(keys, prefix);
+            if (index < 0) {
+                return -index - 1;
+            }
+            // Duplicate keys: step back to the first occurrence
+            while (index > 0 && keys[index - 1].equals(prefix)) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
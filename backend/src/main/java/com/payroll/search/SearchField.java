@@ -0,0 +1,45 @@
+package com.payroll.search;
+
+import java.util.Locale;
+
+/**
+ * Employee text fields covered by the trigram index, in descending ranking weight.
+ */
+public enum SearchField {
+    
+    NAME(4),
+    CODE(3),
+    EMAIL(2),
+    DEPARTMENT(1);
+    
+    private final int weight;
+    
+    SearchField(int weight) {
+        this.weight = weight;
+    }
+    
+    public int getWeight() {
+        return weight;
+    }
+    
+    String valueOf(EmployeeDocument document) {
+        String value;
+        switch (this) {
+            case NAME:
+                value = document.fullName();
+                break;
+            case CODE:
+                value = document.employeeCode();
+                break;
+            case EMAIL:
+                value = document.email();
+                break;
+            case DEPARTMENT:
+                value = document.departmentName();
+                break;
+            default:
+                throw new IllegalStateException("Unsupported field: " + this);
+        }
+        return value != null ? value.toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,25 @@
+package com.payroll.search;
+
+/**
+ * How {@code EmployeeService} resolves keyword, name, department-name and type-ahead searches, set by
+ * {@code employee.search.mode}. Outside {@link #MEMORY} mode fuzzy name search degrades to plain name
+ * matching, and the faceted directory is served from the in-memory index in every mode.
+ */
+public enum SearchMode {
+    
+    /**
+     * In-process trigram index; fastest, but each app node holds its own copy.
+     */
+    MEMORY,
+    
+    /**
+     * MySQL FULLTEXT index with relevance ordering, for deployments running several app nodes.
+     * Falls back to {@link #LIKE} on databases without FULLTEXT support.
+     */
+    FULLTEXT,
+    
+    /**
+     * Plain {@code LIKE '%keyword%'} queries.
+     */
+    LIKE
+}
@@ -0,0 +1,200 @@
+package com.payroll.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram index over employee name, email, code and department name.
+ *
+ * <p>Substring search ({@code LIKE '%kw%'}) can't use a B-tree index, so every search used to scan the
+ * employees table. Here each field value is split into overlapping three-character grams; a keyword's
+ * candidates are the intersection of its grams' posting sets, and candidates are then verified with a
+ * real substring check so results match the old {@code LIKE} semantics exactly. Keywords shorter than
+ * three characters fall back to a scan of the in-memory documents.</p>
+ */
+@Component
+public class TrigramEmployeeIndex implements EmployeeIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, EmployeeDocument> documents = new HashMap<>();
+    private final Map<Long, Set<Long>> postings = new HashMap<>();
+
+    @Override
+    public void rebuild(Collection<EmployeeDocument> allDocuments) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            for (EmployeeDocument document : allDocuments) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void update(Collection<EmployeeDocument> changed, Collection<EmployeeDocument> allDocuments) {
+        lock.writeLock().lock();
+        try {
+            for (EmployeeDocument document : changed) {
+                EmployeeDocument previous = documents.remove(document.employeeId());
+                if (previous != null) {
+                    forEachGram(previous, gram -> {
+                        Set<Long> ids = postings.get(gram);
+                        if (ids != null) {
+                            ids.remove(previous.employeeId());
+                            if (ids.isEmpty()) {
+                                postings.remove(gram);
+                            }
+                        }
+                    });
+                }
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns matching employee IDs ranked by best field match: exact value, then prefix of the value
+     * or one of its words, then plain substring; ties are broken by field weight and then by name.
+     */
+    public List<Long> search(String keyword, Set<SearchField> fields, boolean activeOnly) {
+        if (keyword == null || keyword.isBlank()) {
+            return List.of();
+        }
+        String query = keyword.trim().toLowerCase(Locale.ROOT);
+
+        lock.readLock().lock();
+        try {
+            Collection<Long> candidates = query.length() < 3 ? documents.keySet() : candidates(query, fields);
+            List<Match> matches = new ArrayList<>();
+            for (Long id : candidates) {
+                EmployeeDocument document = documents.get(id);
+                if (document == null || (activeOnly && !document.isActive())) {
+                    continue;
+                }
+                int score = score(document, query, fields);
+                if (score > 0) {
+                    matches.add(new Match(id, score, SearchField.NAME.valueOf(document)));
+                }
+            }
+            matches.sort(Comparator.comparingInt(Match::score).reversed()
+                    .thenComparing(Match::name)
+                    .thenComparing(Match::id));
+
+            List<Long> ids = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                ids.add(match.id());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> search(String keyword, SearchField field, boolean activeOnly) {
+        return search(keyword, EnumSet.of(field), activeOnly);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> candidates(String query, Set<SearchField> fields) {
+        Set<Long> union = new HashSet<>();
+        for (SearchField field : fields) {
+            List<Set<Long>> lists = new ArrayList<>();
+            for (int i = 0; i + 3 <= query.length(); i++) {
+                Set<Long> ids = postings.get(gram(field, query, i));
+                if (ids == null) {
+                    lists = null;
+                    break;
+                }
+                lists.add(ids);
+            }
+            if (lists == null) {
+                continue;
+            }
+            // Intersect starting from the rarest gram so the working set stays small
+            lists.sort(Comparator.comparingInt(Set::size));
+            Set<Long> intersection = new HashSet<>(lists.get(0));
+            for (int i = 1; i < lists.size() && !intersection.isEmpty(); i++) {
+                intersection.retainAll(lists.get(i));
+            }
+            union.addAll(intersection);
+        }
+        return union;
+    }
+
+    private static int score(EmployeeDocument document, String query, Set<SearchField> fields) {
+        int best = 0;
+        for (SearchField field : fields) {
+            String value = field.valueOf(document);
+            int position = value.indexOf(query);
+            if (position < 0) {
+                continue;
+            }
+            int quality;
+            if (value.equals(query)) {
+                quality = 3;
+            } else if (position == 0 || !Character.isLetterOrDigit(value.charAt(position - 1))) {
+                quality = 2;
+            } else {
+                quality = 1;
+            }
+            best = Math.max(best, quality * 10 + field.getWeight());
+        }
+        return best;
+    }
+
+    private void add(EmployeeDocument document) {
+        documents.put(document.employeeId(), document);
+        forEachGram(document, gram -> postings.computeIfAbsent(gram, key -> new HashSet<>()).add(document.employeeId()));
+    }
+
+    private static void forEachGram(EmployeeDocument document, GramConsumer consumer) {
+        for (SearchField field : SearchField.values()) {
+            String value = field.valueOf(document);
+            for (int i = 0; i + 3 <= value.length(); i++) {
+                consumer.accept(gram(field, value, i));
+            }
+        }
+    }
+
+    /**
+     * Packs the field ordinal and three UTF-16 chars into one long key.
+     */
+    private static long gram(SearchField field, String value, int offset) {
+        return ((long) field.ordinal() << 48)
+                | ((long) value.charAt(offset) << 32)
+                | ((long) value.charAt(offset + 1) << 16)
+                | value.charAt(offset + 2);
+    }
+
+    @FunctionalInterface
+    private interface GramConsumer {
+        void accept(long gram);
+    }
+
+    private record Match(Long id, int score, String name) {
+    }
+}
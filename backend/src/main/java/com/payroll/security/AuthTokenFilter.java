@@ -1,5 +1,6 @@
 package com.payroll.security;
 
+import com.payroll.entity.Employee;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,6 +17,11 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
     
@@ -25,6 +31,12 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
     
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+    
+    @Autowired
+    private TokenDenyList tokenDenyList;
+    
     private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
     
     @Override
@@ -32,16 +44,17 @@ public class AuthTokenFilter extends OncePerRequestFilter {
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, 
-                                                          userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            JwtVerification verification = jwt != null ? jwtUtils.verify(jwt) : null;
+            if (verification != null && verification.isValid() && !tokenDenyList.isRevoked(verification.tokenId())) {
+                AuthenticatedEmployee principal = resolvePrincipal(verification);
+                if (principal != null) {
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(principal, null, 
+                                                              principal.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: {}", e.getMessage());
@@ -50,6 +63,31 @@ public class AuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    private AuthenticatedEmployee resolvePrincipal(JwtVerification verification) {
+        AuthenticatedEmployee principal = verification.principal();
+        if (principal != null) {
+            return tokenVersionCache.isCurrent(principal.getEmployeeId(), principal.getTokenVersion()) ? principal : null;
+        }
+        // Tokens issued before claims were added resolve through a user lookup until they expire. They carry
+        // no version, so they count as version 0 and die with the first revocation; one issued before the
+        // account existed belonged to an earlier holder of the email and is refused.
+        UserDetails userDetails = userDetailsService.loadUserByUsername(verification.subject());
+        if (!(userDetails instanceof Employee employee) || !employee.isEnabled()
+                || issuedBefore(verification.issuedAt(), employee.getCreatedAt())) {
+            return null;
+        }
+        return tokenVersionCache.isCurrent(employee.getEmployeeId(), 0L) ? AuthenticatedEmployee.from(employee) : null;
+    }
+    
+    private static boolean issuedBefore(Date issuedAt, LocalDateTime createdAt) {
+        if (issuedAt == null || createdAt == null) {
+            return issuedAt == null;
+        }
+        // The iat claim has whole-second precision
+        Instant created = createdAt.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.SECONDS);
+        return issuedAt.toInstant().isBefore(created);
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
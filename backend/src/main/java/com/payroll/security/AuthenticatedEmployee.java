@@ -0,0 +1,75 @@
+package com.payroll.security;
+
+import com.payroll.entity.Employee;
+import com.payroll.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable principal for an authenticated request, built from token claims rather than loaded from
+ * the database. Exposes {@code employeeId} so expressions such as
+ * {@code #id == authentication.principal.employeeId} keep working.
+ */
+public final class AuthenticatedEmployee implements Principal {
+    
+    private final Long employeeId;
+    private final String email;
+    private final String employeeCode;
+    private final Role role;
+    private final long tokenVersion;
+    private final List<GrantedAuthority> authorities;
+    
+    public AuthenticatedEmployee(Long employeeId, String email, String employeeCode, Role role, long tokenVersion) {
+        this.employeeId = employeeId;
+        this.email = email;
+        this.employeeCode = employeeCode;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+    
+    public static AuthenticatedEmployee from(Employee employee) {
+        Long version = employee.getTokenVersion();
+        return new AuthenticatedEmployee(employee.getEmployeeId(), employee.getEmail(), employee.getEmployeeCode(),
+                employee.getRole(),
+                version != null ? version : 0L);
+    }
+    
+    @Override
+    public String getName() {
+        return email;
+    }
+    
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getEmployeeCode() {
+        return employeeCode;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+    
+    @Override
+    public String toString() {
+        return "AuthenticatedEmployee{employeeId=" + employeeId + ", role=" + role + "}";
+    }
+}
@@ -1,79 +1,93 @@
 package com.payroll.security;
 
+import com.payroll.entity.Employee;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
+    static final String CLAIM_EMPLOYEE_ID = "eid";
+    static final String CLAIM_EMPLOYEE_CODE = "code";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+    
     @Value("${jwt.secret}")
     private String jwtSecret;
     
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
     
-    public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
-        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationMs);
-        
-        return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(expiryDate)
-                .signWith(key(), SignatureAlgorithm.HS256)
-                .compact();
+    // Decoding the secret and building a parser are both far more expensive than verifying a token,
+    // and both objects are immutable, so they are built once
+    private Key signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
     
-    public String generateTokenFromUsername(String username) {
+    /**
+     * Issues a token carrying the claims the request filter needs to build the principal without a lookup.
+     * Every token carries them, so each one is subject to the token version check.
+     */
+    public String generateJwtToken(Employee employee) {
         Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationMs);
+        Long version = employee.getTokenVersion();
         
         return Jwts.builder()
-                .setSubject(username)
+                .setSubject(employee.getEmail())
+                .claim(CLAIM_EMPLOYEE_ID, employee.getEmployeeId())
+                .claim(CLAIM_EMPLOYEE_CODE, employee.getEmployeeCode())
+                .claim(CLAIM_ROLE, employee.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, version != null ? version : 0L)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(expiryDate)
-                .signWith(key(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
     
-    public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
-    }
-    
-    public boolean validateJwtToken(String authToken) {
+    /**
+     * Verifies the signature and expiry and extracts the claims in a single parse.
+     */
+    public JwtVerification verify(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            return JwtVerification.valid(parser.parseClaimsJws(token).getBody());
         } catch (ExpiredJwtException e) {
             logger.error("JWT token is expired: {}", e.getMessage());
+            return JwtVerification.failed(JwtVerification.Status.EXPIRED);
+        } catch (SignatureException e) {
+            logger.error("Invalid JWT signature: {}", e.getMessage());
+            return JwtVerification.failed(JwtVerification.Status.BAD_SIGNATURE);
+        } catch (MalformedJwtException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+            return JwtVerification.failed(JwtVerification.Status.MALFORMED);
         } catch (UnsupportedJwtException e) {
             logger.error("JWT token is unsupported: {}", e.getMessage());
+            return JwtVerification.failed(JwtVerification.Status.UNSUPPORTED);
         } catch (IllegalArgumentException e) {
             logger.error("JWT claims string is empty: {}", e.getMessage());
+            return JwtVerification.failed(JwtVerification.Status.EMPTY);
         }
-        return false;
     }
     
-    private Key key() {
-        return Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+    public long getJwtExpirationMs() {
+        return jwtExpirationMs;
     }
 }
\ No newline at end of file
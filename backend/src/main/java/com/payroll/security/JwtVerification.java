@@ -0,0 +1,63 @@
+package com.payroll.security;
+
+import com.payroll.enums.Role;
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Outcome of verifying a bearer token: the status and, for a valid token, its claims.
+ */
+public record JwtVerification(Status status, Claims claims) {
+    
+    public enum Status {
+        VALID,
+        EXPIRED,
+        MALFORMED,
+        BAD_SIGNATURE,
+        UNSUPPORTED,
+        EMPTY
+    }
+    
+    static JwtVerification valid(Claims claims) {
+        return new JwtVerification(Status.VALID, claims);
+    }
+    
+    static JwtVerification failed(Status status) {
+        return new JwtVerification(status, null);
+    }
+    
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+    
+    public String subject() {
+        return claims != null ? claims.getSubject() : null;
+    }
+    
+    public String tokenId() {
+        return claims != null ? claims.getId() : null;
+    }
+    
+    public Date issuedAt() {
+        return claims != null ? claims.getIssuedAt() : null;
+    }
+    
+    /**
+     * Builds the principal from the token's claims, or returns {@code null} for tokens issued
+     * without them (those still need a user lookup).
+     */
+    public AuthenticatedEmployee principal() {
+        if (claims == null) {
+            return null;
+        }
+        Long employeeId = claims.get(JwtUtils.CLAIM_EMPLOYEE_ID, Long.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        Long version = claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Long.class);
+        if (employeeId == null || role == null || version == null) {
+            return null;
+        }
+        return new AuthenticatedEmployee(employeeId, claims.getSubject(),
+                claims.get(JwtUtils.CLAIM_EMPLOYEE_CODE, String.class), Role.valueOf(role), version);
+    }
+}
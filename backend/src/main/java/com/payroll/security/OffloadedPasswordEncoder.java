@@ -0,0 +1,56 @@
+package com.payroll.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Password encoder used by the login path: delegates to BCrypt but runs every hash on the
+ * {@link PasswordHashingExecutor} instead of the request thread.
+ *
+ * <p>{@link #upgradeEncoding} reports any stored hash whose cost differs from the configured one, so
+ * the authentication provider rehashes the password after a successful login whenever the cost is
+ * changed, in either direction.</p>
+ */
+public class OffloadedPasswordEncoder implements PasswordEncoder {
+    
+    private final PasswordEncoder delegate;
+    private final PasswordHashingExecutor executor;
+    private final int strength;
+    
+    public OffloadedPasswordEncoder(PasswordEncoder delegate, PasswordHashingExecutor executor, int strength) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.strength = strength;
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return executor.execute(() -> delegate.encode(rawPassword));
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return executor.execute(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        int cost = bcryptCost(encodedPassword);
+        return cost > 0 && cost != strength;
+    }
+    
+    /**
+     * Reads the cost from a hash of the form {@code $2a$10$...}, or returns -1 if it isn't a BCrypt hash.
+     */
+    static int bcryptCost(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$'
+                || encodedPassword.charAt(3) != '$' || encodedPassword.charAt(6) != '$') {
+            return -1;
+        }
+        char tens = encodedPassword.charAt(4);
+        char units = encodedPassword.charAt(5);
+        if (!Character.isDigit(tens) || !Character.isDigit(units)) {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+}
@@ -0,0 +1,122 @@
+package com.payroll.security;
+
+import com.payroll.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing (BCrypt verification during login, rehashing) on its own bounded pool.
+ *
+ * <p>BCrypt is deliberately CPU-heavy. Run on request threads, a login burst would occupy every Tomcat
+ * worker and starve the rest of the API. Here at most {@code auth.hashing.threads} hashes run at once
+ * and a fixed number wait in the queue. Past that, callers fail fast with {@link ServiceBusyException}
+ * (503 with {@code Retry-After}) rather than piling up. Queue depth, active workers, queue wait and
+ * rejections are published as {@code payroll.auth.hashing.*} metrics.</p>
+ */
+@Component
+public class PasswordHashingExecutor {
+    
+    private static final String BUSY_MESSAGE = "Too many sign-in attempts in progress, please retry shortly";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${auth.hashing.threads:0}")
+    private int hashingThreads;
+    
+    @Value("${auth.hashing.queue-capacity:200}")
+    private int queueCapacity;
+    
+    @Value("${auth.hashing.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+    
+    @Value("${auth.hashing.retry-after-seconds:2}")
+    private long retryAfterSeconds;
+    
+    private ThreadPoolExecutor pool;
+    private Counter rejectedCounter;
+    private Timer queueWaitTimer;
+    private Timer hashTimer;
+    
+    @PostConstruct
+    public void init() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        
+        Gauge.builder("payroll.auth.hashing.queue.size", pool, p -> p.getQueue().size()).register(meterRegistry);
+        Gauge.builder("payroll.auth.hashing.active", pool, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+        rejectedCounter = Counter.builder("payroll.auth.hashing.rejected").register(meterRegistry);
+        queueWaitTimer = Timer.builder("payroll.auth.hashing.queue.wait").register(meterRegistry);
+        hashTimer = Timer.builder("payroll.auth.hashing.duration").register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Runs a hashing task on the pool and waits for its result.
+     *
+     * @throws ServiceBusyException if the queue is full or the task doesn't finish within the wait timeout
+     */
+    public <T> T execute(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = pool.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.call();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE, retryAfterSeconds);
+        }
+        
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drops the task if it is still queued; a hash already running just finishes unobserved
+            future.cancel(false);
+            rejectedCounter.increment();
+            throw new ServiceBusyException(BUSY_MESSAGE, retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException(BUSY_MESSAGE, retryAfterSeconds);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
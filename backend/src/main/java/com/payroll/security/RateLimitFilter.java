@@ -0,0 +1,66 @@
+package com.payroll.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Applies the {@link RateLimiter} after authentication, answering 429 with {@code Retry-After} once an
+ * employee has used up their allowance for an endpoint group. Anonymous requests pass through and are
+ * turned away by the authorization rules as before.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                  FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedEmployee employee) {
+            String path = urlPathHelper.getPathWithinApplication(request);
+            RateLimiter.Group group = rateLimiter.groupFor(path);
+            if (group != null) {
+                long retryAfterSeconds = group.tryAcquire(employee.getEmployeeId());
+                if (retryAfterSeconds > 0) {
+                    reject(response, path, retryAfterSeconds);
+                    return;
+                }
+            }
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+    
+    private void reject(HttpServletResponse response, String path, long retryAfterSeconds) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        
+        Map<String, Object> body = new HashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("error", "Too Many Requests");
+        body.put("message", "Rate limit exceeded, retry in " + retryAfterSeconds + " seconds");
+        body.put("path", path);
+        MAPPER.writeValue(response.getOutputStream(), body);
+    }
+}
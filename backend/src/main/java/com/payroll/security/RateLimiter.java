@@ -0,0 +1,120 @@
+package com.payroll.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-employee rate limits for expensive endpoint groups: payslip PDF rendering and the AI assistant.
+ *
+ * <p>Each group keeps one {@link TokenBucket} per employee, keyed on the {@code employeeId} of the
+ * authenticated principal. Buckets are created on first use and swept once they have refilled, since
+ * a full bucket is indistinguishable from a new one; memory therefore tracks the users active within
+ * the last refill window, not the whole user base.</p>
+ */
+@Component
+public class RateLimiter {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${rate-limit.payslip.capacity:10}")
+    private int payslipCapacity;
+    
+    @Value("${rate-limit.payslip.refill-per-minute:10}")
+    private int payslipRefillPerMinute;
+    
+    @Value("${rate-limit.ai.capacity:5}")
+    private int aiCapacity;
+    
+    @Value("${rate-limit.ai.refill-per-minute:5}")
+    private int aiRefillPerMinute;
+    
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private List<Group> groups = List.of();
+    
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        groups = List.of(
+                new Group("payslip", List.of("/salary/*/payslip/**", "/salary/payslip/**", "/salary/my-payslip/**"),
+                        payslipCapacity, payslipRefillPerMinute),
+                new Group("ai", List.of("/ai/**"), aiCapacity, aiRefillPerMinute));
+    }
+    
+    /**
+     * Returns the limited group a request path (relative to the context path) belongs to, or null.
+     */
+    public Group groupFor(String path) {
+        for (Group group : groups) {
+            for (String pattern : group.patterns) {
+                if (pathMatcher.match(pattern, path)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+    
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-ms:60000}", initialDelayString = "${rate-limit.sweep-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        for (Group group : groups) {
+            // Conditional removal: a bucket picked up by a request mid-sweep costs at most that one token
+            group.buckets.values().removeIf(bucket -> bucket.isFull(now));
+        }
+    }
+    
+    public final class Group {
+        
+        private final String name;
+        private final List<String> patterns;
+        private final long intervalNanos;
+        private final long capacityNanos;
+        private final Map<Long, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final Counter rejectedCounter;
+        
+        private Group(String name, List<String> patterns, int capacity, int refillPerMinute) {
+            if (capacity < 1 || refillPerMinute < 1) {
+                throw new IllegalArgumentException("Rate limit for " + name + " needs a capacity and refill of at least 1");
+            }
+            this.name = name;
+            this.patterns = patterns;
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+            this.capacityNanos = intervalNanos * capacity;
+            this.rejectedCounter = Counter.builder("payroll.ratelimit.rejected").tag("group", name).register(meterRegistry);
+            Gauge.builder("payroll.ratelimit.buckets", buckets, Map::size).tag("group", name).register(meterRegistry);
+        }
+        
+        /**
+         * Takes one token for the employee.
+         *
+         * @return 0 if the request may proceed, otherwise the whole seconds to wait before retrying
+         */
+        public long tryAcquire(Long employeeId) {
+            long waitNanos = buckets.computeIfAbsent(employeeId, id -> new TokenBucket())
+                    .tryConsume(System.nanoTime(), intervalNanos, capacityNanos);
+            if (waitNanos == 0) {
+                return 0;
+            }
+            rejectedCounter.increment();
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.payroll.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the generic cell rate
+ * algorithm). A request is admitted if, after paying one token's worth of time, the bucket would be
+ * no more than {@code capacity} tokens in debt. This behaves exactly like a bucket of that capacity
+ * refilled continuously, without needing a lock or a timer.
+ */
+final class TokenBucket {
+    
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+    
+    /**
+     * Tries to take one token.
+     *
+     * @param now            current {@link System#nanoTime()}
+     * @param intervalNanos  time to refill one token
+     * @param capacityNanos  {@code capacity * intervalNanos}
+     * @return 0 if the token was taken, otherwise how many nanoseconds until one is available
+     */
+    long tryConsume(long now, long intervalNanos, long capacityNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long debt = next - now;
+            if (debt > capacityNanos) {
+                return debt - capacityNanos;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+    
+    /**
+     * A full bucket holds no state worth keeping: dropping it and starting a new one is equivalent.
+     */
+    boolean isFull(long now) {
+        return theoreticalArrival.get() <= now;
+    }
+}
@@ -0,0 +1,145 @@
+package com.payroll.security;
+
+import com.payroll.entity.RevokedToken;
+import com.payroll.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revoked token IDs ({@code jti}), checked on every authenticated request.
+ *
+ * <p>The revoked set lives in memory behind a bloom filter. Almost every token is not revoked, and for
+ * those the filter answers after a handful of bit reads; only a filter hit is confirmed against the
+ * exact set. Revocations are written to the {@code revoked_tokens} table and every node polls it, so a
+ * logout on one node takes effect on the others within one poll interval. Entries are dropped by a
+ * slower sweep once the token would have expired anyway; until then an expired entry is harmless.</p>
+ */
+@Component
+public class TokenDenyList {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TokenDenyList.class);
+    
+    // Re-read a little history on each poll so rows committed late by another node aren't skipped
+    private static final long POLL_OVERLAP_SECONDS = 60;
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Value("${jwt.deny-list.expected-entries:100000}")
+    private int expectedEntries;
+    
+    @Value("${jwt.deny-list.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    private final Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(1, 0.01);
+    private volatile LocalDateTime lastSeenRevokedAt = LocalDateTime.now();
+    
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        return filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+    
+    /**
+     * Revokes a verified token until its expiry.
+     */
+    public void revoke(JwtVerification verification) {
+        String tokenId = verification.tokenId();
+        Date expiration = verification.claims().getExpiration();
+        if (tokenId == null || expiration == null) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault());
+        AuthenticatedEmployee principal = verification.principal();
+        revokedTokenRepository.save(new RevokedToken(tokenId,
+                principal != null ? principal.getEmployeeId() : null, expiresAt, LocalDateTime.now()));
+        add(tokenId, expiresAt);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(now)) {
+                revoked.put(token.getTokenId(), token.getExpiresAt());
+                advanceLastSeen(token.getRevokedAt());
+            }
+            rebuildFilter();
+        }
+        logger.info("Loaded {} revoked tokens", revoked.size());
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.deny-list.poll-ms:10000}", initialDelayString = "${jwt.deny-list.poll-ms:10000}")
+    public void poll() {
+        try {
+            LocalDateTime since = lastSeenRevokedAt.minusSeconds(POLL_OVERLAP_SECONDS);
+            for (RevokedToken token : revokedTokenRepository.findByRevokedAtAfter(since)) {
+                add(token.getTokenId(), token.getExpiresAt());
+                advanceLastSeen(token.getRevokedAt());
+            }
+        } catch (Exception e) {
+            logger.warn("Revoked token poll failed, keeping current deny list: {}", e.getMessage());
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.deny-list.sweep-ms:600000}", initialDelayString = "${jwt.deny-list.sweep-ms:600000}")
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            int removed = revokedTokenRepository.deleteExpired(now);
+            if (removed > 0) {
+                logger.debug("Swept {} expired revoked tokens", removed);
+            }
+        } catch (Exception e) {
+            logger.warn("Revoked token sweep failed: {}", e.getMessage());
+        }
+        synchronized (this) {
+            // Bloom filters can't remove entries, so rebuild once expired ones have been dropped
+            if (revoked.values().removeIf(expiresAt -> expiresAt.isBefore(now))) {
+                rebuildFilter();
+            }
+        }
+    }
+    
+    public int size() {
+        return revoked.size();
+    }
+    
+    private synchronized void add(String tokenId, LocalDateTime expiresAt) {
+        // Set first, then filter: a reader that sees the filter bit always finds the entry
+        if (revoked.put(tokenId, expiresAt) == null) {
+            if (revoked.size() > expectedEntries) {
+                expectedEntries *= 2;
+                rebuildFilter();
+            } else {
+                filter.put(tokenId);
+            }
+        }
+    }
+    
+    private void rebuildFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size()), falsePositiveRate);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+    
+    private synchronized void advanceLastSeen(LocalDateTime revokedAt) {
+        if (revokedAt != null && revokedAt.isAfter(lastSeenRevokedAt)) {
+            lastSeenRevokedAt = revokedAt;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.payroll.security;
+
+import com.payroll.event.PayrollDataChangedEvent;
+import com.payroll.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current token version per employee, so a claims-based principal can be checked without a query.
+ *
+ * <p>Versions only ever increase. A token matching the cached version is accepted, an older one is
+ * rejected, and only a newer one (or a missing or expired entry) means the cache may be stale and has
+ * to be re-read from the database. Local changes evict entries straight away; the TTL bounds how long
+ * a change made on another node can go unnoticed.</p>
+ */
+@Component
+public class TokenVersionCache {
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Value("${jwt.version-cache.ttl-ms:30000}")
+    private long ttlMs;
+    
+    private final Map<Long, Entry> versions = new ConcurrentHashMap<>();
+    
+    public boolean isCurrent(Long employeeId, long tokenVersion) {
+        long now = System.currentTimeMillis();
+        Entry entry = versions.get(employeeId);
+        if (entry != null && now < entry.expiresAt()) {
+            if (tokenVersion == entry.version()) {
+                return true;
+            }
+            if (tokenVersion < entry.version()) {
+                return false;
+            }
+        }
+        
+        Optional<Long> current = employeeRepository.findTokenVersion(employeeId);
+        if (current.isEmpty()) {
+            versions.remove(employeeId);
+            return false;
+        }
+        versions.put(employeeId, new Entry(current.get(), now + ttlMs));
+        return tokenVersion == current.get();
+    }
+    
+    public void evict(Long employeeId) {
+        versions.remove(employeeId);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayrollDataChanged(PayrollDataChangedEvent event) {
+        if (event.getKind() != PayrollDataChangedEvent.Kind.EMPLOYEE) {
+            return;
+        }
+        if (event.isBulk()) {
+            versions.clear();
+        } else {
+            event.getIds().forEach(versions::remove);
+        }
+    }
+    
+    private record Entry(long version, long expiresAt) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.payroll.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, expiring cache of Gemini responses.
+ *
+ * <p>Answers about an employee's pay are keyed on the prompt type, the employee and the last update
+ * of the salary records the prompt was built from, so an edit makes the next request go to the model
+ * while unchanged data is answered from memory. Free-form prompts are keyed on a hash of the
+ * normalized prompt text. Entries expire after a TTL and the least recently used entry is dropped once
+ * the cache is full. Lookups are counted as {@code payroll.ai.cache.requests} tagged hit or miss.</p>
+ */
+@Service
+public class AIResponseCache {
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${ai.cache.max-entries:2000}")
+    private int maxEntries;
+    
+    @Value("${ai.cache.data-ttl-ms:86400000}")
+    private long dataTtlMs;
+    
+    @Value("${ai.cache.prompt-ttl-ms:21600000}")
+    private long promptTtlMs;
+    
+    private LongSupplier clock = System::currentTimeMillis;
+    
+    private Map<String, Entry> entries;
+    private Counter hitCounter;
+    private Counter missCounter;
+    
+    @PostConstruct
+    public void init() {
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        hitCounter = Counter.builder("payroll.ai.cache.requests").tag("result", "hit").register(meterRegistry);
+        missCounter = Counter.builder("payroll.ai.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("payroll.ai.cache.size", this, AIResponseCache::size).register(meterRegistry);
+    }
+    
+    /**
+     * Key for a prompt built from an employee's salary records, valid until those records change.
+     */
+    public Key forEmployeeData(String promptType, Long employeeId, String dataVersion) {
+        return new Key(promptType + ":" + employeeId + ":" + dataVersion, dataTtlMs);
+    }
+    
+    /**
+     * Key for a free-form prompt: case and whitespace differences map to the same entry.
+     */
+    public Key forPrompt(String prompt) {
+        String normalized = prompt.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        return new Key("prompt:" + sha256(normalized), promptTtlMs);
+    }
+    
+    public String get(Key key) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key.id());
+            if (entry != null && entry.expiresAt() <= clock.getAsLong()) {
+                entries.remove(key.id());
+                entry = null;
+            }
+        }
+        (entry != null ? hitCounter : missCounter).increment();
+        return entry != null ? entry.response() : null;
+    }
+    
+    public void put(Key key, String response) {
+        synchronized (entries) {
+            entries.put(key.id(), new Entry(response, clock.getAsLong() + key.ttlMs()));
+        }
+    }
+    
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+    
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    public record Key(String id, long ttlMs) {
+    }
+    
+    private record Entry(String response, long expiresAt) {
+    }
+}
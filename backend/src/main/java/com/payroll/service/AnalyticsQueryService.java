@@ -0,0 +1,165 @@
+package com.payroll.service;
+
+import com.payroll.analytics.AggregateFunction;
+import com.payroll.analytics.CompiledQuery;
+import com.payroll.analytics.Dimension;
+import com.payroll.analytics.GroupAccumulator;
+import com.payroll.analytics.GroupByTask;
+import com.payroll.analytics.PayrollFact;
+import com.payroll.dto.analytics.AnalyticsQueryRequest;
+import com.payroll.dto.analytics.AnalyticsQueryResponse;
+import com.payroll.exception.QueryBudgetExceededException;
+import com.payroll.repository.SalaryDetailsRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes ad-hoc group-by queries over payroll facts so new report cuts don't need
+ * a hand-written method in {@link AnalyticsService}.
+ */
+@Service
+public class AnalyticsQueryService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsQueryService.class);
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<List<Object>> GROUP_KEY_ORDER = (a, b) -> {
+        for (int i = 0; i < a.size(); i++) {
+            Object left = a.get(i);
+            Object right = b.get(i);
+            if (left == right) {
+                continue;
+            }
+            if (left == null) {
+                return -1;
+            }
+            if (right == null) {
+                return 1;
+            }
+            int result = left instanceof Comparable && left.getClass() == right.getClass()
+                    ? ((Comparable) left).compareTo(right)
+                    : left.toString().compareTo(right.toString());
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    };
+    
+    @Autowired
+    private SalaryDetailsRepository salaryDetailsRepository;
+    
+    @Value("${analytics.query.max-rows:500000}")
+    private int maxRowsLimit;
+    
+    @Value("${analytics.query.timeout-ms:5000}")
+    private long timeoutLimitMs;
+    
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    
+    public AnalyticsQueryResponse execute(AnalyticsQueryRequest request) {
+        CompiledQuery query = CompiledQuery.compile(request);
+        int rowBudget = request.getMaxRows() != null ? Math.min(request.getMaxRows(), maxRowsLimit) : maxRowsLimit;
+        long timeBudgetMs = request.getTimeoutMs() != null ? Math.min(request.getTimeoutMs(), timeoutLimitMs) : timeoutLimitMs;
+        
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeBudgetMs);
+        
+        // Fetch one matching row past the budget so an over-budget query is rejected instead of silently truncated
+        List<PayrollFact> loaded;
+        try {
+            loaded = salaryDetailsRepository.findPayrollFacts(query, rowBudget + 1, timeBudgetMs);
+        } catch (QueryTimeoutException e) {
+            throw new QueryBudgetExceededException("Analytics query exceeded its time budget", e);
+        }
+        if (loaded.size() > rowBudget) {
+            throw new QueryBudgetExceededException(
+                    String.format("Analytics query exceeds the row budget of %d rows", rowBudget));
+        }
+        PayrollFact[] facts = loaded.toArray(new PayrollFact[0]);
+        
+        Map<List<Object>, GroupAccumulator> groups = aggregate(facts, query, deadline);
+        
+        long matched = 0;
+        for (GroupAccumulator accumulator : groups.values()) {
+            matched += accumulator.getCount();
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        logger.debug("Analytics query loaded {} rows into {} groups in {} ms", facts.length, groups.size(), elapsedMs);
+        
+        List<String> groupByLabels = new ArrayList<>();
+        for (Dimension dimension : query.getGroupBy()) {
+            groupByLabels.add(CompiledQuery.camelCase(dimension.name()));
+        }
+        return new AnalyticsQueryResponse(groupByLabels, query.aggregateLabels(), toRows(groups, query, groupByLabels),
+                facts.length, matched, elapsedMs);
+    }
+    
+    private Map<List<Object>, GroupAccumulator> aggregate(PayrollFact[] facts, CompiledQuery query, long deadline) {
+        ForkJoinTask<Map<List<Object>, GroupAccumulator>> task =
+                pool.submit(new GroupByTask(facts, 0, facts.length, query, deadline));
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return task.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            task.cancel(true);
+            throw new QueryBudgetExceededException("Analytics query exceeded its time budget", e);
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new QueryBudgetExceededException("Analytics query was interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Analytics query failed", e.getCause());
+        }
+    }
+    
+    private List<Map<String, Object>> toRows(Map<List<Object>, GroupAccumulator> groups, CompiledQuery query,
+                                             List<String> groupByLabels) {
+        AggregateFunction[] functions = query.getFunctions();
+        List<Map<String, Object>> rows = new ArrayList<>(groups.size());
+        
+        groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(GROUP_KEY_ORDER))
+                .forEach(entry -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    for (int i = 0; i < groupByLabels.size(); i++) {
+                        row.put(groupByLabels.get(i), entry.getKey().get(i));
+                    }
+                    for (int i = 0; i < functions.length; i++) {
+                        double value = entry.getValue().result(functions[i], i);
+                        row.put(query.label(i), functions[i] == AggregateFunction.COUNT
+                                ? (Object) (long) value
+                                : BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP));
+                    }
+                    rows.add(row);
+                });
+        return rows;
+    }
+    
+    
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,157 @@
+package com.payroll.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serves analytics results as pre-serialized JSON bytes tagged with the payroll data version.
+ *
+ * <p>A request whose {@code If-None-Match} carries the current version is answered with 304 before
+ * anything is computed or serialized. Otherwise the result is computed and serialized at most once
+ * per version and key, and the cached bytes (gzip'd when large enough) are written as-is. Concurrent
+ * misses on one key wait for the first request's computation instead of running their own.</p>
+ */
+@Service
+public class AnalyticsResponseCache {
+    
+    @Autowired
+    private PayrollDataVersion dataVersion;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${analytics.cache.max-entries:256}")
+    private int maxEntries;
+    
+    @Value("${analytics.cache.gzip-min-bytes:1024}")
+    private int gzipMinBytes;
+    
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    
+    public ResponseEntity<byte[]> respond(String key, WebRequest request, Supplier<?> compute) {
+        long version = dataVersion.current();
+        String etag = "W/\"" + Long.toString(version, 36) + "\"";
+        
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        
+        CachedResponse cached = lookup(key, version, compute);
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (cached.gzip != null && acceptsGzip(request)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip);
+        }
+        return response.body(cached.json);
+    }
+    
+    private CachedResponse lookup(String key, long version, Supplier<?> compute) {
+        Entry entry = cache.get(key);
+        if (entry == null || entry.version != version) {
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+            Entry mine = new Entry(version, new CompletableFuture<>());
+            entry = cache.compute(key, (k, existing) -> existing != null && existing.version == version ? existing : mine);
+            if (entry == mine) {
+                try {
+                    mine.response.complete(serialize(compute.get()));
+                } catch (RuntimeException | Error e) {
+                    // Let the next request try again rather than replaying the failure
+                    cache.remove(key, mine);
+                    mine.response.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return entry.response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private CachedResponse serialize(Object result) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(result);
+            byte[] gzip = json.length >= gzipMinBytes ? gzip(json) : null;
+            return new CachedResponse(json, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize analytics result", e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+    
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.substring(2);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+    }
+    
+    private static final class Entry {
+        private final long version;
+        private final CompletableFuture<CachedResponse> response;
+        
+        private Entry(long version, CompletableFuture<CachedResponse> response) {
+            this.version = version;
+            this.response = response;
+        }
+    }
+    
+    private static final class CachedResponse {
+        private final byte[] json;
+        private final byte[] gzip;
+        
+        private CachedResponse(byte[] json, byte[] gzip) {
+            this.json = json;
+            this.gzip = gzip;
+        }
+    }
+}
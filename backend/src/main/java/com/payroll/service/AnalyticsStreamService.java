@@ -0,0 +1,232 @@
+package com.payroll.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.payroll.dto.analytics.DashboardFigures;
+import com.payroll.event.PayrollDataChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes live dashboard figures to admin sessions over Server-Sent Events.
+ *
+ * <p>A data change triggers exactly one recomputation; the resulting delta is serialized once and the
+ * same frame is queued to every subscriber. Each subscriber has a small bounded queue, so a client that
+ * stops reading fills its own queue and is evicted instead of holding up everyone else.</p>
+ *
+ * <p>A write to a client that has stopped reading blocks until the container gives up on the socket.
+ * Queues are therefore drained on an unbounded sender pool holding at most one thread per subscriber,
+ * so a stalled write never delays another subscriber's frames. A write still in progress after
+ * {@code analytics.stream.send-timeout-ms} gets its subscriber evicted. Emitters are completed on the
+ * sender pool too, because completing waits for any write in progress on the same emitter.</p>
+ */
+@Service
+public class AnalyticsStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsStreamService.class);
+
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT =
+            SseEmitter.event().comment("heartbeat").build();
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${analytics.stream.timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${analytics.stream.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${analytics.stream.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService recomputeExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "analytics-recompute");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Drains run one at a time per subscriber, so the pool never holds more threads than subscribers (plus completions)
+    private final ExecutorService senderPool = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "analytics-sse-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean recomputePending = new AtomicBoolean(false);
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile DashboardFigures latest;
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, queueCapacity);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> evict(subscriber));
+        emitter.onError(error -> evict(subscriber));
+        subscribers.add(subscriber);
+
+        // New subscribers get the last computed snapshot rather than triggering a recomputation. A client
+        // reconnecting with Last-Event-ID needs nothing more: the snapshot covers any deltas it missed
+        DashboardFigures snapshot = latest;
+        if (snapshot == null) {
+            snapshot = analyticsService.computeDashboardFigures();
+            latest = snapshot;
+        }
+        enqueue(subscriber, frame("snapshot", snapshot.toMap()));
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayrollDataChanged(PayrollDataChangedEvent event) {
+        // Coalesce bursts: while a recomputation is queued, further changes are covered by it
+        if (recomputePending.compareAndSet(false, true)) {
+            recomputeExecutor.execute(this::recomputeAndBroadcast);
+        }
+    }
+
+    private void recomputeAndBroadcast() {
+        recomputePending.set(false);
+        try {
+            DashboardFigures previous = latest;
+            DashboardFigures current = analyticsService.computeDashboardFigures();
+            latest = current;
+
+            Map<String, Object> delta = current.deltaFrom(previous);
+            if (delta.isEmpty() || subscribers.isEmpty()) {
+                return;
+            }
+            broadcast(frame("delta", delta));
+        } catch (Exception e) {
+            logger.error("Failed to recompute live analytics: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${analytics.stream.heartbeat-ms:15000}")
+    public void sendHeartbeat() {
+        if (!subscribers.isEmpty()) {
+            broadcast(HEARTBEAT);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${analytics.stream.send-timeout-ms:10000}")
+    public void evictStalledSubscribers() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendStartedAt;
+            if (since != 0 && now - since > sendTimeoutMs) {
+                logger.debug("Evicting analytics subscriber whose write has been blocked for {} ms", now - since);
+                evict(subscriber);
+            }
+        }
+    }
+
+    private void broadcast(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, frame);
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        if (!subscriber.queue.offer(frame)) {
+            logger.debug("Evicting slow analytics subscriber after {} undelivered events", queueCapacity);
+            evict(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senderPool.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while ((frame = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedAt = System.currentTimeMillis();
+                subscriber.emitter.send(frame);
+                subscriber.sendStartedAt = 0;
+            }
+        } catch (IOException | IllegalStateException e) {
+            evict(subscriber);
+            return;
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.draining.set(false);
+        }
+        // A frame may have been queued between the last poll and releasing the drain flag
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            senderPool.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.queue.clear();
+            // complete() waits for a write in progress, which may be the one stalled on this client
+            try {
+                senderPool.execute(subscriber.emitter::complete);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(String name, Map<String, Object> payload) {
+        try {
+            return SseEmitter.event()
+                    .id(String.valueOf(sequence.incrementAndGet()))
+                    .name(name)
+                    .data(objectMapper.writeValueAsString(payload))
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize analytics event", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(this::evict);
+        recomputeExecutor.shutdownNow();
+        senderPool.shutdown();
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        // Wall-clock start of the write in progress, 0 when idle
+        private volatile long sendStartedAt;
+
+        private Subscriber(SseEmitter emitter, int capacity) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.payroll.service;
+
+import com.payroll.entity.CodeSequence;
+import com.payroll.repository.CodeSequenceRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.LongSupplier;
+
+@Service
+public class CodeSequenceService {
+    
+    @Autowired
+    private CodeSequenceRepository codeSequenceRepository;
+    
+    /**
+     * Reserves {@code count} consecutive values and returns the first one.
+     *
+     * <p>Runs in its own short transaction so the row lock is released as soon as the range is taken,
+     * not when the caller's (possibly long) transaction commits; a rolled-back caller merely leaves a gap.
+     * A missing row is created starting at {@code initialValue}.</p>
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long reserve(String name, int count, LongSupplier initialValue) {
+        if (count < 1) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        CodeSequence sequence = codeSequenceRepository.findForUpdate(name)
+                .orElseGet(() -> codeSequenceRepository.saveAndFlush(new CodeSequence(name, initialValue.getAsLong())));
+        long first = sequence.getNextValue();
+        sequence.setNextValue(first + count);
+        return first;
+    }
+}
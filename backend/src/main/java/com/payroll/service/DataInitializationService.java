@@ -16,8 +16,10 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 @Service
 public class DataInitializationService implements CommandLineRunner {
@@ -35,6 +37,7 @@ public class DataInitializationService implements CommandLineRunner {
     private PasswordEncoder passwordEncoder;
 
     private final Random random = new Random();
+    private final Set<String> usedCodes = new HashSet<>();
 
     @Override
     public void run(String... args) throws Exception {
@@ -103,11 +106,18 @@ public class DataInitializationService implements CommandLineRunner {
                       departments.get(1), new BigDecimal("45000"), cities[1]);
 
         // Create 48 more employees
+        Set<String> usedEmails = new HashSet<>();
         int employeeCount = 0;
         for (int i = 0; i < 48; i++) {
-            String firstName = firstNames[random.nextInt(firstNames.length)];
-            String lastName = lastNames[random.nextInt(lastNames.length)];
-            String email = firstName.toLowerCase() + "." + lastName.toLowerCase() + "@payroll.com";
+            String firstName;
+            String lastName;
+            String email;
+            // Random name pairs can repeat; email is unique, so draw again on a collision
+            do {
+                firstName = firstNames[random.nextInt(firstNames.length)];
+                lastName = lastNames[random.nextInt(lastNames.length)];
+                email = firstName.toLowerCase() + "." + lastName.toLowerCase() + "@payroll.com";
+            } while (!usedEmails.add(email));
             
             Department dept = departments.get(random.nextInt(departments.size()));
             String city = cities[random.nextInt(cities.length)];
@@ -225,7 +235,12 @@ public class DataInitializationService implements CommandLineRunner {
 
     private String generateEmployeeCode(Department department) {
         String deptCode = department.getDeptName().substring(0, Math.min(3, department.getDeptName().length())).toUpperCase();
-        return deptCode + String.format("%04d", random.nextInt(9999) + 1);
+        String code;
+        // Employee codes are unique; draw again if the random suffix was already used
+        do {
+            code = deptCode + String.format("%04d", random.nextInt(9999) + 1);
+        } while (!usedCodes.add(code));
+        return code;
     }
 
     private void initializeSalaries() {
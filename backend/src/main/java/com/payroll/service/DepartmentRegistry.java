@@ -0,0 +1,162 @@
+package com.payroll.service;
+
+import com.payroll.entity.Department;
+import com.payroll.event.PayrollDataChangedEvent;
+import com.payroll.repository.DepartmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Read-mostly view of the departments table.
+ *
+ * <p>The whole table is held as an immutable snapshot and replaced atomically after every committed
+ * department change, so employee reads and writes resolve department names and validate IDs without a
+ * query. A periodic reload picks up changes committed by other app nodes, and an unknown ID triggers a
+ * reload before being reported as missing, at most once per {@code department.registry.miss-reload-ms}
+ * so a client repeating a bad ID can't turn every request into a full table read.</p>
+ *
+ * <p>Reloads can overlap (a change event, the periodic refresh and a miss), so each one takes a
+ * generation number before querying and only replaces a snapshot from an earlier generation.</p>
+ */
+@Component
+public class DepartmentRegistry {
+    
+    private static final Logger logger = LoggerFactory.getLogger(DepartmentRegistry.class);
+    
+    @Autowired
+    private DepartmentRepository departmentRepository;
+    
+    @Value("${department.registry.miss-reload-ms:1000}")
+    private long missReloadMs;
+    
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final AtomicLong lastMissReload = new AtomicLong(Long.MIN_VALUE);
+    
+    public Optional<DepartmentInfo> findById(Long deptId) {
+        if (deptId == null) {
+            return Optional.empty();
+        }
+        DepartmentInfo department = current().byId.get(deptId);
+        if (department == null && claimMissReload()) {
+            // Possibly created on another node since the last reload
+            department = reload().byId.get(deptId);
+        }
+        return Optional.ofNullable(department);
+    }
+    
+    public Optional<DepartmentInfo> findByName(String deptName) {
+        if (deptName == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(current().byName.get(deptName.trim().toLowerCase(Locale.ROOT)));
+    }
+    
+    /**
+     * Name for an employee response; {@code null} when the employee has no department.
+     */
+    public String nameOf(Department department) {
+        if (department == null) {
+            return null;
+        }
+        // getDeptId() on an uninitialized proxy doesn't hit the database
+        return findById(department.getDeptId()).map(DepartmentInfo::name).orElse(null);
+    }
+    
+    public List<DepartmentInfo> getAll() {
+        return current().ordered;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayrollDataChanged(PayrollDataChangedEvent event) {
+        if (event.getKind() == PayrollDataChangedEvent.Kind.DEPARTMENT) {
+            reload();
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${department.registry.refresh-ms:60000}", initialDelayString = "${department.registry.refresh-ms:60000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            logger.warn("Department registry refresh failed, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+    
+    private Snapshot current() {
+        Snapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+    
+    private boolean claimMissReload() {
+        long now = System.currentTimeMillis();
+        long last = lastMissReload.get();
+        return (last == Long.MIN_VALUE || now - last >= missReloadMs) && lastMissReload.compareAndSet(last, now);
+    }
+    
+    private Snapshot reload() {
+        long generation = generations.incrementAndGet();
+        Snapshot loaded = new Snapshot(generation, departmentRepository.findAllOrderByName());
+        while (true) {
+            Snapshot current = snapshot.get();
+            if (current != null && current.generation > generation) {
+                // A reload that started later has already installed fresher data
+                return current;
+            }
+            if (snapshot.compareAndSet(current, loaded)) {
+                return loaded;
+            }
+        }
+    }
+    
+    /**
+     * Immutable copy of a department row, safe to share across threads.
+     */
+    public record DepartmentInfo(Long deptId, String name, String description) {
+    }
+    
+    private static final class Snapshot {
+        private final long generation;
+        private final Map<Long, DepartmentInfo> byId;
+        private final Map<String, DepartmentInfo> byName;
+        private final List<DepartmentInfo> ordered;
+        
+        private Snapshot(long generation, Collection<Department> departments) {
+            this.generation = generation;
+            Map<Long, DepartmentInfo> ids = new HashMap<>();
+            Map<String, DepartmentInfo> names = new HashMap<>();
+            List<DepartmentInfo> list = new ArrayList<>(departments.size());
+            for (Department department : departments) {
+                DepartmentInfo info = new DepartmentInfo(department.getDeptId(), department.getDeptName(), department.getDescription());
+                ids.put(info.deptId(), info);
+                names.put(info.name().trim().toLowerCase(Locale.ROOT), info);
+                list.add(info);
+            }
+            this.byId = Map.copyOf(ids);
+            this.byName = Map.copyOf(names);
+            this.ordered = List.copyOf(list);
+        }
+    }
+}
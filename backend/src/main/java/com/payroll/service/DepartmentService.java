@@ -1,9 +1,11 @@
 package com.payroll.service;
 
 import com.payroll.entity.Department;
+import com.payroll.event.PayrollDataChangedEvent;
 import com.payroll.exception.ResourceNotFoundException;
 import com.payroll.repository.DepartmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,9 @@ public class DepartmentService {
     @Autowired
     private DepartmentRepository departmentRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<Department> getAllDepartments() {
         return departmentRepository.findAllOrderByName();
     }
@@ -29,7 +34,9 @@ public class DepartmentService {
         if (departmentRepository.existsByDeptName(department.getDeptName())) {
             throw new IllegalArgumentException("Department name already exists: " + department.getDeptName());
         }
-        return departmentRepository.save(department);
+        Department savedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.DEPARTMENT, savedDepartment.getDeptId()));
+        return savedDepartment;
     }
     
     public Department updateDepartment(Long id, Department departmentDetails) {
@@ -45,7 +52,9 @@ public class DepartmentService {
         department.setDeptName(departmentDetails.getDeptName());
         department.setDescription(departmentDetails.getDescription());
         
-        return departmentRepository.save(department);
+        Department savedDepartment = departmentRepository.save(department);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.DEPARTMENT, id));
+        return savedDepartment;
     }
     
     public void deleteDepartment(Long id) {
@@ -57,6 +66,7 @@ public class DepartmentService {
         }
         
         departmentRepository.delete(department);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.DEPARTMENT, id));
     }
     
     public Department getDepartmentByName(String name) {
@@ -0,0 +1,124 @@
+package com.payroll.service;
+
+import com.payroll.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hi/lo allocator for {@code EMPnnnn} employee codes.
+ *
+ * <p>Blocks of numbers are reserved from the {@code employee_code} row of {@code code_sequences} and
+ * then handed out from an {@link AtomicLong} with no database round trip. Each app node reserves its
+ * own blocks under a row lock, so codes never collide across nodes; numbers left in a block when the
+ * node stops are simply skipped.</p>
+ */
+@Component
+public class EmployeeCodeAllocator {
+    
+    static final String SEQUENCE_NAME = "employee_code";
+    static final String PREFIX = "EMP";
+    
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeCodeAllocator.class);
+    
+    @Autowired
+    private CodeSequenceService codeSequenceService;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Value("${employee.code.block-size:50}")
+    private int blockSize;
+    
+    private final AtomicReference<Block> current = new AtomicReference<>(Block.EXHAUSTED);
+    private final Object refillLock = new Object();
+    
+    public String nextCode() {
+        while (true) {
+            Block block = current.get();
+            long value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return format(value);
+            }
+            // Only the thread that finds the block still exhausted refills it; the rest retry on the new one
+            synchronized (refillLock) {
+                if (current.get() == block) {
+                    long first = reserve(blockSize);
+                    current.set(new Block(first, first + blockSize));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Reserves {@code count} consecutive codes in one round trip, for bulk imports.
+     */
+    public List<String> reserveCodes(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        long first = reserve(count);
+        List<String> codes = new ArrayList<>(count);
+        for (long value = first; value < first + count; value++) {
+            codes.add(format(value));
+        }
+        return codes;
+    }
+    
+    private long reserve(int count) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return codeSequenceService.reserve(SEQUENCE_NAME, count, this::initialValue);
+            } catch (DataIntegrityViolationException | TransientDataAccessException e) {
+                // Another node created the sequence row at the same moment (a duplicate key, or on InnoDB a
+                // deadlock between the two gap locks taken by FOR UPDATE on the missing row); it exists now
+                if (attempt == MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                logger.debug("Employee code reservation conflicted, retrying: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Continues after the highest existing code, including ones issued before the sequence existed.
+     */
+    private long initialValue() {
+        long max = 0;
+        for (String code : employeeRepository.findEmployeeCodesStartingWith(PREFIX)) {
+            String digits = code.substring(PREFIX.length());
+            if (!digits.isEmpty() && digits.chars().allMatch(Character::isDigit) && digits.length() < 18) {
+                max = Math.max(max, Long.parseLong(digits));
+            }
+        }
+        return max + 1;
+    }
+    
+    private static String format(long value) {
+        return PREFIX + String.format("%04d", value);
+    }
+    
+    private static final class Block {
+        
+        private static final Block EXHAUSTED = new Block(0, 0);
+        
+        private final AtomicLong next;
+        private final long end;
+        
+        private Block(long first, long end) {
+            this.next = new AtomicLong(first);
+            this.end = end;
+        }
+    }
+}
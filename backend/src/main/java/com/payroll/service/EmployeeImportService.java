@@ -0,0 +1,381 @@
+package com.payroll.service;
+
+import com.payroll.dto.EmployeeImportResult;
+import com.payroll.dto.EmployeeRequest;
+import com.payroll.enums.Role;
+import com.payroll.event.PayrollDataChangedEvent;
+import com.payroll.importer.CsvReader;
+import com.payroll.repository.EmployeeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk employee import from CSV.
+ *
+ * <p>The upload is streamed through four stages per chunk of rows: parse, validate (bean validation on
+ * {@link EmployeeRequest}, duplicate emails within the file and against the database, department names
+ * against a map loaded once), hash passwords in parallel on a bounded pool, and insert with JDBC batch
+ * statements. Rejected rows are reported individually and never stop the import.</p>
+ */
+@Service
+public class EmployeeImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeImportService.class);
+    
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private static final String INSERT_SQL = "INSERT INTO employees (first_name, last_name, email, password, " +
+            "phone_number, address, date_of_birth, hire_date, employee_code, role, department_id, is_active, " +
+            "token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+    
+    @Autowired
+    private EmployeeCodeAllocator employeeCodeAllocator;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Value("${employee.import.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${employee.import.hash-threads:0}")
+    private int hashThreads;
+    
+    private ThreadPoolExecutor hashPool;
+    private TransactionTemplate batchTransaction;
+    private Counter importedCounter;
+    private Counter rejectedCounter;
+    private Timer importTimer;
+    
+    @PostConstruct
+    public void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        // Bounded queue with caller-runs: a large import can't queue unbounded work or starve other requests
+        hashPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 4), r -> {
+                    Thread thread = new Thread(r, "employee-import-hash");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        batchTransaction = new TransactionTemplate(transactionManager);
+        importedCounter = Counter.builder("payroll.employee.import.rows").tag("outcome", "imported").register(meterRegistry);
+        rejectedCounter = Counter.builder("payroll.employee.import.rows").tag("outcome", "rejected").register(meterRegistry);
+        importTimer = Timer.builder("payroll.employee.import.duration").register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+    
+    public EmployeeImportResult importCsv(InputStream input) throws IOException {
+        long start = System.nanoTime();
+        Import job = new Import();
+        
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            CsvReader csv = new CsvReader(reader);
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("The file is empty");
+            }
+            Map<String, Integer> columns = mapColumns(header);
+            job.departments = loadDepartments();
+            
+            List<Row> chunk = new ArrayList<>(batchSize);
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                job.rowsRead++;
+                Row row = parse(csv.getRecordLine(), fields, columns, job);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() >= batchSize) {
+                    process(chunk, job);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                process(chunk, job);
+            }
+        } finally {
+            if (job.rowsImported > 0) {
+                // One event for the whole import: listeners rebuild once instead of per row
+                eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.EMPLOYEE, List.of()));
+            }
+        }
+        
+        long elapsedNanos = System.nanoTime() - start;
+        importTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        long durationMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        double rowsPerSecond = elapsedNanos > 0 ? job.rowsImported * 1_000_000_000.0 / elapsedNanos : 0;
+        logger.info("Imported {} of {} employee rows in {} ms ({} rows/s)", job.rowsImported, job.rowsRead,
+                durationMs, String.format("%.1f", rowsPerSecond));
+        return new EmployeeImportResult(job.rowsRead, job.rowsImported, job.rowsRejected, durationMs,
+                rowsPerSecond, job.errors, job.errorsTruncated);
+    }
+    
+    private Map<String, Integer> mapColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(normalizeHeader(header.get(i)), i);
+        }
+        for (String required : List.of("firstname", "lastname", "email", "password")) {
+            if (!columns.containsKey(required)) {
+                throw new IllegalArgumentException("Missing required column: " + required);
+            }
+        }
+        return columns;
+    }
+    
+    private Map<String, Long> loadDepartments() {
+        Map<String, Long> departments = new HashMap<>();
+        for (DepartmentRegistry.DepartmentInfo department : departmentRegistry.getAll()) {
+            departments.put(department.name().trim().toLowerCase(Locale.ROOT), department.deptId());
+        }
+        return departments;
+    }
+    
+    /**
+     * Parse and validate stage; returns {@code null} (after recording the error) for a rejected row.
+     */
+    private Row parse(long line, List<String> fields, Map<String, Integer> columns, Import job) {
+        EmployeeRequest request = new EmployeeRequest();
+        String email = value(fields, columns, "email");
+        try {
+            request.setFirstName(value(fields, columns, "firstname"));
+            request.setLastName(value(fields, columns, "lastname"));
+            request.setEmail(email);
+            request.setPassword(value(fields, columns, "password"));
+            request.setPhoneNumber(value(fields, columns, "phonenumber"));
+            request.setAddress(value(fields, columns, "address"));
+            request.setDateOfBirth(date(value(fields, columns, "dateofbirth")));
+            LocalDate hireDate = date(value(fields, columns, "hiredate"));
+            request.setHireDate(hireDate != null ? hireDate : LocalDate.now());
+            String role = value(fields, columns, "role");
+            request.setRole(role != null ? Role.valueOf(role.toUpperCase(Locale.ROOT)) : Role.EMPLOYEE);
+        } catch (DateTimeParseException e) {
+            job.reject(line, email, "Invalid date, expected yyyy-MM-dd: " + e.getParsedString());
+            return null;
+        } catch (IllegalArgumentException e) {
+            job.reject(line, email, "Unknown role");
+            return null;
+        }
+        
+        Set<ConstraintViolation<EmployeeRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            job.reject(line, email, violations.iterator().next().getMessage());
+            return null;
+        }
+        if (!job.emailsInFile.add(email.toLowerCase(Locale.ROOT))) {
+            job.reject(line, email, "Duplicate email in file");
+            return null;
+        }
+        
+        String departmentName = value(fields, columns, "department");
+        if (departmentName != null) {
+            Long departmentId = job.departments.get(departmentName.toLowerCase(Locale.ROOT));
+            if (departmentId == null) {
+                job.reject(line, email, "Unknown department: " + departmentName);
+                return null;
+            }
+            request.setDepartmentId(departmentId);
+        }
+        return new Row(line, request);
+    }
+    
+    private void process(List<Row> chunk, Import job) {
+        // Existing emails are checked per chunk with one IN query
+        Set<String> emails = new HashSet<>();
+        chunk.forEach(row -> emails.add(row.request.getEmail()));
+        Set<String> existing = new HashSet<>();
+        employeeRepository.findExistingEmails(emails).forEach(email -> existing.add(email.toLowerCase(Locale.ROOT)));
+        
+        List<Row> accepted = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.request.getEmail().toLowerCase(Locale.ROOT))) {
+                job.reject(row.line, row.request.getEmail(), "Email already exists");
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        
+        hashPasswords(accepted);
+        List<String> codes = employeeCodeAllocator.reserveCodes(accepted.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            batch.add(toParameters(accepted.get(i), codes.get(i), now));
+        }
+        
+        try {
+            // One transaction per chunk: under autocommit the rows ahead of a failure would stay inserted
+            // and then collide with themselves in the per-row retry below
+            batchTransaction.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, batch));
+            job.imported(accepted.size());
+        } catch (DataAccessException e) {
+            // The chunk was rolled back; isolate the offending rows (e.g. an email inserted concurrently)
+            logger.debug("Batch insert failed, retrying rows individually: {}", e.getMessage());
+            for (int i = 0; i < accepted.size(); i++) {
+                try {
+                    jdbcTemplate.update(INSERT_SQL, batch.get(i));
+                    job.imported(1);
+                } catch (DataAccessException rowFailure) {
+                    Row row = accepted.get(i);
+                    job.reject(row.line, row.request.getEmail(), "Insert failed: " + rootMessage(rowFailure));
+                }
+            }
+        }
+    }
+    
+    private void hashPasswords(List<Row> rows) {
+        List<Future<String>> hashes = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            String password = row.request.getPassword();
+            hashes.add(hashPool.submit(() -> passwordEncoder.encode(password)));
+        }
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                rows.get(i).passwordHash = hashes.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+    
+    private Object[] toParameters(Row row, String employeeCode, Timestamp now) {
+        EmployeeRequest request = row.request;
+        return new Object[] {
+                request.getFirstName(), request.getLastName(), request.getEmail(), row.passwordHash,
+                request.getPhoneNumber(), request.getAddress(),
+                request.getDateOfBirth() != null ? Date.valueOf(request.getDateOfBirth()) : null,
+                Date.valueOf(request.getHireDate()), employeeCode, request.getRole().name(),
+                request.getDepartmentId(), true, 0L, now, now
+        };
+    }
+    
+    private static String value(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static LocalDate date(String value) {
+        return value != null ? LocalDate.parse(value) : null;
+    }
+    
+    private static String normalizeHeader(String header) {
+        return header.trim().replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+    
+    private static final class Row {
+        private final long line;
+        private final EmployeeRequest request;
+        private String passwordHash;
+        
+        private Row(long line, EmployeeRequest request) {
+            this.line = line;
+            this.request = request;
+        }
+    }
+    
+    private final class Import {
+        private Map<String, Long> departments;
+        private final Set<String> emailsInFile = new HashSet<>();
+        private final List<EmployeeImportResult.RowError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+        private long rowsRead;
+        private long rowsImported;
+        private long rowsRejected;
+        
+        private void reject(long line, String email, String message) {
+            rowsRejected++;
+            rejectedCounter.increment();
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new EmployeeImportResult.RowError(line, email, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+        
+        private void imported(int count) {
+            rowsImported += count;
+            importedCounter.increment(count);
+        }
+    }
+}
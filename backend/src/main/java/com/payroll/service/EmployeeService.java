@@ -1,22 +1,51 @@
 package com.payroll.service;
 
+import com.payroll.dto.BulkEmployeeUpdateRequest;
+import com.payroll.dto.BulkUpdateResponse;
+import com.payroll.dto.EmployeeDirectoryResponse;
 import com.payroll.dto.EmployeeRequest;
 import com.payroll.dto.EmployeeResponse;
+import com.payroll.dto.EmployeeSuggestion;
 import com.payroll.entity.Department;
 import com.payroll.entity.Employee;
 import com.payroll.enums.Role;
+import com.payroll.event.PayrollDataChangedEvent;
 import com.payroll.exception.ResourceNotFoundException;
+import com.payroll.exception.ServiceBusyException;
 import com.payroll.repository.DepartmentRepository;
 import com.payroll.repository.EmployeeRepository;
+import com.payroll.repository.EmployeeSpecifications;
+import com.payroll.search.DirectoryFilter;
+import com.payroll.search.EmployeeIndexer;
+import com.payroll.search.FacetEmployeeIndex;
+import com.payroll.search.FullTextSearchSupport;
+import com.payroll.search.FuzzyNameIndex;
+import com.payroll.search.PrefixEmployeeIndex;
+import com.payroll.search.SearchField;
+import com.payroll.search.SearchMode;
+import com.payroll.search.TrigramEmployeeIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,9 +58,43 @@ public class EmployeeService {
     @Autowired
     private DepartmentRepository departmentRepository;
     
+    @Autowired
+    private DepartmentRegistry departmentRegistry;
+    
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private EmployeeCodeAllocator employeeCodeAllocator;
+    
+    @Autowired
+    private EmployeeIndexer employeeIndexer;
+    
+    @Autowired
+    private TrigramEmployeeIndex trigramIndex;
+    
+    @Autowired
+    private PrefixEmployeeIndex prefixIndex;
+    
+    @Autowired
+    private FuzzyNameIndex fuzzyNameIndex;
+    
+    @Autowired
+    private FacetEmployeeIndex facetIndex;
+    
+    @Autowired
+    private FullTextSearchSupport fullTextSearch;
+    
+    @Value("${api.batch.max-ids:100}")
+    private int maxBatchIds;
+    
+    private static final int MAX_BULK_IDS = 10_000;
+    
+    private static final Set<SearchField> KEYWORD_FIELDS = EnumSet.of(SearchField.NAME, SearchField.EMAIL, SearchField.CODE);
+    
     public List<EmployeeResponse> getAllEmployees() {
         List<Employee> employees = employeeRepository.findByIsActive(true);
         return employees.stream()
@@ -50,6 +113,21 @@ public class EmployeeService {
         return convertToResponse(employee);
     }
     
+    /**
+     * Resolves a list of employee IDs with a single {@code IN} query, returning them in request order.
+     * Duplicate IDs are returned once and unknown IDs are skipped.
+     */
+    public List<EmployeeResponse> getEmployeesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids per request");
+        }
+        return loadInOrder(distinctIds);
+    }
+    
     public EmployeeResponse createEmployee(EmployeeRequest request) {
         // Check if email already exists
         if (employeeRepository.existsByEmail(request.getEmail())) {
@@ -69,16 +147,15 @@ public class EmployeeService {
         employee.setIsActive(true);
         
         // Generate employee code
-        employee.setEmployeeCode(generateEmployeeCode());
+        employee.setEmployeeCode(employeeCodeAllocator.nextCode());
         
         // Set department if provided
         if (request.getDepartmentId() != null) {
-            Department department = departmentRepository.findById(request.getDepartmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Department not found with id: " + request.getDepartmentId()));
-            employee.setDepartment(department);
+            employee.setDepartment(departmentReference(request.getDepartmentId()));
         }
         
         Employee savedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.EMPLOYEE, savedEmployee.getEmployeeId()));
         return convertToResponse(savedEmployee);
     }
     
@@ -92,6 +169,11 @@ public class EmployeeService {
             throw new IllegalArgumentException("Email already exists: " + request.getEmail());
         }
         
+        // Tokens name the employee by email, so ones issued under the old address must stop working
+        if (!employee.getEmail().equalsIgnoreCase(request.getEmail())) {
+            employee.revokeTokens();
+        }
+        
         employee.setFirstName(request.getFirstName());
         employee.setLastName(request.getLastName());
         employee.setEmail(request.getEmail());
@@ -106,16 +188,16 @@ public class EmployeeService {
         // Update password if provided
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
             employee.setPassword(passwordEncoder.encode(request.getPassword()));
+            employee.revokeTokens();
         }
         
         // Update department if provided
         if (request.getDepartmentId() != null) {
-            Department department = departmentRepository.findById(request.getDepartmentId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Department not found with id: " + request.getDepartmentId()));
-            employee.setDepartment(department);
+            employee.setDepartment(departmentReference(request.getDepartmentId()));
         }
         
         Employee savedEmployee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.EMPLOYEE, id));
         return convertToResponse(savedEmployee);
     }
     
@@ -125,12 +207,145 @@ public class EmployeeService {
         
         // Soft delete - set isActive to false
         employee.setIsActive(false);
+        employee.revokeTokens();
         employeeRepository.save(employee);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.EMPLOYEE, id));
+    }
+    
+    public BulkUpdateResponse bulkDeactivate(BulkEmployeeUpdateRequest request) {
+        validateBulkSelection(request);
+        int affected = employeeRepository.deactivate(request.employeeIds(), request.filter());
+        publishBulkChange(request, affected);
+        return new BulkUpdateResponse(affected);
+    }
+    
+    public BulkUpdateResponse bulkTransfer(BulkEmployeeUpdateRequest request) {
+        validateBulkSelection(request);
+        if (request.departmentId() == null) {
+            throw new IllegalArgumentException("departmentId is required for a transfer");
+        }
+        departmentReference(request.departmentId());
+        int affected = employeeRepository.transfer(request.employeeIds(), request.filter(), request.departmentId());
+        publishBulkChange(request, affected);
+        return new BulkUpdateResponse(affected);
+    }
+    
+    public BulkUpdateResponse bulkChangeRole(BulkEmployeeUpdateRequest request) {
+        validateBulkSelection(request);
+        if (request.role() == null) {
+            throw new IllegalArgumentException("role is required for a role change");
+        }
+        int affected = employeeRepository.changeRole(request.employeeIds(), request.filter(), request.role());
+        publishBulkChange(request, affected);
+        return new BulkUpdateResponse(affected);
+    }
+    
+    private void validateBulkSelection(BulkEmployeeUpdateRequest request) {
+        boolean hasIds = request.employeeIds() != null && !request.employeeIds().isEmpty();
+        boolean hasFilter = request.filter() != null && !request.filter().isEmpty();
+        // Refuse an empty selection rather than silently updating every employee
+        if (!hasIds && !hasFilter) {
+            throw new IllegalArgumentException("Select employees by employeeIds or a non-empty filter");
+        }
+        if (hasIds && request.employeeIds().size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " employeeIds per request");
+        }
+    }
+    
+    /**
+     * One event per batch: ID-list updates let indexes reload just those rows, filter updates trigger a full reload.
+     */
+    private void publishBulkChange(BulkEmployeeUpdateRequest request, int affected) {
+        if (affected == 0) {
+            return;
+        }
+        boolean byIdsOnly = request.employeeIds() != null && !request.employeeIds().isEmpty();
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.EMPLOYEE,
+                byIdsOnly ? request.employeeIds() : List.of()));
     }
     
     public Page<EmployeeResponse> searchEmployees(String keyword, Pageable pageable) {
-        Page<Employee> employees = employeeRepository.searchActiveEmployees(keyword, pageable);
-        return employees.map(this::convertToResponse);
+        SearchMode mode = fullTextSearch.getSearchMode();
+        if (mode == SearchMode.FULLTEXT && fullTextSearch.isAvailable() && pageable.getSort().isUnsorted()) {
+            String query = FullTextSearchSupport.toBooleanQuery(keyword);
+            if (query != null) {
+                Page<Employee> employees = employeeRepository.fullTextSearchActiveEmployees(query, pageable);
+                return employees.map(this::convertToResponse);
+            }
+        }
+        // An explicit sort overrides relevance ranking, which only the LIKE query can honour. A blank
+        // keyword matches every active employee there, whereas the index ranks nothing for it
+        if (mode != SearchMode.MEMORY || !employeeIndexer.isReady() || pageable.getSort().isSorted()
+                || keyword == null || keyword.isBlank()) {
+            Page<Employee> employees = employeeRepository.searchActiveEmployees(keyword, pageable);
+            return employees.map(this::convertToResponse);
+        }
+        
+        List<Long> rankedIds = trigramIndex.search(keyword, KEYWORD_FIELDS, true);
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(loadInOrder(rankedIds), pageable, rankedIds.size());
+        }
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+        return new PageImpl<>(loadInOrder(rankedIds.subList(from, to)), pageable, rankedIds.size());
+    }
+    
+    public List<EmployeeSuggestion> suggestEmployees(String prefix, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new IllegalArgumentException("limit must be between 1 and 50");
+        }
+        if (fullTextSearch.getSearchMode() != SearchMode.MEMORY) {
+            return suggestFromDatabase(prefix, limit);
+        }
+        // In memory mode type-ahead never hits the database; until the index is built there are simply no suggestions
+        if (!employeeIndexer.isReady()) {
+            return List.of();
+        }
+        return prefixIndex.suggest(prefix, limit);
+    }
+    
+    /**
+     * Index-friendly prefix queries on the name and code columns, for nodes that don't keep the in-memory index.
+     */
+    private List<EmployeeSuggestion> suggestFromDatabase(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        Specification<Employee> matches = EmployeeSpecifications.isActive().and(
+                EmployeeSpecifications.nameStartsWith(prefix).or(EmployeeSpecifications.employeeCodeStartsWith(prefix)));
+        return employeeRepository.findAll(matches, PageRequest.of(0, limit, Sort.by("firstName", "lastName")))
+                .map(employee -> new EmployeeSuggestion(employee.getEmployeeId(), employee.getEmployeeCode(),
+                        employee.getFirstName() + " " + employee.getLastName(),
+                        departmentRegistry.nameOf(employee.getDepartment())))
+                .getContent();
+    }
+    
+    /**
+     * Always served from the in-memory facet index, whatever {@code employee.search.mode} says: facet
+     * counts have no cheap SQL equivalent. In the database modes each node still builds this index.
+     */
+    public EmployeeDirectoryResponse getDirectory(List<String> departmentIds, Set<Role> roles, Boolean active,
+                                                  Set<Integer> hireYears, Pageable pageable) {
+        if (!employeeIndexer.isReady()) {
+            // Facet counts have no cheap SQL equivalent; build the index in the background and ask the client to retry
+            employeeIndexer.rebuildInBackground();
+            throw new ServiceBusyException("The employee directory is being indexed, please retry shortly", 2);
+        }
+        
+        Set<Long> departments = new HashSet<>();
+        if (departmentIds != null) {
+            for (String departmentId : departmentIds) {
+                departments.add("none".equalsIgnoreCase(departmentId) ? null : Long.valueOf(departmentId));
+            }
+        }
+        DirectoryFilter filter = new DirectoryFilter(departments, roles, active, hireYears);
+        
+        int size = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        FacetEmployeeIndex.Result result = facetIndex.query(filter, offset, size);
+        return new EmployeeDirectoryResponse(loadInOrder(result.pageIds()), result.total(),
+                pageable.isPaged() ? pageable.getPageNumber() : 0,
+                pageable.isPaged() ? pageable.getPageSize() : result.pageIds().size(), result.facets());
     }
     
     public List<EmployeeResponse> getEmployeesByDepartment(Long departmentId) {
@@ -157,12 +372,6 @@ public class EmployeeService {
         return employeeRepository.countActiveEmployeesByDepartment(departmentId);
     }
     
-    private String generateEmployeeCode() {
-        String prefix = "EMP";
-        long count = employeeRepository.count() + 1;
-        return prefix + String.format("%04d", count);
-    }
-    
     private EmployeeResponse convertToResponse(Employee employee) {
         EmployeeResponse response = new EmployeeResponse();
         response.setEmployeeId(employee.getEmployeeId());
@@ -179,21 +388,71 @@ public class EmployeeService {
         response.setCreatedAt(employee.getCreatedAt());
         response.setUpdatedAt(employee.getUpdatedAt());
         
-        if (employee.getDepartment() != null) {
-            response.setDepartmentName(employee.getDepartment().getDeptName());
-        }
+        response.setDepartmentName(departmentRegistry.nameOf(employee.getDepartment()));
         
         return response;
     }
     
+    /**
+     * Validates the department against the registry and returns an unloaded reference for the foreign key.
+     */
+    private Department departmentReference(Long departmentId) {
+        if (departmentRegistry.findById(departmentId).isEmpty()) {
+            throw new ResourceNotFoundException("Department not found with id: " + departmentId);
+        }
+        return departmentRepository.getReferenceById(departmentId);
+    }
+    
+    /**
+     * Loads the given employees in one query and returns them in the order of {@code employeeIds}.
+     */
+    private List<EmployeeResponse> loadInOrder(List<Long> employeeIds) {
+        if (employeeIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Employee> byId = new HashMap<>();
+        for (Employee employee : employeeRepository.findAllById(employeeIds)) {
+            byId.put(employee.getEmployeeId(), employee);
+        }
+        List<EmployeeResponse> responses = new ArrayList<>(employeeIds.size());
+        for (Long id : employeeIds) {
+            Employee employee = byId.get(id);
+            if (employee != null) {
+                responses.add(convertToResponse(employee));
+            }
+        }
+        return responses;
+    }
+    
     // Search methods
     public List<EmployeeResponse> searchByName(String name) {
+        if (useMemoryIndex()) {
+            return loadInOrder(trigramIndex.search(name, SearchField.NAME, true));
+        }
         List<Employee> employees = employeeRepository.searchByName(name);
         return employees.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
     
+    public List<EmployeeResponse> fuzzySearchByName(String name, int maxDistance, int limit) {
+        if (maxDistance < 0 || maxDistance > FuzzyNameIndex.MAX_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + FuzzyNameIndex.MAX_DISTANCE);
+        }
+        if (limit < 1 || limit > 100) {
+            throw new IllegalArgumentException("limit must be between 1 and 100");
+        }
+        if (name != null && name.strip().length() > FuzzyNameIndex.MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("name must be at most " + FuzzyNameIndex.MAX_QUERY_LENGTH + " characters");
+        }
+        // Outside memory mode there is no edit-distance search; plain name matching is the closest thing
+        if (!useMemoryIndex()) {
+            List<EmployeeResponse> matches = searchByName(name);
+            return matches.subList(0, Math.min(limit, matches.size()));
+        }
+        return loadInOrder(fuzzyNameIndex.search(name, maxDistance, limit));
+    }
+    
     public EmployeeResponse searchById(Long id) {
         Employee employee = employeeRepository.searchById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + id));
@@ -201,6 +460,9 @@ public class EmployeeService {
     }
     
     public List<EmployeeResponse> searchByEmployeeCode(String code) {
+        if (useMemoryIndex()) {
+            return loadInOrder(trigramIndex.search(code, SearchField.CODE, false));
+        }
         List<Employee> employees = employeeRepository.searchByEmployeeCode(code);
         return employees.stream()
                 .map(this::convertToResponse)
@@ -208,14 +470,34 @@ public class EmployeeService {
     }
     
     public List<EmployeeResponse> searchByDepartmentName(String deptName) {
+        if (useMemoryIndex()) {
+            return loadInOrder(trigramIndex.search(deptName, SearchField.DEPARTMENT, true));
+        }
         List<Employee> employees = employeeRepository.searchByDepartmentName(deptName);
         return employees.stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
     
+    private boolean useMemoryIndex() {
+        return fullTextSearch.getSearchMode() == SearchMode.MEMORY && employeeIndexer.isReady();
+    }
+    
     public Page<EmployeeResponse> advancedSearch(String name, Long employeeId, String employeeCode, Long deptId, Pageable pageable) {
-        Page<Employee> employees = employeeRepository.advancedSearch(name, employeeId, employeeCode, deptId, pageable);
+        Specification<Employee> specification = EmployeeSpecifications.isActive();
+        if (employeeId != null) {
+            specification = specification.and(EmployeeSpecifications.hasEmployeeId(employeeId));
+        }
+        if (deptId != null) {
+            specification = specification.and(EmployeeSpecifications.inDepartment(deptId));
+        }
+        if (name != null && !name.isBlank()) {
+            specification = specification.and(EmployeeSpecifications.nameStartsWith(name));
+        }
+        if (employeeCode != null && !employeeCode.isBlank()) {
+            specification = specification.and(EmployeeSpecifications.employeeCodeStartsWith(employeeCode));
+        }
+        Page<Employee> employees = employeeRepository.findAll(specification, pageable);
         return employees.map(this::convertToResponse);
     }
 }
\ No newline at end of file
@@ -2,24 +2,41 @@ package com.payroll.service;
 
 import com.payroll.dto.gemini.GeminiRequest;
 import com.payroll.dto.gemini.GeminiResponse;
+import com.payroll.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class GeminiAIService {
     
     private static final Logger logger = LoggerFactory.getLogger(GeminiAIService.class);
     
+    private static final String NO_RESPONSE = "No response generated.";
+    
     @Autowired
     private WebClient geminiWebClient;
     
+    @Autowired
+    private AIResponseCache responseCache;
+    
+    @Autowired
+    private GeminiCallGuard callGuard;
+    
     @Value("${gemini.model}")
     private String model;
     
@@ -29,36 +46,162 @@ public class GeminiAIService {
     @Value("${gemini.temperature}")
     private Double temperature;
     
+    @Value("${gemini.client.call-timeout-ms:45000}")
+    private long callTimeoutMs;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private final Map<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Flux<String>> inFlightStreams = new ConcurrentHashMap<>();
+    private Counter coalescedCounter;
+    
+    @PostConstruct
+    public void init() {
+        coalescedCounter = Counter.builder("payroll.ai.requests.coalesced").register(meterRegistry);
+    }
+    
     public Mono<String> generateText(String prompt) {
+        return generateCached(responseCache.forPrompt(prompt), prompt);
+    }
+    
+    public Flux<String> streamText(String prompt) {
+        return streamCached(responseCache.forPrompt(prompt), prompt);
+    }
+    
+    /**
+     * Answers from the response cache when possible, otherwise calls Gemini and caches the answer.
+     * Concurrent requests for the same key share one in-flight call instead of each making their own.
+     * Calls that fail, time out or are turned away by {@link GeminiCallGuard} get a fallback message,
+     * which is never cached.
+     */
+    private Mono<String> generateCached(AIResponseCache.Key cacheKey, String prompt) {
+        String cached = responseCache.get(cacheKey);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        
         try {
             GeminiRequest request = createGeminiRequest(prompt);
             
-            return geminiWebClient
-                    .post()
-                    .uri("/models/{model}:generateContent", model)
-                    .bodyValue(request)
-                    .retrieve()
-                    .bodyToMono(GeminiResponse.class)
-                    .map(this::extractTextFromResponse)
-                    .doOnError(error -> logger.error("Error calling Gemini API: {}", error.getMessage()))
-                    .onErrorReturn("Sorry, I'm unable to process your request at the moment.");
+            boolean[] started = new boolean[1];
+            Mono<String> call = inFlight.computeIfAbsent(cacheKey.id(), id -> {
+                started[0] = true;
+                // cache() replays the one result to every subscriber; the entry is dropped once the call settles
+                return callGemini(request)
+                        .doOnNext(text -> responseCache.put(cacheKey, text))
+                        .doOnError(error -> logFailure("Error calling Gemini API", error))
+                        .doFinally(signal -> inFlight.remove(id))
+                        .cache();
+            });
+            if (!started[0]) {
+                coalescedCounter.increment();
+            }
             
+            return call
+                    .defaultIfEmpty(NO_RESPONSE)
+                    .onErrorReturn("Sorry, I'm unable to process your request at the moment.");
+        
         } catch (Exception e) {
             logger.error("Error creating Gemini request: {}", e.getMessage());
             return Mono.just("Error processing your request.");
         }
     }
     
-    public Mono<String> generateSalaryInsights(String employeeName, String salaryData) {
-        String prompt = String.format(
+    /**
+     * Relays the answer in the pieces Gemini's streaming endpoint produces, so the first words reach the
+     * client while the rest is still being generated. A cached answer is sent as one piece; a completed
+     * stream is cached whole, so streaming and non-streaming requests reuse each other's answers.
+     * Concurrent requests for the same key share one upstream stream: a request joining late is first
+     * sent the pieces already relayed, then follows along. Errors are passed on to every caller.
+     */
+    private Flux<String> streamCached(AIResponseCache.Key cacheKey, String prompt) {
+        String cached = responseCache.get(cacheKey);
+        if (cached != null) {
+            return Flux.just(cached);
+        }
+        
+        boolean[] started = new boolean[1];
+        Flux<String> stream = inFlightStreams.computeIfAbsent(cacheKey.id(), id -> {
+            started[0] = true;
+            // replay() keeps the pieces for late joiners; refCount() cancels Gemini once every caller has gone
+            return streamGemini(cacheKey, prompt)
+                    .doFinally(signal -> inFlightStreams.remove(id))
+                    .replay()
+                    .refCount();
+        });
+        if (!started[0]) {
+            coalescedCounter.increment();
+        }
+        return stream;
+    }
+    
+    private Flux<String> streamGemini(AIResponseCache.Key cacheKey, String prompt) {
+        return Flux.defer(() -> {
+            StringBuilder answer = new StringBuilder();
+            // The timeout applies to each piece, so a long answer isn't cut off while Gemini keeps producing it
+            Flux<String> pieces = geminiWebClient
+                    .post()
+                    .uri("/models/{model}:streamGenerateContent?alt=sse", model)
+                    .accept(MediaType.TEXT_EVENT_STREAM)
+                    .bodyValue(createGeminiRequest(prompt))
+                    .retrieve()
+                    .bodyToFlux(GeminiResponse.class)
+                    .timeout(Duration.ofMillis(callTimeoutMs))
+                    .mapNotNull(this::extractTextFromResponse);
+            return callGuard.guard(pieces)
+                    .doOnNext(answer::append)
+                    .doOnComplete(() -> {
+                        if (answer.length() > 0) {
+                            responseCache.put(cacheKey, answer.toString());
+                        }
+                    })
+                    .doOnError(error -> logFailure("Error streaming from Gemini API", error));
+        });
+    }
+    
+    // The guard turning a call away is expected under load and already counted and logged there
+    private static void logFailure(String message, Throwable error) {
+        if (error instanceof ServiceBusyException) {
+            logger.debug("{}: {}", message, error.getMessage());
+        } else {
+            logger.error("{}: {}", message, error.getMessage());
+        }
+    }
+    
+    private Mono<String> callGemini(GeminiRequest request) {
+        return callGuard.guard(geminiWebClient
+                .post()
+                .uri("/models/{model}:generateContent", model)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(GeminiResponse.class)
+                .timeout(Duration.ofMillis(callTimeoutMs))
+                .mapNotNull(this::extractTextFromResponse));
+    }
+    
+    /**
+     * The answer is cached per employee until {@code dataVersion}, which identifies the state of the
+     * salary records behind {@code salaryData}, changes.
+     */
+    public Mono<String> generateSalaryInsights(Long employeeId, String dataVersion, String employeeName, String salaryData) {
+        return generateCached(responseCache.forEmployeeData("salary-insights", employeeId, dataVersion),
+                salaryInsightsPrompt(employeeName, salaryData));
+    }
+    
+    public Flux<String> streamSalaryInsights(Long employeeId, String dataVersion, String employeeName, String salaryData) {
+        return streamCached(responseCache.forEmployeeData("salary-insights", employeeId, dataVersion),
+                salaryInsightsPrompt(employeeName, salaryData));
+    }
+    
+    private String salaryInsightsPrompt(String employeeName, String salaryData) {
+        return String.format(
             "Analyze the following salary data for employee %s and provide insights, recommendations, " +
             "and observations about their compensation structure. Focus on tax optimization, " +
             "allowances efficiency, and overall compensation strategy:\n\n%s\n\n" +
             "Please provide actionable insights in a professional format.",
             employeeName, salaryData
         );
-        
-        return generateText(prompt);
     }
     
     public Mono<String> generatePayrollReport(String payrollData) {
@@ -77,8 +220,18 @@ public class GeminiAIService {
         return generateText(prompt);
     }
     
-    public Mono<String> generateTaxAdvice(String salaryStructure) {
-        String prompt = String.format(
+    public Mono<String> generateTaxAdvice(Long employeeId, String dataVersion, String salaryStructure) {
+        return generateCached(responseCache.forEmployeeData("tax-advice", employeeId, dataVersion),
+                taxAdvicePrompt(salaryStructure));
+    }
+    
+    public Flux<String> streamTaxAdvice(Long employeeId, String dataVersion, String salaryStructure) {
+        return streamCached(responseCache.forEmployeeData("tax-advice", employeeId, dataVersion),
+                taxAdvicePrompt(salaryStructure));
+    }
+    
+    private String taxAdvicePrompt(String salaryStructure) {
+        return String.format(
             "Provide tax optimization advice for the following salary structure:\n\n%s\n\n" +
             "Please suggest:\n" +
             "1. Tax-efficient salary components\n" +
@@ -88,8 +241,6 @@ public class GeminiAIService {
             "Provide practical and legal tax optimization strategies.",
             salaryStructure
         );
-        
-        return generateText(prompt);
     }
     
     public Mono<String> generateCompensationBenchmark(String jobRole, String experience, String location) {
@@ -150,6 +301,6 @@ public class GeminiAIService {
                           .getText();
         }
         
-        return "No response generated.";
+        return null;
     }
 }
\ No newline at end of file
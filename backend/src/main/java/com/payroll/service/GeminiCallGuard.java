@@ -0,0 +1,281 @@
+package com.payroll.service;
+
+import com.payroll.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Bulkhead and circuit breaker around calls to the Gemini API.
+ *
+ * <p>At most {@code gemini.bulkhead.max-concurrent} calls run at once; a call past that is rejected
+ * immediately instead of queueing behind a slow API. The circuit breaker tracks the outcome of the last
+ * {@code gemini.circuit-breaker.window-size} calls and opens once the failure rate reaches the threshold,
+ * so while Gemini is down callers get the fallback at once rather than each waiting for a timeout.
+ * After {@code open-ms} a few trial calls are let through (half-open); if they all succeed the circuit
+ * closes, otherwise it opens again. Client errors other than 408 and 429 don't count as failures, since
+ * they say nothing about the health of the API. Each call is tied to the circuit state it was admitted
+ * under, so a slow call that finishes after a transition doesn't count against the new state.</p>
+ *
+ * <p>Rejections surface as {@link ServiceBusyException}. Metrics: {@code payroll.ai.gemini.circuit.state}
+ * (1 for the current state), {@code payroll.ai.gemini.circuit.transitions}, {@code payroll.ai.gemini.bulkhead.active},
+ * {@code payroll.ai.gemini.rejected} by reason and {@code payroll.ai.gemini.calls} timed by outcome.</p>
+ */
+@Component
+public class GeminiCallGuard {
+    
+    private static final Logger logger = LoggerFactory.getLogger(GeminiCallGuard.class);
+    
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${gemini.bulkhead.max-concurrent:20}")
+    private int maxConcurrent;
+    
+    @Value("${gemini.circuit-breaker.window-size:20}")
+    private int windowSize;
+    
+    @Value("${gemini.circuit-breaker.minimum-calls:10}")
+    private int minimumCalls;
+    
+    @Value("${gemini.circuit-breaker.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+    
+    @Value("${gemini.circuit-breaker.open-ms:30000}")
+    private long openMs;
+    
+    @Value("${gemini.circuit-breaker.half-open-calls:3}")
+    private int halfOpenCalls;
+    
+    private Semaphore bulkhead;
+    
+    private LongSupplier clock = System::currentTimeMillis;
+    
+    // Circuit state, guarded by this
+    private State state = State.CLOSED;
+    private long generation;
+    private boolean[] outcomes;
+    private int recorded;
+    private int failures;
+    private int next;
+    private long openedAt;
+    private int trialsIssued;
+    private int trialsSucceeded;
+    
+    private final Map<State, Counter> transitionCounters = new EnumMap<>(State.class);
+    private Counter circuitRejectedCounter;
+    private Counter bulkheadRejectedCounter;
+    private final Map<String, Timer> callTimers = new HashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        if (maxConcurrent < 1 || windowSize < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Gemini bulkhead, circuit breaker window and half-open calls must be at least 1");
+        }
+        bulkhead = new Semaphore(maxConcurrent);
+        outcomes = new boolean[windowSize];
+        
+        for (State each : State.values()) {
+            String tag = each.name().toLowerCase(Locale.ROOT);
+            Gauge.builder("payroll.ai.gemini.circuit.state", this, guard -> guard.getState() == each ? 1 : 0)
+                    .tag("state", tag).register(meterRegistry);
+            transitionCounters.put(each, Counter.builder("payroll.ai.gemini.circuit.transitions")
+                    .tag("to", tag).register(meterRegistry));
+        }
+        Gauge.builder("payroll.ai.gemini.bulkhead.active", bulkhead, b -> maxConcurrent - b.availablePermits())
+                .register(meterRegistry);
+        circuitRejectedCounter = Counter.builder("payroll.ai.gemini.rejected").tag("reason", "circuit_open").register(meterRegistry);
+        bulkheadRejectedCounter = Counter.builder("payroll.ai.gemini.rejected").tag("reason", "bulkhead_full").register(meterRegistry);
+        for (String outcome : new String[] {"success", "failure", "ignored", "cancelled"}) {
+            callTimers.put(outcome, Timer.builder("payroll.ai.gemini.calls").tag("outcome", outcome).register(meterRegistry));
+        }
+    }
+    
+    public Mono<String> guard(Mono<String> call) {
+        return Mono.defer(() -> {
+            Attempt attempt = begin();
+            return call
+                    .doOnSuccess(text -> attempt.succeeded())
+                    .doOnError(attempt::failed)
+                    .doOnCancel(attempt::abandoned)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+    
+    public Flux<String> guard(Flux<String> call) {
+        return Flux.defer(() -> {
+            Attempt attempt = begin();
+            return call
+                    .doOnComplete(attempt::succeeded)
+                    .doOnError(attempt::failed)
+                    .doOnCancel(attempt::abandoned)
+                    .doFinally(signal -> bulkhead.release());
+        });
+    }
+    
+    public synchronized State getState() {
+        return state;
+    }
+    
+    private Attempt begin() {
+        Attempt attempt = admit();
+        if (!bulkhead.tryAcquire()) {
+            releaseTrial(attempt);
+            bulkheadRejectedCounter.increment();
+            throw new ServiceBusyException("The AI assistant is busy, please retry shortly", 1);
+        }
+        return attempt;
+    }
+    
+    /**
+     * Lets a call through the circuit, recording the state generation it was admitted under.
+     *
+     * @throws ServiceBusyException with the whole seconds until the circuit half-opens, if it is open
+     */
+    private synchronized Attempt admit() {
+        if (state == State.OPEN) {
+            long remainingMs = openedAt + openMs - clock.getAsLong();
+            if (remainingMs > 0) {
+                circuitRejectedCounter.increment();
+                throw new ServiceBusyException("The AI assistant is temporarily unavailable",
+                        Math.max(1, TimeUnit.MILLISECONDS.toSeconds(remainingMs + 999)));
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsIssued >= halfOpenCalls) {
+                circuitRejectedCounter.increment();
+                throw new ServiceBusyException("The AI assistant is temporarily unavailable", 1);
+            }
+            trialsIssued++;
+        }
+        return new Attempt(generation, System.nanoTime());
+    }
+    
+    private synchronized void releaseTrial(Attempt attempt) {
+        if (attempt.generation == generation && state == State.HALF_OPEN && trialsIssued > 0) {
+            trialsIssued--;
+        }
+    }
+    
+    private synchronized void recordSuccess(Attempt attempt) {
+        if (attempt.generation != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                transitionTo(State.CLOSED);
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+    
+    private synchronized void recordFailure(Attempt attempt) {
+        // A call admitted before the last transition says nothing about the current state
+        if (attempt.generation != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                transitionTo(State.OPEN);
+            }
+        }
+    }
+    
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+    
+    private void transitionTo(State target) {
+        logger.warn("Gemini circuit breaker {} -> {} ({} of the last {} calls failed)", state, target, failures, recorded);
+        state = target;
+        generation++;
+        recorded = 0;
+        failures = 0;
+        next = 0;
+        trialsIssued = 0;
+        trialsSucceeded = 0;
+        if (target == State.OPEN) {
+            openedAt = clock.getAsLong();
+        }
+        transitionCounters.get(target).increment();
+    }
+    
+    private static boolean countsAsFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+            int status = response.getStatusCode().value();
+            return status == 408 || status == 429;
+        }
+        return true;
+    }
+    
+    private final class Attempt {
+        
+        private final long generation;
+        private final long startedAt;
+        
+        private Attempt(long generation, long startedAt) {
+            this.generation = generation;
+            this.startedAt = startedAt;
+        }
+        
+        void succeeded() {
+            recordSuccess(this);
+            time("success");
+        }
+        
+        void failed(Throwable error) {
+            if (countsAsFailure(error)) {
+                recordFailure(this);
+                time("failure");
+            } else {
+                releaseTrial(this);
+                time("ignored");
+            }
+        }
+        
+        void abandoned() {
+            releaseTrial(this);
+            time("cancelled");
+        }
+        
+        private void time(String outcome) {
+            callTimers.get(outcome).record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+}
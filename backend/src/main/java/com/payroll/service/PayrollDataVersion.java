@@ -0,0 +1,26 @@
+package com.payroll.service;
+
+import com.payroll.event.PayrollDataChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the payroll data, bumped after every committed change.
+ * Seeded from the clock so versions handed out before a restart are never reused.
+ */
+@Component
+public class PayrollDataVersion {
+    
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    
+    public long current() {
+        return version.get();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPayrollDataChanged(PayrollDataChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
@@ -24,7 +24,7 @@ public class PayslipService {
     
     public byte[] generatePayslip(Long employeeId, Integer month, Integer year) throws DocumentException, IOException {
         SalaryDetails salaryDetails = salaryDetailsRepository
-                .findByEmployeeEmployeeIdAndMonthAndYear(employeeId, month, year)
+                .findForPayslip(employeeId, month, year)
                 .orElseThrow(() -> new ResourceNotFoundException(
                     String.format("Salary record not found for employee %d in %d/%d", employeeId, month, year)));
         
@@ -32,7 +32,7 @@ public class PayslipService {
     }
     
     public byte[] generatePayslipBySalaryId(Long salaryId) throws DocumentException, IOException {
-        SalaryDetails salaryDetails = salaryDetailsRepository.findById(salaryId)
+        SalaryDetails salaryDetails = salaryDetailsRepository.findForPayslipById(salaryId)
                 .orElseThrow(() -> new ResourceNotFoundException("Salary record not found with id: " + salaryId));
         
         return createPayslipPDF(salaryDetails);
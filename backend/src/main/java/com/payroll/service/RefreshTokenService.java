@@ -0,0 +1,130 @@
+package com.payroll.service;
+
+import com.payroll.entity.Employee;
+import com.payroll.entity.RefreshToken;
+import com.payroll.exception.InvalidTokenException;
+import com.payroll.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens, which let clients hold short-lived access tokens.
+ *
+ * <p>A refresh costs one primary-key lookup (employee joined in), a primary-key update marking the
+ * token used and the insert of its successor. Each token is single use: presenting a token that was
+ * already rotated means a copy is in someone else's hands, so the whole family is revoked.</p>
+ *
+ * <p>A periodic sweep deletes expired rows in bulk rather than one at a time, along with used rows
+ * older than the reuse-detection window. Replaying a token older than that window is refused as
+ * unknown, without revoking the family.</p>
+ */
+@Service
+public class RefreshTokenService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    private static final SecureRandom RANDOM = new SecureRandom();
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Value("${jwt.refresh.expiration:604800000}")
+    private long refreshExpirationMs;
+    
+    @Value("${jwt.refresh.reuse-window-ms:86400000}")
+    private long reuseWindowMs;
+    
+    public record Rotation(Employee employee, String refreshToken) {
+    }
+    
+    /**
+     * Starts a new token family for a fresh login.
+     */
+    @Transactional
+    public String issue(Employee employee) {
+        return create(employee, UUID.randomUUID().toString());
+    }
+    
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String presentedToken) {
+        RefreshToken current = refreshTokenRepository.findWithEmployee(hash(presentedToken))
+                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        
+        Employee employee = current.getEmployee();
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getExpiresAt().isBefore(now)
+                || !Boolean.TRUE.equals(employee.getIsActive())
+                || !Objects.equals(current.getTokenVersion(), employee.getTokenVersion())) {
+            throw new InvalidTokenException("Refresh token has expired or been revoked");
+        }
+        
+        if (current.getRotatedAt() != null) {
+            refreshTokenRepository.deleteFamily(current.getFamilyId());
+            logger.warn("Refresh token reuse detected for employee {}, session revoked", employee.getEmployeeId());
+            throw new InvalidTokenException("Refresh token has already been used");
+        }
+        
+        // Marking the row used is the race point: a dirty-checked update would only lose at commit, as an
+        // optimistic locking failure the caller sees as a server error, so the loser is told here instead
+        if (refreshTokenRepository.markRotated(current.getTokenHash(), now) == 0) {
+            throw new InvalidTokenException("Refresh token has already been used");
+        }
+        return new Rotation(employee, create(employee, current.getFamilyId()));
+    }
+    
+    /**
+     * Ends the session the token belongs to; unknown tokens are ignored.
+     */
+    @Transactional
+    public void revoke(String presentedToken) {
+        refreshTokenRepository.findById(hash(presentedToken))
+                .ifPresent(token -> refreshTokenRepository.deleteFamily(token.getFamilyId()));
+    }
+    
+    @Scheduled(fixedDelayString = "${jwt.refresh.sweep-ms:600000}", initialDelayString = "${jwt.refresh.sweep-ms:600000}")
+    @Transactional
+    public void sweepExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = refreshTokenRepository.deleteExpired(now);
+        int used = refreshTokenRepository.deleteRotatedBefore(now.minusNanos(reuseWindowMs * 1_000_000));
+        if (expired > 0 || used > 0) {
+            logger.debug("Swept {} expired and {} used refresh tokens", expired, used);
+        }
+    }
+    
+    private String create(Employee employee, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        
+        LocalDateTime expiresAt = LocalDateTime.now().plusNanos(refreshExpirationMs * 1_000_000);
+        Long version = employee.getTokenVersion() != null ? employee.getTokenVersion() : 0L;
+        refreshTokenRepository.save(new RefreshToken(hash(token), employee, familyId, version, expiresAt));
+        return token;
+    }
+    
+    // Only the hash is stored, so a leaked table can't be replayed; random 256-bit tokens need no salt
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -4,16 +4,23 @@ import com.payroll.dto.SalaryRequest;
 import com.payroll.dto.SalaryResponse;
 import com.payroll.entity.Employee;
 import com.payroll.entity.SalaryDetails;
+import com.payroll.event.PayrollDataChangedEvent;
 import com.payroll.exception.ResourceNotFoundException;
 import com.payroll.repository.EmployeeRepository;
 import com.payroll.repository.SalaryDetailsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +33,12 @@ public class SalaryService {
     @Autowired
     private EmployeeRepository employeeRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${api.batch.max-ids:100}")
+    private int maxBatchIds;
+    
     public SalaryResponse createOrUpdateSalary(Long employeeId, SalaryRequest request) {
         Employee employee = employeeRepository.findById(employeeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Employee not found with id: " + employeeId));
@@ -58,6 +71,7 @@ public class SalaryService {
         }
         
         SalaryDetails savedSalary = salaryDetailsRepository.save(salaryDetails);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.SALARY, savedSalary.getSalaryId()));
         return convertToResponse(savedSalary);
     }
     
@@ -67,6 +81,33 @@ public class SalaryService {
         return convertToResponse(salaryDetails);
     }
     
+    /**
+     * Resolves a list of salary IDs (with their employees) in one query, returning them in request order.
+     * Duplicate IDs are returned once and unknown IDs are skipped.
+     */
+    public List<SalaryResponse> getSalariesByIds(List<Long> salaryIds) {
+        if (salaryIds == null || salaryIds.isEmpty()) {
+            throw new IllegalArgumentException("ids must not be empty");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(salaryIds));
+        if (distinctIds.size() > maxBatchIds) {
+            throw new IllegalArgumentException("At most " + maxBatchIds + " ids per request");
+        }
+        
+        Map<Long, SalaryDetails> byId = new HashMap<>();
+        for (SalaryDetails salaryDetails : salaryDetailsRepository.findWithEmployeeByIdIn(distinctIds)) {
+            byId.put(salaryDetails.getSalaryId(), salaryDetails);
+        }
+        List<SalaryResponse> responses = new ArrayList<>(distinctIds.size());
+        for (Long id : distinctIds) {
+            SalaryDetails salaryDetails = byId.get(id);
+            if (salaryDetails != null) {
+                responses.add(convertToResponse(salaryDetails));
+            }
+        }
+        return responses;
+    }
+    
     public List<SalaryResponse> getEmployeeSalaryHistory(Long employeeId) {
         List<SalaryDetails> salaryHistory = salaryDetailsRepository
                 .findByEmployeeEmployeeIdOrderByYearDescMonthDesc(employeeId);
@@ -112,6 +153,7 @@ public class SalaryService {
         }
         
         salaryDetailsRepository.delete(salaryDetails);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.SALARY, salaryId));
     }
     
     public SalaryResponse markSalaryAsProcessed(Long salaryId) {
@@ -120,6 +162,7 @@ public class SalaryService {
         
         salaryDetails.setIsProcessed(true);
         SalaryDetails savedSalary = salaryDetailsRepository.save(salaryDetails);
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.SALARY, salaryId));
         return convertToResponse(savedSalary);
     }
     
@@ -0,0 +1,40 @@
+package com.payroll.service;
+
+import com.payroll.exception.ResourceNotFoundException;
+import com.payroll.repository.EmployeeRepository;
+import com.payroll.security.JwtVerification;
+import com.payroll.security.TokenDenyList;
+import com.payroll.security.TokenVersionCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Revokes access tokens before they expire: a single token by adding its ID to the deny list, or every
+ * token of an employee by bumping their token version.
+ */
+@Service
+public class TokenRevocationService {
+    
+    @Autowired
+    private TokenDenyList tokenDenyList;
+    
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    public void revokeToken(JwtVerification verification) {
+        if (verification.isValid()) {
+            tokenDenyList.revoke(verification);
+        }
+    }
+    
+    public void revokeAllTokens(Long employeeId) {
+        if (employeeRepository.incrementTokenVersion(employeeId) == 0) {
+            throw new ResourceNotFoundException("Employee not found with id: " + employeeId);
+        }
+        // Evict only after the update committed, so a concurrent request can't re-cache the old version
+        tokenVersionCache.evict(employeeId);
+    }
+}
@@ -4,13 +4,14 @@ import com.payroll.entity.Employee;
 import com.payroll.repository.EmployeeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     @Autowired
     private EmployeeRepository employeeRepository;
@@ -23,4 +24,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         return employee;
     }
+    
+    /**
+     * Stores a password rehashed at the current BCrypt cost after a successful login. The password
+     * itself is unchanged, so unlike a password change this leaves the token version alone.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Employee employee = (Employee) user;
+        employeeRepository.updatePassword(employee.getEmployeeId(), newPassword);
+        employee.setPassword(newPassword);
+        return employee;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.payroll.analytics;
+
+import com.payroll.dto.analytics.AnalyticsQueryRequest;
+import com.payroll.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledQueryTest {
+    
+    @Test
+    void resolvesNamesAndLabels() {
+        AnalyticsQueryRequest request = request(List.of("department", "hire_year"),
+                new AnalyticsQueryRequest.Aggregate("count", null),
+                new AnalyticsQueryRequest.Aggregate("AVG", "netSalary"));
+        
+        CompiledQuery query = CompiledQuery.compile(request);
+        
+        assertArrayEquals(new Dimension[] {Dimension.DEPARTMENT, Dimension.HIRE_YEAR}, query.getGroupBy());
+        assertArrayEquals(new AggregateFunction[] {AggregateFunction.COUNT, AggregateFunction.AVG}, query.getFunctions());
+        assertEquals(List.of("count", "avg_netSalary"), query.aggregateLabels());
+    }
+    
+    @Test
+    void convertsFilterValuesToColumnTypes() {
+        AnalyticsQueryRequest request = request(List.of(), new AnalyticsQueryRequest.Aggregate("count", null));
+        request.setFilters(List.of(
+                filter("department", " Engineering "),
+                filter("role", "employee"),
+                filter("active", "TRUE"),
+                filter("hireYear", "2021", "2022"),
+                filter("taxBracket", "10%", "0"),
+                range("netSalary", new BigDecimal("1000"), null)));
+        
+        CompiledQuery query = CompiledQuery.compile(request);
+        
+        List<CompiledQuery.DimensionFilter> dimensions = query.getDimensionFilters();
+        assertEquals(List.of("engineering"), dimensions.get(0).values());
+        assertEquals(List.of(Role.EMPLOYEE), dimensions.get(1).values());
+        assertEquals(List.of(Boolean.TRUE), dimensions.get(2).values());
+        assertEquals(List.of(2021, 2022), dimensions.get(3).values());
+        assertEquals(List.of(new BigDecimal("10"), new BigDecimal("0")), dimensions.get(4).values());
+        assertEquals(new CompiledQuery.MeasureFilter(Measure.NET_SALARY, new BigDecimal("1000"), null),
+                query.getMeasureFilters().get(0));
+    }
+    
+    @Test
+    void rejectsInvalidRequests() {
+        AnalyticsQueryRequest.Aggregate count = new AnalyticsQueryRequest.Aggregate("count", null);
+        
+        assertThrows(IllegalArgumentException.class, () -> CompiledQuery.compile(request(List.of())));
+        assertThrows(IllegalArgumentException.class, () -> CompiledQuery.compile(request(List.of("salary"), count)));
+        assertThrows(IllegalArgumentException.class, () -> CompiledQuery.compile(
+                request(List.of(), new AnalyticsQueryRequest.Aggregate("sum", null))));
+        assertThrows(IllegalArgumentException.class, () -> CompiledQuery.compile(
+                request(List.of(), new AnalyticsQueryRequest.Aggregate("median", "netSalary"))));
+        
+        for (AnalyticsQueryRequest.Filter invalid : List.of(filter("role", "CEO"), filter("month", "May"),
+                filter("active", "yes"), filter("department"), filter("department", "Sales", null))) {
+            AnalyticsQueryRequest request = request(List.of(), count);
+            request.setFilters(List.of(invalid));
+            assertThrows(IllegalArgumentException.class, () -> CompiledQuery.compile(request));
+        }
+    }
+    
+    @Test
+    void namesDoNotDependOnTheDefaultLocale() {
+        Locale original = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            AnalyticsQueryRequest request = request(List.of("hireYear"), new AnalyticsQueryRequest.Aggregate("MIN", "basicSalary"));
+            request.setFilters(List.of(filter("department", "FINANCE")));
+            
+            CompiledQuery query = CompiledQuery.compile(request);
+            
+            assertEquals("hireYear", CompiledQuery.camelCase(query.getGroupBy()[0].name()));
+            assertEquals(List.of("min_basicSalary"), query.aggregateLabels());
+            assertEquals(List.of("finance"), query.getDimensionFilters().get(0).values());
+        } finally {
+            Locale.setDefault(original);
+        }
+    }
+    
+    private static AnalyticsQueryRequest request(List<String> groupBy, AnalyticsQueryRequest.Aggregate... aggregates) {
+        AnalyticsQueryRequest request = new AnalyticsQueryRequest();
+        request.setGroupBy(groupBy);
+        request.setAggregates(List.of(aggregates));
+        return request;
+    }
+    
+    private static AnalyticsQueryRequest.Filter filter(String field, String... values) {
+        AnalyticsQueryRequest.Filter filter = new AnalyticsQueryRequest.Filter();
+        filter.setField(field);
+        filter.setValues(Arrays.asList(values));
+        return filter;
+    }
+    
+    private static AnalyticsQueryRequest.Filter range(String field, BigDecimal min, BigDecimal max) {
+        AnalyticsQueryRequest.Filter filter = new AnalyticsQueryRequest.Filter();
+        filter.setField(field);
+        filter.setMin(min);
+        filter.setMax(max);
+        return filter;
+    }
+}
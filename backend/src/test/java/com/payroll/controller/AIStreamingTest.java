@@ -0,0 +1,199 @@
+package com.payroll.controller;
+
+import com.payroll.entity.Employee;
+import com.payroll.enums.Role;
+import com.payroll.repository.EmployeeRepository;
+import com.payroll.security.JwtUtils;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streaming AI answers end to end: a local stub stands in for Gemini and sends its answer in pieces,
+ * the way the real model does. To show pieces are relayed as they arrive, rather than once the answer
+ * is complete, the stub can hold back everything after the first piece until the client has read it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "rate-limit.enabled=false")
+@ActiveProfiles("test")
+class AIStreamingTest {
+    
+    private static final List<String> PIECES = List.of("Section 80C ", "allows deductions ", "up to ₹1.5 lakh.\nInvest early.");
+    
+    private static final HttpServer gemini = startStubGemini();
+    private static final AtomicInteger geminiCalls = new AtomicInteger();
+    // Set by a test to make the stub wait after the first piece; records whether the client released it
+    private static volatile CountDownLatch holdAfterFirstPiece;
+    private static final AtomicBoolean releasedByClient = new AtomicBoolean();
+    
+    @LocalServerPort
+    private int port;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    private final HttpClient client = HttpClient.newHttpClient();
+    private String token;
+    
+    @DynamicPropertySource
+    static void geminiUrl(DynamicPropertyRegistry registry) {
+        registry.add("gemini.api.url", () -> "http://localhost:" + gemini.getAddress().getPort());
+    }
+    
+    @AfterAll
+    static void stopStub() {
+        gemini.stop(0);
+    }
+    
+    @BeforeEach
+    void authenticate() {
+        Employee admin = employeeRepository.findByRole(Role.ADMIN).get(0);
+        token = jwtUtils.generateJwtToken(admin);
+    }
+    
+    @Test
+    void streamsPiecesBeforeTheAnswerIsComplete() throws Exception {
+        CountDownLatch firstPieceRead = new CountDownLatch(1);
+        releasedByClient.set(false);
+        holdAfterFirstPiece = firstPieceRead;
+        List<String[]> events = new ArrayList<>();
+        try {
+            HttpResponse<InputStream> response = client.send(post("/ai/stream/ask-question", "What is 80C?"),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            assertEquals(200, response.statusCode());
+            assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+            
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+                String event = "message";
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.startsWith("event:")) {
+                        event = line.substring(6).trim();
+                    } else if (line.startsWith("data:")) {
+                        events.add(new String[] {event, line.substring(5)});
+                        event = "message";
+                        firstPieceRead.countDown();
+                    }
+                }
+            }
+        } finally {
+            holdAfterFirstPiece = null;
+        }
+        
+        // Had the first piece been buffered until the answer was complete, the stub would have given up waiting
+        assertTrue(releasedByClient.get(), "first piece should reach the client while the rest is still held back");
+        assertEquals(PIECES.size() + 1, events.size());
+        StringBuilder relayed = new StringBuilder();
+        for (int i = 0; i < PIECES.size(); i++) {
+            assertEquals("message", events.get(i)[0]);
+            relayed.append(textOf(events.get(i)[1]));
+        }
+        assertEquals(String.join("", PIECES), relayed.toString());
+        assertEquals("done", events.get(PIECES.size())[0]);
+        
+        HttpResponse<String> blocking = client.send(post("/ai/ask-question", "What is 80D?"), HttpResponse.BodyHandlers.ofString());
+        assertEquals(String.join("", PIECES), blocking.body());
+    }
+    
+    @Test
+    void repeatedQuestionIsStreamedFromCache() throws Exception {
+        client.send(post("/ai/stream/ask-question", "How is HRA taxed?"), HttpResponse.BodyHandlers.ofString());
+        int calls = geminiCalls.get();
+        
+        HttpResponse<String> repeat = client.send(post("/ai/stream/ask-question", "how is  HRA taxed?"),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(calls, geminiCalls.get(), "a repeated question should not reach Gemini");
+        assertTrue(repeat.body().contains("Invest early"), repeat.body());
+        assertTrue(repeat.body().contains("event:done"), repeat.body());
+    }
+    
+    private HttpRequest post(String path, String question) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api" + path))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"question\":\"" + question + "\"}"))
+                .build();
+    }
+    
+    private static String textOf(String json) {
+        // {"text":"..."}; only the escapes the stub pieces use need undoing
+        String text = json.substring(json.indexOf(":\"") + 2, json.lastIndexOf('"'));
+        return text.replace("\\n", "\n");
+    }
+    
+    private static HttpServer startStubGemini() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                geminiCalls.incrementAndGet();
+                exchange.getRequestBody().readAllBytes();
+                boolean streaming = exchange.getRequestURI().getPath().endsWith(":streamGenerateContent");
+                exchange.getResponseHeaders().add("Content-Type", streaming ? "text/event-stream" : "application/json");
+                exchange.sendResponseHeaders(200, 0);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    if (streaming) {
+                        CountDownLatch hold = holdAfterFirstPiece;
+                        for (int i = 0; i < PIECES.size(); i++) {
+                            if (i == 1 && hold != null) {
+                                releasedByClient.set(await(hold));
+                            }
+                            out.write(("data: " + candidate(PIECES.get(i)) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                            out.flush();
+                        }
+                    } else {
+                        out.write(candidate(String.join("", PIECES)).getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static String candidate(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text.replace("\n", "\\n") + "\"}]}}]}";
+    }
+    
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.payroll.controller;
+
+import com.payroll.entity.Employee;
+import com.payroll.repository.EmployeeRepository;
+import com.payroll.security.JwtUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The employee and salary batch lookups: results follow the requested order, unknown and repeated IDs
+ * are dropped, and the ID limit is enforced. Statement counts are covered by {@link SqlStatementCountTest}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BatchLookupTest {
+    
+    private static final long MISSING_ID = 987_654_321L;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${api.batch.max-ids:100}")
+    private int maxBatchIds;
+    
+    private String token;
+    
+    @BeforeEach
+    void authenticate() {
+        Employee admin = employeeRepository.findByEmail("admin@payroll.com").orElseThrow();
+        token = jwtUtils.generateJwtToken(admin);
+    }
+    
+    @Test
+    void employeesComeBackInRequestOrderWithoutUnknownOrRepeatedIds() throws Exception {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT employee_id FROM employees ORDER BY employee_id DESC LIMIT 3", Long.class);
+        
+        batch("/admin/employees/batch", List.of(ids.get(1), MISSING_ID, ids.get(0), ids.get(2), ids.get(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].employeeId").value(contains(
+                        ids.get(1).intValue(), ids.get(0).intValue(), ids.get(2).intValue())));
+    }
+    
+    @Test
+    void salariesComeBackInRequestOrderWithoutUnknownOrRepeatedIds() throws Exception {
+        List<Long> ids = jdbcTemplate.queryForList("SELECT salary_id FROM salary_details ORDER BY salary_id LIMIT 3", Long.class);
+        
+        batch("/salary/batch", List.of(ids.get(2), ids.get(0), MISSING_ID, ids.get(2), ids.get(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].salaryId").value(contains(
+                        ids.get(2).intValue(), ids.get(0).intValue(), ids.get(1).intValue())));
+    }
+    
+    @Test
+    void onlyUnknownIdsGiveAnEmptyList() throws Exception {
+        for (String path : List.of("/admin/employees/batch", "/salary/batch")) {
+            batch(path, List.of(MISSING_ID))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+        }
+    }
+    
+    @Test
+    void idLimitIsEnforced() throws Exception {
+        List<Long> atLimit = LongStream.rangeClosed(1, maxBatchIds).boxed().collect(Collectors.toList());
+        List<Long> overLimit = LongStream.rangeClosed(1, maxBatchIds + 1).boxed().collect(Collectors.toList());
+        // Repeats are dropped before the limit is applied
+        List<Long> repeated = LongStream.rangeClosed(0, maxBatchIds).map(i -> 1 + i % maxBatchIds).boxed()
+                .collect(Collectors.toList());
+        
+        for (String path : List.of("/admin/employees/batch", "/salary/batch")) {
+            batch(path, atLimit).andExpect(status().isOk());
+            batch(path, repeated).andExpect(status().isOk());
+            batch(path, overLimit).andExpect(status().isBadRequest());
+        }
+    }
+    
+    private ResultActions batch(String path, List<Long> ids) throws Exception {
+        String joined = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return mockMvc.perform(get(path).param("ids", joined).header("Authorization", "Bearer " + token));
+    }
+}
@@ -0,0 +1,138 @@
+package com.payroll.controller;
+
+import com.payroll.entity.Employee;
+import com.payroll.repository.EmployeeRepository;
+import com.payroll.security.JwtUtils;
+import com.payroll.security.TokenVersionCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the JDBC statements Hibernate prepares per endpoint call. Tokens carry the principal's claims and
+ * the token version cache is warmed first, so the JWT filter adds no statement of its own. Each test asserts the exact count measured once the
+ * department association became lazy, so both an N+1 regression and an unexpected extra query fail;
+ * the counts with the old eager mapping are noted alongside.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+// Statistics are global, so background polls that query the database are pushed beyond the test's runtime
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "jwt.deny-list.poll-ms=3600000",
+        "department.registry.refresh-ms=3600000"
+})
+class SqlStatementCountTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+    
+    @Test
+    void employeeProfile() throws Exception {
+        // Eager mapping: 3 (user lookup and profile load each joined the department)
+        assertEquals(1, count("/employee/profile"));
+    }
+    
+    @Test
+    void employeeListing() throws Exception {
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT department_id) FROM employees", Long.class) > 1,
+                "needs employees in several departments to expose a per-department select");
+        // Eager mapping: 10 (one extra select per distinct department)
+        assertEquals(1, count("/admin/employees"));
+    }
+    
+    @Test
+    void salaryListing() throws Exception {
+        Integer[] period = latestPeriod();
+        assertTrue(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM salary_details WHERE month = ? AND year = ?",
+                Long.class, period[0], period[1]) > 1, "needs several salary rows to expose a per-row select");
+        // Eager mapping: 18 (employee and department selects per row)
+        assertEquals(1, count("/salary/month/" + period[0] + "/year/" + period[1]));
+    }
+    
+    @Test
+    void payslip() throws Exception {
+        Long salaryId = jdbcTemplate.queryForObject("SELECT MIN(salary_id) FROM salary_details", Long.class);
+        // Eager mapping: 4
+        assertEquals(1, count("/salary/payslip/" + salaryId));
+    }
+    
+    @Test
+    void employeeBatch() throws Exception {
+        String ids = String.join(",", jdbcTemplate.queryForList(
+                "SELECT CAST(employee_id AS VARCHAR) FROM employees ORDER BY employee_id LIMIT 10", String.class));
+        assertEquals(1, count("/admin/employees/batch?ids=" + ids));
+    }
+    
+    @Test
+    void salaryBatch() throws Exception {
+        String ids = String.join(",", jdbcTemplate.queryForList(
+                "SELECT CAST(salary_id AS VARCHAR) FROM salary_details ORDER BY salary_id LIMIT 10", String.class));
+        assertEquals(1, count("/salary/batch?ids=" + ids));
+    }
+    
+    @Test
+    void employeeProfileWithColdVersionCache() throws Exception {
+        Employee admin = employeeRepository.findByEmail("admin@payroll.com").orElseThrow();
+        tokenVersionCache.evict(admin.getEmployeeId());
+        // One read of the token version, then the principal comes from the claims alone
+        assertEquals(2, count("/employee/profile", jwtUtils.generateJwtToken(admin)));
+    }
+    
+    private long count(String path) throws Exception {
+        Employee admin = employeeRepository.findByEmail("admin@payroll.com").orElseThrow();
+        tokenVersionCache.isCurrent(admin.getEmployeeId(), admin.getTokenVersion());
+        return count(path, jwtUtils.generateJwtToken(admin));
+    }
+    
+    private long count(String path, String token) throws Exception {
+        statistics.clear();
+        mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private Integer[] latestPeriod() {
+        return jdbcTemplate.queryForObject(
+                "SELECT month, year FROM salary_details ORDER BY year DESC, month DESC LIMIT 1",
+                (rs, row) -> new Integer[] {rs.getInt(1), rs.getInt(2)});
+    }
+}
@@ -0,0 +1,68 @@
+package com.payroll.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvReaderTest {
+    
+    @Test
+    void readsQuotedFieldsWithCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = reader("name,address,note\n" +
+                "Asha,\"12 MG Road, Pune\",\"she said \"\"hi\"\"\"\n" +
+                "Ravi,\"Flat 4\nTower B\",\"\"\n");
+        
+        assertEquals(List.of("name", "address", "note"), csv.next());
+        assertEquals(List.of("Asha", "12 MG Road, Pune", "she said \"hi\""), csv.next());
+        assertEquals(List.of("Ravi", "Flat 4\nTower B", ""), csv.next());
+        assertNull(csv.next());
+    }
+    
+    @Test
+    void handlesCrlfBomAndBlankLines() throws IOException {
+        CsvReader csv = reader("\uFEFFfirst,last\r\n\r\nAsha,Rao\r\n\"Ravi\r\nKumar\",Iyer");
+        
+        assertEquals(List.of("first", "last"), csv.next());
+        assertEquals(List.of("Asha", "Rao"), csv.next());
+        assertEquals(List.of("Ravi\r\nKumar", "Iyer"), csv.next());
+        assertNull(csv.next());
+    }
+    
+    @Test
+    void keepsEmptyAndTrailingFields() throws IOException {
+        CsvReader csv = reader("a,,c,\n");
+        
+        assertEquals(List.of("a", "", "c", ""), csv.next());
+    }
+    
+    @Test
+    void reportsTheLineEachRecordStartsOn() throws IOException {
+        CsvReader csv = reader("h1,h2\n\n\"multi\nline\",x\r\nlast,y\n");
+        
+        csv.next();
+        assertEquals(1, csv.getRecordLine());
+        csv.next();
+        assertEquals(3, csv.getRecordLine());
+        csv.next();
+        assertEquals(5, csv.getRecordLine());
+    }
+    
+    @Test
+    void rejectsUnterminatedQuotedField() throws IOException {
+        CsvReader csv = reader("name\n\"open field\nnever closed\n");
+        csv.next();
+        
+        IOException error = assertThrows(IOException.class, csv::next);
+        assertEquals("Unterminated quoted field starting on line 2", error.getMessage());
+    }
+    
+    private static CsvReader reader(String content) {
+        return new CsvReader(new StringReader(content));
+    }
+}
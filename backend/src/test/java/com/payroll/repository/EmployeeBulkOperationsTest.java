@@ -0,0 +1,190 @@
+package com.payroll.repository;
+
+import com.payroll.dto.BulkEmployeeUpdateRequest;
+import com.payroll.entity.Employee;
+import com.payroll.enums.Role;
+import com.payroll.security.JwtUtils;
+import com.payroll.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bulk updates against a department of its own: which rows a selection touches, that tokens issued
+ * before the update stop working, and that an empty selection is refused instead of updating everyone.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EmployeeBulkOperationsTest {
+    
+    private static final String DEPARTMENT = "Bulk Test Department";
+    private static final String CODE_PREFIX = "BULKT";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private EmployeeService employeeService;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long departmentId;
+    private Long activeEmployee;
+    private Long inactiveEmployee;
+    private Long admin;
+    private Long elsewhere;
+    
+    @BeforeEach
+    void createEmployees() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO departments (dept_name, created_at, updated_at) VALUES (?, ?, ?)", DEPARTMENT, now, now);
+        departmentId = jdbcTemplate.queryForObject("SELECT dept_id FROM departments WHERE dept_name = ?", Long.class, DEPARTMENT);
+        activeEmployee = insert("1", departmentId, Role.EMPLOYEE, true);
+        inactiveEmployee = insert("2", departmentId, Role.EMPLOYEE, false);
+        admin = insert("3", departmentId, Role.ADMIN, true);
+        elsewhere = insert("4", null, Role.EMPLOYEE, true);
+    }
+    
+    @AfterEach
+    void removeEmployees() {
+        jdbcTemplate.update("DELETE FROM employees WHERE employee_code LIKE ?", CODE_PREFIX + "%");
+        jdbcTemplate.update("DELETE FROM departments WHERE dept_id = ?", departmentId);
+    }
+    
+    @Test
+    void filterUpdatesOnlyMatchingRows() {
+        BulkEmployeeUpdateRequest request = new BulkEmployeeUpdateRequest(null,
+                new BulkEmployeeUpdateRequest.Filter(departmentId, Role.EMPLOYEE, null), null, null);
+        
+        assertEquals(1, employeeService.bulkDeactivate(request).affected());
+        
+        assertEquals(Map.of(activeEmployee, false, inactiveEmployee, false, admin, true, elsewhere, true), activeFlags());
+        assertEquals(Map.of(activeEmployee, 1L, inactiveEmployee, 0L, admin, 0L, elsewhere, 0L), tokenVersions());
+    }
+    
+    @Test
+    void idsAndFilterMustBothMatch() {
+        BulkEmployeeUpdateRequest request = new BulkEmployeeUpdateRequest(List.of(activeEmployee, elsewhere),
+                new BulkEmployeeUpdateRequest.Filter(departmentId, null, null), null, Role.ADMIN);
+        
+        assertEquals(1, employeeService.bulkChangeRole(request).affected());
+        
+        assertEquals(Role.ADMIN.name(), role(activeEmployee));
+        assertEquals(Role.EMPLOYEE.name(), role(elsewhere));
+        assertEquals(Role.EMPLOYEE.name(), role(inactiveEmployee));
+    }
+    
+    @Test
+    void tokenIssuedBeforeBulkDeactivateIsRefused() throws Exception {
+        String token = token(activeEmployee);
+        String bystander = token(elsewhere);
+        expectProfile(token, status().isOk());
+        
+        employeeService.bulkDeactivate(new BulkEmployeeUpdateRequest(List.of(activeEmployee), null, null, null));
+        
+        expectProfile(token, status().isUnauthorized());
+        expectProfile(bystander, status().isOk());
+    }
+    
+    @Test
+    void tokenIssuedBeforeBulkRoleChangeIsRefused() throws Exception {
+        String token = token(activeEmployee);
+        expectProfile(token, status().isOk());
+        
+        employeeService.bulkChangeRole(new BulkEmployeeUpdateRequest(null,
+                new BulkEmployeeUpdateRequest.Filter(departmentId, Role.EMPLOYEE, true), null, Role.ADMIN));
+        
+        expectProfile(token, status().isUnauthorized());
+        expectProfile(token(activeEmployee), status().isOk());
+    }
+    
+    @Test
+    void emptySelectionIsRefused() throws Exception {
+        List<BulkEmployeeUpdateRequest> empty = List.of(
+                new BulkEmployeeUpdateRequest(null, null, null, null),
+                new BulkEmployeeUpdateRequest(List.of(), new BulkEmployeeUpdateRequest.Filter(null, null, null), null, null));
+        for (BulkEmployeeUpdateRequest request : empty) {
+            assertThrows(IllegalArgumentException.class, () -> employeeService.bulkDeactivate(request));
+            assertThrows(IllegalArgumentException.class, () -> employeeService.bulkChangeRole(
+                    new BulkEmployeeUpdateRequest(request.employeeIds(), request.filter(), null, Role.ADMIN)));
+        }
+        
+        Employee administrator = employeeRepository.findByRole(Role.ADMIN).get(0);
+        mockMvc.perform(post("/admin/employees/bulk/deactivate")
+                        .header("Authorization", "Bearer " + jwtUtils.generateJwtToken(administrator))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\":{}}"))
+                .andExpect(status().isBadRequest());
+        
+        assertEquals(Map.of(activeEmployee, true, inactiveEmployee, false, admin, true, elsewhere, true), activeFlags());
+    }
+    
+    private Long insert(String suffix, Long department, Role role, boolean active) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO employees (first_name, last_name, email, password, employee_code, role, " +
+                "is_active, hire_date, token_version, created_at, updated_at, department_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "Bulk", "Tester" + suffix, "bulk" + suffix + "@bulk-test.example.com", "x", CODE_PREFIX + suffix,
+                role.name(), active, LocalDate.of(2024, 1, 1), 0L, now, now, department);
+        return jdbcTemplate.queryForObject("SELECT employee_id FROM employees WHERE employee_code = ?", Long.class,
+                CODE_PREFIX + suffix);
+    }
+    
+    private Map<Long, Boolean> activeFlags() {
+        return Map.of(activeEmployee, active(activeEmployee), inactiveEmployee, active(inactiveEmployee),
+                admin, active(admin), elsewhere, active(elsewhere));
+    }
+    
+    private Map<Long, Long> tokenVersions() {
+        return Map.of(activeEmployee, tokenVersion(activeEmployee), inactiveEmployee, tokenVersion(inactiveEmployee),
+                admin, tokenVersion(admin), elsewhere, tokenVersion(elsewhere));
+    }
+    
+    private Boolean active(Long id) {
+        return jdbcTemplate.queryForObject("SELECT is_active FROM employees WHERE employee_id = ?", Boolean.class, id);
+    }
+    
+    private Long tokenVersion(Long id) {
+        return jdbcTemplate.queryForObject("SELECT token_version FROM employees WHERE employee_id = ?", Long.class, id);
+    }
+    
+    private String role(Long id) {
+        return jdbcTemplate.queryForObject("SELECT role FROM employees WHERE employee_id = ?", String.class, id);
+    }
+    
+    private String token(Long id) {
+        return jwtUtils.generateJwtToken(employeeRepository.findById(id).orElseThrow());
+    }
+    
+    private void expectProfile(String token, ResultMatcher expected) throws Exception {
+        mockMvc.perform(get("/employee/profile").header("Authorization", "Bearer " + token))
+                .andExpect(expected);
+    }
+}
@@ -0,0 +1,229 @@
+package com.payroll.repository;
+
+import com.payroll.entity.Employee;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the catch-all {@code advancedSearch} query with the specification-built one: query plans
+ * from {@code EXPLAIN} of the SQL Hibernate actually generates, and average latency over a 20k-employee
+ * table. The extra employees would skew every test that counts or lists employees, so they go into an
+ * in-memory database of their own, discarded with the context afterwards.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:searchbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=MONTH,YEAR",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.payroll.repository.EmployeeSearchQueryBenchmarkTest$SqlCapture"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmployeeSearchQueryBenchmarkTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(EmployeeSearchQueryBenchmarkTest.class);
+    
+    private static final int EMPLOYEES = 20_000;
+    private static final String[] FIRST_NAMES = {"Aarav", "Diya", "Rahul", "Priya", "Karan", "Meera", "Vikram", "Sneha"};
+    private static final String[] LAST_NAMES = {"Sharma", "Verma", "Gupta", "Nair", "Iyer", "Khan", "Ghosh", "Patel"};
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long departmentId;
+    
+    @BeforeAll
+    void seedEmployees() {
+        departmentId = jdbcTemplate.queryForObject("SELECT MIN(dept_id) FROM departments", Long.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        List<Object[]> rows = new ArrayList<>(EMPLOYEES);
+        for (int i = 0; i < EMPLOYEES; i++) {
+            String first = FIRST_NAMES[i % FIRST_NAMES.length] + suffix(i);
+            String last = LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + suffix(i / 7);
+            rows.add(new Object[] {
+                    first, last, "bench" + i + "@example.com", "x", String.format("BEN%06d", i), "EMPLOYEE",
+                    i % 10 != 0, departmentId + (i % 4), Date.valueOf(LocalDate.of(2020, 1, 1)), now, now
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO employees (first_name, last_name, email, password, employee_code, role, " +
+                "is_active, department_id, hire_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+    }
+    
+    @Test
+    void specificationMatchesLegacyQueryForExactFilters() {
+        Long employeeId = jdbcTemplate.queryForObject(
+                "SELECT employee_id FROM employees WHERE employee_code = 'BEN000123'", Long.class);
+        Pageable page = PageRequest.of(0, 50);
+        
+        Page<Employee> legacyById = employeeRepository.advancedSearch(null, employeeId, null, null, page);
+        Page<Employee> specById = employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.hasEmployeeId(employeeId)), page);
+        assertEquals(ids(legacyById), ids(specById));
+        
+        Page<Employee> legacyByDept = employeeRepository.advancedSearch(null, null, null, departmentId, page);
+        Page<Employee> specByDept = employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.inDepartment(departmentId)), page);
+        assertEquals(legacyByDept.getTotalElements(), specByDept.getTotalElements());
+        
+        Page<Employee> specByName = employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.nameStartsWith("priya")), page);
+        assertFalse(specByName.isEmpty(), "prefix match should be case-insensitive");
+        specByName.forEach(e -> assertTrue(e.getFirstName().toLowerCase(Locale.ROOT).startsWith("priya")
+                || e.getLastName().toLowerCase(Locale.ROOT).startsWith("priya")));
+    }
+    
+    @Test
+    void everyNameWordIsAPrefixOfFirstOrLastName() {
+        Pageable page = PageRequest.of(0, 200);
+        
+        Page<Employee> byBoth = employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.nameStartsWith("gup  pri")), page);
+        assertFalse(byBoth.isEmpty());
+        byBoth.forEach(e -> {
+            assertTrue(startsEitherName(e, "gup"), e.getFirstName() + " " + e.getLastName());
+            assertTrue(startsEitherName(e, "pri"), e.getFirstName() + " " + e.getLastName());
+        });
+        
+        Page<Employee> reversed = employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.nameStartsWith("Pri Gup")), page);
+        assertEquals(byBoth.getTotalElements(), reversed.getTotalElements());
+        
+        Page<Employee> unmatched = employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.nameStartsWith("priya zz")), page);
+        assertTrue(unmatched.isEmpty());
+    }
+    
+    @Test
+    void prefixPredicatesUseIndexesWhereCatchAllScans() {
+        // Each named parameter of the catch-all query is bound twice: (:p IS NULL OR ... :p ...)
+        String legacySql = generatedSql(() -> employeeRepository.advancedSearch(null, null, "BEN0001", null, Pageable.unpaged()));
+        String legacyPlan = explain(legacySql, null, null, null, null, "BEN0001", "BEN0001", null, null);
+        String codeSql = generatedSql(() -> employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.employeeCodeStartsWith("BEN0001"))));
+        String codePlan = explain(codeSql, "BEN0001%");
+        String nameSql = generatedSql(() -> employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.nameStartsWith("Gupta1"))));
+        
+        assertTrue(legacyPlan.toLowerCase(Locale.ROOT).contains("tablescan"), legacyPlan);
+        assertFalse(codePlan.toLowerCase(Locale.ROOT).contains("tablescan"), codePlan);
+        // H2 can't combine two indexes across an OR, so the name plan scans here; MySQL plans it as an
+        // index_merge union of the first and last name indexes, which needs bare columns on both sides
+        String name = nameSql.toLowerCase(Locale.ROOT);
+        assertTrue(name.contains(".first_name like ?") && name.contains(".last_name like ?"), nameSql);
+        assertFalse(name.contains("lower("), nameSql);
+        logger.info("Name prefix plan on H2:\n{}", explain(nameSql, "Gupta1%", "Gupta1%"));
+    }
+    
+    @Test
+    void logsLatencyComparedWithLegacyQuery() {
+        Pageable page = PageRequest.of(0, 20);
+        
+        long legacyCode = averageMicros(() -> employeeRepository.advancedSearch(null, null, "BEN0001", null, page));
+        long specCode = averageMicros(() -> employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.employeeCodeStartsWith("BEN0001")), page));
+        long legacyName = averageMicros(() -> employeeRepository.advancedSearch("Gupta1", null, null, null, page));
+        long specName = averageMicros(() -> employeeRepository.findAll(
+                EmployeeSpecifications.isActive().and(EmployeeSpecifications.nameStartsWith("Gupta1")), page));
+        long legacyDept = averageMicros(() -> employeeRepository.advancedSearch(null, null, null, departmentId, page));
+        Specification<Employee> byDept = EmployeeSpecifications.isActive().and(EmployeeSpecifications.inDepartment(departmentId));
+        long specDept = averageMicros(() -> employeeRepository.findAll(byDept, page));
+        
+        // Timings vary too much between machines to assert on; the plans above are what the test checks
+        logger.info("advanced search over {} employees (avg us): code {} -> {}, name {} -> {}, department {} -> {}",
+                EMPLOYEES, legacyCode, specCode, legacyName, specName, legacyDept, specDept);
+    }
+    
+    /**
+     * Runs the query and returns the last statement Hibernate prepared for it on this thread.
+     */
+    private static String generatedSql(Runnable query) {
+        SqlCapture.STATEMENTS.set(new ArrayList<>());
+        try {
+            query.run();
+            List<String> statements = SqlCapture.STATEMENTS.get();
+            assertFalse(statements.isEmpty(), "query prepared no statement");
+            return statements.get(statements.size() - 1);
+        } finally {
+            SqlCapture.STATEMENTS.remove();
+        }
+    }
+    
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters));
+    }
+    
+    private static long averageMicros(Supplier<Page<Employee>> query) {
+        for (int i = 0; i < 20; i++) {
+            query.get();
+        }
+        int runs = 100;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            query.get().getTotalElements();
+        }
+        return (System.nanoTime() - start) / runs / 1_000;
+    }
+    
+    private static boolean startsEitherName(Employee employee, String prefix) {
+        return employee.getFirstName().toLowerCase(Locale.ROOT).startsWith(prefix)
+                || employee.getLastName().toLowerCase(Locale.ROOT).startsWith(prefix);
+    }
+    
+    private static List<Long> ids(Page<Employee> page) {
+        return page.map(Employee::getEmployeeId).getContent();
+    }
+    
+    private static String suffix(int i) {
+        return String.valueOf(i % 97);
+    }
+    
+    /**
+     * Records the SQL Hibernate prepares on threads that opted in, so plans are taken from the queries
+     * the repository really sends rather than from hand-written equivalents.
+     */
+    public static class SqlCapture implements StatementInspector {
+        
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+        
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
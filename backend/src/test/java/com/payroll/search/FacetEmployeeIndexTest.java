@@ -0,0 +1,74 @@
+package com.payroll.search;
+
+import com.payroll.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Incremental updates must leave the index answering exactly like one rebuilt from scratch.
+ */
+class FacetEmployeeIndexTest {
+    
+    private static final String[] NAMES = {"Adams", "Baker", "Clark", "Davis", "Evans", "Frank", "Green", "Hill"};
+    
+    @Test
+    void updatesMatchAFreshRebuild() {
+        Random random = new Random(7);
+        Map<Long, EmployeeDocument> documents = new LinkedHashMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            documents.put(id, randomDocument(id, random));
+        }
+        FacetEmployeeIndex incremental = new FacetEmployeeIndex();
+        incremental.rebuild(documents.values());
+        
+        // Enough rounds to cross the compaction threshold at least once
+        for (int round = 0; round < 200; round++) {
+            List<EmployeeDocument> changed = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                long id = random.nextInt(100) == 0 ? documents.size() + 1 : 1 + random.nextInt(documents.size());
+                EmployeeDocument document = randomDocument(id, random);
+                documents.put(id, document);
+                changed.add(document);
+            }
+            incremental.update(changed, documents.values());
+            
+            if (round % 20 == 0) {
+                assertSameAnswers(incremental, documents, random);
+            }
+        }
+        assertSameAnswers(incremental, documents, random);
+    }
+    
+    private static void assertSameAnswers(FacetEmployeeIndex incremental, Map<Long, EmployeeDocument> documents, Random random) {
+        FacetEmployeeIndex fresh = new FacetEmployeeIndex();
+        fresh.rebuild(documents.values());
+        List<DirectoryFilter> filters = List.of(
+                new DirectoryFilter(Set.of(), Set.of(), null, Set.of()),
+                new DirectoryFilter(Set.of(1L, 3L), Set.of(), true, Set.of()),
+                new DirectoryFilter(Set.of(), Set.of(Role.ADMIN), null, Set.of(2018, 2020)),
+                new DirectoryFilter(Collections.singleton(null), Set.of(), false, Set.of()));
+        for (DirectoryFilter filter : filters) {
+            long offset = random.nextInt(50);
+            assertEquals(fresh.query(filter, offset, 40), incremental.query(filter, offset, 40), filter.toString());
+        }
+    }
+    
+    private static EmployeeDocument randomDocument(long id, Random random) {
+        Long departmentId = random.nextInt(10) == 0 ? null : (long) random.nextInt(4);
+        return new EmployeeDocument(id, "First" + random.nextInt(50), NAMES[random.nextInt(NAMES.length)],
+                "e" + id + "@example.com", String.format("EMP%06d", id), departmentId,
+                departmentId != null ? "Dept " + departmentId : null,
+                random.nextInt(5) == 0 ? Role.ADMIN : Role.EMPLOYEE, random.nextInt(6) != 0,
+                LocalDate.of(2015 + random.nextInt(8), 1 + random.nextInt(12), 1));
+    }
+}
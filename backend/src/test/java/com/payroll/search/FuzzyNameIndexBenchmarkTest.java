@@ -0,0 +1,84 @@
+package com.payroll.search;
+
+import com.payroll.enums.Role;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fuzzy search latency at 100k+ employees. Runs without a Spring context so it measures the index alone.
+ */
+class FuzzyNameIndexBenchmarkTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FuzzyNameIndexBenchmarkTest.class);
+    
+    private static final int EMPLOYEES = 120_000;
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+    
+    private static FuzzyNameIndex index;
+    
+    @BeforeAll
+    static void buildIndex() {
+        Random random = new Random(42);
+        List<EmployeeDocument> documents = new ArrayList<>(EMPLOYEES);
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            // A suffix per employee keeps the number of distinct names, and so tree nodes, realistic
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + (char) ('a' + random.nextInt(26));
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)] + (char) ('a' + random.nextInt(26));
+            documents.add(new EmployeeDocument(id, first, last, first.toLowerCase() + id + "@example.com",
+                    String.format("EMP%06d", id), id % 12, "Dept " + (id % 12), Role.EMPLOYEE,
+                    id % 10 != 0, LocalDate.of(2015, 1, 1).plusDays(id % 3000)));
+        }
+        
+        index = new FuzzyNameIndex();
+        long start = System.nanoTime();
+        index.rebuild(documents);
+        logger.info("Built fuzzy name index over {} employees in {} ms", EMPLOYEES, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    @Test
+    void findsMisspelledNames() {
+        assertFalse(index.search("jonsonx", 2, 10).isEmpty());
+        assertFalse(index.search("patrcia", 2, 10).isEmpty());
+    }
+    
+    @Test
+    void searchLatencyAt100kEmployees() {
+        String[] queries = {"jmes", "patrcia smitha", "rodriguezx", "willaimsb", "jon", "elizabeth tayl", "karenq moore"};
+        for (int i = 0; i < 500; i++) {
+            index.search(queries[i % queries.length], 2, 20);
+        }
+        
+        int runs = 2_000;
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            index.search(queries[i % queries.length], 2, 20);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long p50 = samples[runs / 2];
+        long p99 = samples[(int) (runs * 0.99)];
+        logger.info("fuzzy search over {} employees: p50={} us, p99={} us", EMPLOYEES, p50 / 1_000, p99 / 1_000);
+        
+        // Generous bound so the check holds on slow CI machines
+        assertTrue(p99 < 100_000_000, "fuzzy search p99 should stay well under 100 ms, was " + p99 / 1_000 + " us");
+    }
+}
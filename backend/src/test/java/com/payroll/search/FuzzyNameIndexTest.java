@@ -0,0 +1,115 @@
+package com.payroll.search;
+
+import com.payroll.enums.Role;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The BK-tree must return exactly what a linear scan over every active employee's names returns,
+ * however the tree was reshaped by adds, renames, deactivations and compactions.
+ */
+class FuzzyNameIndexTest {
+    
+    private static final String[] FIRST_NAMES = {"Asha", "Ashok", "Ravi", "Rabi", "Meera", "Mira", "Kiran", "Karan", "Anil", "Neil"};
+    private static final String[] LAST_NAMES = {"Rao", "Roy", "Iyer", "Iyar", "Nair", "Naik", "Shah", "Sah", "Das", "Dass"};
+    private static final String[] QUERIES = {"asha", "ashka", "ravi rao", "mera nair", "karn", "kiran shah", "iyr", "dass", "neil sah", "zzz"};
+    
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::distance)
+            .thenComparing(hit -> !hit.prefix())
+            .thenComparing(Hit::name)
+            .thenComparing(Hit::id);
+    
+    @Test
+    void matchesALinearScanThroughRandomChanges() {
+        Random random = new Random(11);
+        Map<Long, EmployeeDocument> documents = new LinkedHashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            documents.put(id, randomDocument(id, random));
+        }
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        index.rebuild(documents.values());
+        
+        // Enough rounds of renames and deactivations to trigger the empty-node rebuild several times
+        for (int round = 0; round < 300; round++) {
+            List<EmployeeDocument> changed = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                long id = random.nextInt(20) == 0 ? documents.size() + 1 : 1 + random.nextInt(documents.size());
+                EmployeeDocument document = randomDocument(id, random);
+                documents.put(id, document);
+                changed.add(document);
+            }
+            index.update(changed, documents.values());
+            
+            if (round % 25 == 0) {
+                assertSameAnswers(index, documents);
+            }
+        }
+        assertSameAnswers(index, documents);
+    }
+    
+    @Test
+    void queryOverTheLengthCapMatchesNothing() {
+        FuzzyNameIndex index = new FuzzyNameIndex();
+        String longName = "a".repeat(FuzzyNameIndex.MAX_QUERY_LENGTH + 1);
+        index.rebuild(List.of(new EmployeeDocument(1L, longName, "Rao", "a@example.com", "EMP000001",
+                null, null, Role.EMPLOYEE, true, LocalDate.of(2020, 1, 1))));
+        
+        assertEquals(List.of(), index.search(longName, 0, 10));
+        assertEquals(List.of(1L), index.search("rao", 0, 10));
+    }
+    
+    private static void assertSameAnswers(FuzzyNameIndex index, Map<Long, EmployeeDocument> documents) {
+        for (String query : QUERIES) {
+            for (int distance = 0; distance <= FuzzyNameIndex.MAX_DISTANCE; distance++) {
+                assertEquals(linearScan(documents, query, distance, 25), index.search(query, distance, 25),
+                        query + " within " + distance);
+            }
+        }
+    }
+    
+    private static List<Long> linearScan(Map<Long, EmployeeDocument> documents, String query, int tolerance, int limit) {
+        List<Hit> hits = new ArrayList<>();
+        for (EmployeeDocument document : documents.values()) {
+            if (!document.isActive()) {
+                continue;
+            }
+            String fullName = document.fullName().toLowerCase(Locale.ROOT);
+            Hit best = null;
+            for (String key : List.of(fullName, document.firstName().toLowerCase(Locale.ROOT),
+                    document.lastName().toLowerCase(Locale.ROOT))) {
+                int distance = FuzzyNameIndex.distance(query, key);
+                if (distance <= tolerance) {
+                    Hit hit = new Hit(document.employeeId(), distance, key.startsWith(query), fullName);
+                    if (best == null || RANKING.compare(hit, best) < 0) {
+                        best = hit;
+                    }
+                }
+            }
+            if (best != null) {
+                hits.add(best);
+            }
+        }
+        hits.sort(RANKING);
+        return hits.stream().limit(limit).map(Hit::id).toList();
+    }
+    
+    private static EmployeeDocument randomDocument(long id, Random random) {
+        return new EmployeeDocument(id, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                LAST_NAMES[random.nextInt(LAST_NAMES.length)], "e" + id + "@example.com",
+                String.format("EMP%06d", id), null, null, Role.EMPLOYEE, random.nextInt(5) != 0,
+                LocalDate.of(2020, 1, 1));
+    }
+    
+    private record Hit(Long id, int distance, boolean prefix, String name) {
+    }
+}
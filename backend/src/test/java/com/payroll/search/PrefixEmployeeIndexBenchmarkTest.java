@@ -0,0 +1,101 @@
+package com.payroll.search;
+
+import com.payroll.dto.EmployeeSuggestion;
+import com.payroll.enums.Role;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Suggest latency at 100k+ employees. Runs without a Spring context so it measures the index alone.
+ */
+class PrefixEmployeeIndexBenchmarkTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(PrefixEmployeeIndexBenchmarkTest.class);
+    
+    private static final int EMPLOYEES = 120_000;
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+            "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+            "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin"
+    };
+    
+    private static List<EmployeeDocument> documents;
+    private static PrefixEmployeeIndex index;
+    
+    @BeforeAll
+    static void buildIndex() {
+        Random random = new Random(42);
+        documents = new ArrayList<>(EMPLOYEES);
+        for (long id = 1; id <= EMPLOYEES; id++) {
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + (char) ('a' + random.nextInt(26));
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            documents.add(new EmployeeDocument(id, first, last, first.toLowerCase() + id + "@example.com",
+                    String.format("EMP%06d", id), id % 12, "Dept " + (id % 12), Role.EMPLOYEE,
+                    id % 10 != 0, LocalDate.of(2015, 1, 1).plusDays(id % 3000)));
+        }
+        
+        index = new PrefixEmployeeIndex();
+        long start = System.nanoTime();
+        index.rebuild(documents);
+        logger.info("Built prefix index over {} employees in {} ms", EMPLOYEES, (System.nanoTime() - start) / 1_000_000);
+    }
+    
+    @Test
+    void returnsOnlyActiveMatchesInKeyOrder() {
+        List<EmployeeSuggestion> suggestions = index.suggest("EMP00001", 10);
+        
+        assertEquals(9, suggestions.size(), "EMP000010 is inactive and must be skipped");
+        assertEquals("EMP000011", suggestions.get(0).employeeCode());
+        suggestions.forEach(s -> assertTrue(s.employeeCode().startsWith("EMP00001")));
+    }
+    
+    @Test
+    void updateMergesWithoutFullRebuild() {
+        PrefixEmployeeIndex local = new PrefixEmployeeIndex();
+        local.rebuild(documents.subList(0, 1000));
+        
+        EmployeeDocument renamed = new EmployeeDocument(5L, "Zelda", "Quartz", "zelda@example.com",
+                "EMP000005", 1L, "Dept 1", Role.EMPLOYEE, true, LocalDate.now());
+        local.update(List.of(renamed), List.of());
+        
+        assertEquals(5L, local.suggest("quartz", 5).get(0).employeeId());
+        assertEquals(1, local.suggest("zelda q", 5).size());
+    }
+    
+    @Test
+    void suggestLatencyAt100kEmployees() {
+        String[] prefixes = {"j", "ja", "jam", "sm", "smith", "emp0", "emp0123", "patricia", "ma", "rodr", "x"};
+        for (int i = 0; i < 20_000; i++) {
+            index.suggest(prefixes[i % prefixes.length], 10);
+        }
+        
+        int runs = 50_000;
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            index.suggest(prefixes[i % prefixes.length], 10);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long p50 = samples[runs / 2];
+        long p99 = samples[(int) (runs * 0.99)];
+        logger.info("suggest over {} employees: p50={} us, p99={} us", EMPLOYEES, p50 / 1_000, p99 / 1_000);
+        
+        // Generous bound so the check holds on slow CI machines; typical p99 is a few microseconds
+        assertTrue(p99 < 5_000_000, "suggest p99 should stay well under 5 ms, was " + p99 / 1_000 + " us");
+    }
+}
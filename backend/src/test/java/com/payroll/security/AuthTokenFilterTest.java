@@ -0,0 +1,164 @@
+package com.payroll.security;
+
+import com.payroll.dto.EmployeeRequest;
+import com.payroll.entity.Employee;
+import com.payroll.enums.Role;
+import com.payroll.repository.EmployeeRepository;
+import com.payroll.service.EmployeeService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Which bearer tokens the filter accepts: claims tokens against the token version, and tokens issued
+ * before claims were added against the version, the active flag and the account's creation time.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AuthTokenFilterTest {
+    
+    private static final String CODE = "AUTHF001";
+    private static final String EMAIL = "auth-filter@example.com";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private TokenVersionCache tokenVersionCache;
+    
+    @Autowired
+    private TokenDenyList tokenDenyList;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private EmployeeService employeeService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+    
+    private Long employeeId;
+    
+    @BeforeEach
+    void createEmployee() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO employees (first_name, last_name, email, password, employee_code, role, " +
+                "is_active, hire_date, token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "Token", "Holder", EMAIL, "x", CODE, "EMPLOYEE", true, LocalDate.of(2024, 1, 1), 0L, now, now);
+        employeeId = jdbcTemplate.queryForObject("SELECT employee_id FROM employees WHERE employee_code = ?", Long.class, CODE);
+    }
+    
+    @AfterEach
+    void removeEmployee() {
+        jdbcTemplate.update("DELETE FROM revoked_tokens WHERE employee_id = ?", employeeId);
+        jdbcTemplate.update("DELETE FROM employees WHERE employee_code = ?", CODE);
+        tokenVersionCache.evict(employeeId);
+    }
+    
+    @Test
+    void claimlessTokenWorksUntilFirstRevocation() throws Exception {
+        String token = claimlessToken(EMAIL, new Date());
+        expectProfile(token, status().isOk());
+        
+        jdbcTemplate.update("UPDATE employees SET token_version = token_version + 1 WHERE employee_id = ?", employeeId);
+        tokenVersionCache.evict(employeeId);
+        
+        expectProfile(token, status().isUnauthorized());
+    }
+    
+    @Test
+    void claimlessTokenIsRefusedForInactiveEmployee() throws Exception {
+        jdbcTemplate.update("UPDATE employees SET is_active = FALSE WHERE employee_id = ?", employeeId);
+        
+        expectProfile(claimlessToken(EMAIL, new Date()), status().isUnauthorized());
+    }
+    
+    @Test
+    void claimlessTokenIssuedBeforeTheAccountExistedIsRefused() throws Exception {
+        Date yesterday = new Date(System.currentTimeMillis() - 86_400_000L);
+        
+        expectProfile(claimlessToken(EMAIL, yesterday), status().isUnauthorized());
+    }
+    
+    @Test
+    void changingEmailRevokesIssuedTokens() throws Exception {
+        Employee employee = employeeRepository.findById(employeeId).orElseThrow();
+        String token = jwtUtils.generateJwtToken(employee);
+        expectProfile(token, status().isOk());
+        
+        EmployeeRequest request = new EmployeeRequest();
+        request.setFirstName("Token");
+        request.setLastName("Holder");
+        request.setEmail("auth-filter-renamed@example.com");
+        request.setRole(Role.EMPLOYEE);
+        employeeService.updateEmployee(employeeId, request);
+        
+        expectProfile(token, status().isUnauthorized());
+    }
+    
+    @Test
+    void revokedTokenIsRefused() throws Exception {
+        String token = jwtUtils.generateJwtToken(employeeRepository.findById(employeeId).orElseThrow());
+        String other = jwtUtils.generateJwtToken(employeeRepository.findById(employeeId).orElseThrow());
+        expectProfile(token, status().isOk());
+        
+        tokenDenyList.revoke(jwtUtils.verify(token));
+        
+        expectProfile(token, status().isUnauthorized());
+        expectProfile(other, status().isOk());
+    }
+    
+    @Test
+    void tokenRevokedOnAnotherNodeIsRefusedAfterThePoll() throws Exception {
+        String token = jwtUtils.generateJwtToken(employeeRepository.findById(employeeId).orElseThrow());
+        expectProfile(token, status().isOk());
+        
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO revoked_tokens (token_id, employee_id, expires_at, revoked_at) VALUES (?, ?, ?, ?)",
+                jwtUtils.verify(token).tokenId(), employeeId, now.plusHours(1), now);
+        tokenDenyList.poll();
+        
+        expectProfile(token, status().isUnauthorized());
+    }
+    
+    private void expectProfile(String token, ResultMatcher expected) throws Exception {
+        mockMvc.perform(get("/employee/profile").header("Authorization", "Bearer " + token))
+                .andExpect(expected);
+    }
+    
+    private String claimlessToken(String subject, Date issuedAt) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setIssuedAt(issuedAt)
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000L))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,59 @@
+package com.payroll.security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The filter must never miss an entry it was given, and at its sizing load its false-positive rate
+ * must stay close to the configured one.
+ */
+class BloomFilterTest {
+    
+    private static final int ENTRIES = 50_000;
+    private static final int PROBES = 200_000;
+    
+    @Test
+    void neverReturnsAFalseNegative() {
+        BloomFilter filter = filled(ENTRIES, 0.01, ENTRIES);
+        
+        for (int i = 0; i < ENTRIES; i++) {
+            assertTrue(filter.mightContain("jti-" + i), "jti-" + i);
+        }
+    }
+    
+    @Test
+    void falsePositiveRateStaysNearTheConfiguredRate() {
+        for (double configured : new double[] {0.01, 0.001}) {
+            double measured = falsePositiveRate(filled(ENTRIES, configured, ENTRIES));
+            
+            assertTrue(measured <= configured * 1.5, "configured " + configured + ", measured " + measured);
+        }
+    }
+    
+    @Test
+    void overfilledFilterDegrades() {
+        // Why the deny list resizes: at four times its sizing the filter stops filtering much
+        double measured = falsePositiveRate(filled(ENTRIES / 4, 0.01, ENTRIES));
+        
+        assertTrue(measured > 0.1, "measured " + measured);
+    }
+    
+    private static BloomFilter filled(int expectedEntries, double falsePositiveRate, int entries) {
+        BloomFilter filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        for (int i = 0; i < entries; i++) {
+            filter.put("jti-" + i);
+        }
+        return filter;
+    }
+    
+    private static double falsePositiveRate(BloomFilter filter) {
+        int hits = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain("other-" + i)) {
+                hits++;
+            }
+        }
+        return (double) hits / PROBES;
+    }
+}
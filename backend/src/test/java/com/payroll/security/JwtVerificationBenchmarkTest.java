@@ -0,0 +1,114 @@
+package com.payroll.security;
+
+import com.payroll.entity.Employee;
+import com.payroll.enums.Role;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.io.Encoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-request token verification cost: the old filter path (decode the secret and build a parser for
+ * validation, then again to read the subject) against a single pass through the cached parser.
+ * Runs without a Spring context so it measures token handling alone.
+ */
+class JwtVerificationBenchmarkTest {
+    
+    private static final Logger logger = LoggerFactory.getLogger(JwtVerificationBenchmarkTest.class);
+    
+    private static final int RUNS = 50_000;
+    
+    private static String secret;
+    private static JwtUtils jwtUtils;
+    private static String token;
+    
+    @BeforeAll
+    static void setUp() {
+        byte[] keyBytes = new byte[32];
+        new Random(42).nextBytes(keyBytes);
+        secret = Encoders.BASE64.encode(keyBytes);
+        
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 3_600_000);
+        jwtUtils.init();
+        Employee admin = new Employee();
+        admin.setEmployeeId(1L);
+        admin.setEmail("admin@payroll.com");
+        admin.setEmployeeCode("EMP001");
+        admin.setRole(Role.ADMIN);
+        token = jwtUtils.generateJwtToken(admin);
+    }
+    
+    @Test
+    void reportsTypedOutcome() {
+        JwtVerification valid = jwtUtils.verify(token);
+        assertTrue(valid.isValid());
+        assertEquals("admin@payroll.com", valid.subject());
+        assertEquals(1L, valid.principal().getEmployeeId());
+        
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertEquals(JwtVerification.Status.BAD_SIGNATURE, jwtUtils.verify(tampered).status());
+        assertEquals(JwtVerification.Status.MALFORMED, jwtUtils.verify("not.a.token").status());
+        assertEquals(JwtVerification.Status.EMPTY, jwtUtils.verify("").status());
+        
+        String expired = Jwts.builder()
+                .setSubject("admin@payroll.com")
+                .setExpiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+        JwtVerification result = jwtUtils.verify(expired);
+        assertEquals(JwtVerification.Status.EXPIRED, result.status());
+        assertFalse(result.isValid());
+    }
+    
+    @Test
+    void singlePassIsCheaperThanRebuildingParserTwice() {
+        long legacy = medianNanos(t -> {
+            Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+            Jwts.parserBuilder().setSigningKey(key).build().parse(t);
+            Key again = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+            return Jwts.parserBuilder().setSigningKey(again).build().parseClaimsJws(t).getBody().getSubject();
+        });
+        long cached = medianNanos(t -> jwtUtils.verify(t).subject());
+        
+        logger.info("JWT auth per request: legacy p50={} us, single pass p50={} us",
+                String.format("%.1f", legacy / 1_000.0), String.format("%.1f", cached / 1_000.0));
+        
+        // Loose bound so the check holds on noisy CI machines; typically the gap is well over 2x
+        assertTrue(cached < legacy, "single-pass verification should beat the double parse");
+    }
+    
+    private static long medianNanos(Function<String, String> verifier) {
+        for (int i = 0; i < 10_000; i++) {
+            verifier.apply(token);
+        }
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            String subject = verifier.apply(token);
+            samples[i] = System.nanoTime() - start;
+            if (subject == null) {
+                throw new IllegalStateException("verification lost the subject");
+            }
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+}
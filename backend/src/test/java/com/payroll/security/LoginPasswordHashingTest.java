@@ -0,0 +1,115 @@
+package com.payroll.security;
+
+import com.payroll.exception.ServiceBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login through the hashing pool: stored hashes at an outdated cost are redone after a successful
+ * sign-in, and a saturated pool turns into a 503 the client can retry.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoginPasswordHashingTest {
+    
+    private static final String CODE = "HASH001";
+    private static final String EMAIL = "hashing@example.com";
+    private static final String PASSWORD = "correct horse";
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @SpyBean
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+    
+    @BeforeEach
+    void createEmployee() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO employees (first_name, last_name, email, password, employee_code, role, " +
+                "is_active, hire_date, token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "Hash", "Holder", EMAIL, new BCryptPasswordEncoder(4).encode(PASSWORD), CODE, "EMPLOYEE", true,
+                LocalDate.of(2024, 1, 1), 0L, now, now);
+    }
+    
+    @AfterEach
+    void removeEmployee() {
+        reset(passwordHashingExecutor);
+        jdbcTemplate.update("DELETE FROM refresh_tokens WHERE employee_id IN " +
+                "(SELECT employee_id FROM employees WHERE employee_code = ?)", CODE);
+        jdbcTemplate.update("DELETE FROM employees WHERE employee_code = ?", CODE);
+    }
+    
+    @Test
+    void loginRehashesPasswordStoredAtOutdatedCost() throws Exception {
+        login(PASSWORD).andExpect(status().isOk());
+        
+        String stored = storedHash();
+        assertEquals(bcryptStrength, OffloadedPasswordEncoder.bcryptCost(stored));
+        assertTrue(new BCryptPasswordEncoder().matches(PASSWORD, stored));
+        
+        // Already at the configured cost, so a second login leaves the hash alone
+        login(PASSWORD).andExpect(status().isOk());
+        assertEquals(stored, storedHash());
+    }
+    
+    @Test
+    void failedLoginKeepsTheOldHash() throws Exception {
+        String before = storedHash();
+        
+        login("wrong password").andExpect(status().isUnauthorized());
+        
+        assertEquals(before, storedHash());
+    }
+    
+    @Test
+    void saturatedHashingPoolAnswers503WithRetryAfter() throws Exception {
+        doThrow(new ServiceBusyException("Too many sign-in attempts in progress, please retry shortly", 2))
+                .when(passwordHashingExecutor).execute(any(Callable.class));
+        
+        login(PASSWORD)
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+    
+    private ResultActions login(String password) throws Exception {
+        return mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + EMAIL + "\",\"password\":\"" + password + "\"}"));
+    }
+    
+    private String storedHash() {
+        return jdbcTemplate.queryForObject("SELECT password FROM employees WHERE employee_code = ?", String.class, CODE);
+    }
+}
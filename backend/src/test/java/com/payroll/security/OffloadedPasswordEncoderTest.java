@@ -0,0 +1,42 @@
+package com.payroll.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class OffloadedPasswordEncoderTest {
+    
+    private final OffloadedPasswordEncoder encoder =
+            new OffloadedPasswordEncoder(new BCryptPasswordEncoder(10), mock(PasswordHashingExecutor.class), 10);
+    
+    @Test
+    void readsCostFromBcryptHash() {
+        assertEquals(10, OffloadedPasswordEncoder.bcryptCost(new BCryptPasswordEncoder(10).encode("secret")));
+        assertEquals(4, OffloadedPasswordEncoder.bcryptCost(new BCryptPasswordEncoder(4).encode("secret")));
+        assertEquals(12, OffloadedPasswordEncoder.bcryptCost("$2b$12$abcdefghijklmnopqrstuv"));
+    }
+    
+    @Test
+    void rejectsNonBcryptValues() {
+        assertEquals(-1, OffloadedPasswordEncoder.bcryptCost(null));
+        assertEquals(-1, OffloadedPasswordEncoder.bcryptCost(""));
+        assertEquals(-1, OffloadedPasswordEncoder.bcryptCost("$2a$1"));
+        assertEquals(-1, OffloadedPasswordEncoder.bcryptCost("plaintext"));
+        assertEquals(-1, OffloadedPasswordEncoder.bcryptCost("$2a$x0$abcdefghijklmnopqrstuv"));
+        assertEquals(-1, OffloadedPasswordEncoder.bcryptCost("{noop}$2a$10$abcdefghijklmnopqrstuv"));
+    }
+    
+    @Test
+    void upgradesHashesAtAnyOtherCost() {
+        assertFalse(encoder.upgradeEncoding("$2a$10$abcdefghijklmnopqrstuv"));
+        assertTrue(encoder.upgradeEncoding("$2a$04$abcdefghijklmnopqrstuv"));
+        assertTrue(encoder.upgradeEncoding("$2a$12$abcdefghijklmnopqrstuv"));
+        // Nothing to compare against, so an unrecognised value is left alone
+        assertFalse(encoder.upgradeEncoding("plaintext"));
+        assertFalse(encoder.upgradeEncoding(null));
+    }
+}
@@ -0,0 +1,82 @@
+package com.payroll.security;
+
+import com.payroll.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PasswordHashingExecutor executor = new PasswordHashingExecutor();
+    private final CountDownLatch release = new CountDownLatch(1);
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(executor, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(executor, "hashingThreads", 1);
+        ReflectionTestUtils.setField(executor, "queueCapacity", 1);
+        ReflectionTestUtils.setField(executor, "waitTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(executor, "retryAfterSeconds", 7L);
+        executor.init();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+    
+    @Test
+    void runsTaskAndReturnsItsResult() {
+        assertEquals("hash", executor.execute(() -> "hash"));
+    }
+    
+    @Test
+    void rejectsWithRetryAfterOnceWorkersAndQueueAreFull() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> executor.execute(() -> true));
+        waitForQueued(1);
+        
+        ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> executor.execute(() -> true));
+        assertEquals(7L, busy.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("payroll.auth.hashing.rejected").counter().count());
+    }
+    
+    @Test
+    void givesUpWithRetryAfterWhenQueuedTooLong() throws InterruptedException {
+        ReflectionTestUtils.setField(executor, "waitTimeoutMs", 50L);
+        CountDownLatch running = new CountDownLatch(1);
+        CompletableFuture.runAsync(() -> executor.execute(() -> {
+            running.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        
+        ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> executor.execute(() -> true));
+        assertEquals(7L, busy.getRetryAfterSeconds());
+    }
+    
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("payroll.auth.hashing.queue.size").gauge().value() != expected) {
+            assertTrue(System.nanoTime() < deadline, "queue never reached " + expected);
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.payroll.security;
+
+import com.payroll.entity.Employee;
+import com.payroll.enums.Role;
+import com.payroll.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The limiter as a client sees it. Each group allows a single request a minute, and the test spends
+ * that allowance directly on the limiter, so the request under test is turned away before it reaches
+ * a controller (and, for the AI group, before anything calls Gemini).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+// A context of its own, so its own database too: closing it drops the schema of the database it used
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ratelimit;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;NON_KEYWORDS=MONTH,YEAR",
+        "rate-limit.payslip.capacity=1",
+        "rate-limit.payslip.refill-per-minute=1",
+        "rate-limit.ai.capacity=1",
+        "rate-limit.ai.refill-per-minute=1"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class RateLimitFilterTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private RateLimiter rateLimiter;
+    
+    @Autowired
+    private JwtUtils jwtUtils;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    private Employee admin;
+    private String token;
+    
+    @BeforeEach
+    void authenticate() {
+        admin = employeeRepository.findByRole(Role.ADMIN).get(0);
+        token = jwtUtils.generateJwtToken(admin);
+    }
+    
+    @Test
+    void payslipRequestsOverTheLimitGet429WithRetryAfter() throws Exception {
+        rateLimiter.groupFor("/salary/payslip/1").tryAcquire(admin.getEmployeeId());
+        
+        perform("/salary/payslip/1")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"))
+                .andExpect(jsonPath("$.path").value("/salary/payslip/1"));
+    }
+    
+    @Test
+    void aiRequestsOverTheLimitGet429WithRetryAfter() throws Exception {
+        rateLimiter.groupFor("/ai/my-tax-advice").tryAcquire(admin.getEmployeeId());
+        
+        perform("/ai/my-tax-advice")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"));
+        // Every AI endpoint draws on the same allowance
+        perform("/ai/my-salary-insights")
+                .andExpect(status().isTooManyRequests());
+    }
+    
+    @Test
+    void unlimitedPathsAreUnaffected() throws Exception {
+        rateLimiter.groupFor("/ai/my-tax-advice").tryAcquire(admin.getEmployeeId());
+        
+        perform("/employee/profile").andExpect(status().isOk());
+    }
+    
+    private ResultActions perform(String path) throws Exception {
+        return mockMvc.perform(get(path).header("Authorization", "Bearer " + token));
+    }
+}
@@ -0,0 +1,110 @@
+package com.payroll.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the bucket with explicit timestamps instead of {@link System#nanoTime()}, so refill and
+ * wait times are exact.
+ */
+class TokenBucketTest {
+    
+    private static final long INTERVAL = 1_000;
+    private static final long CAPACITY = 3 * INTERVAL;
+    
+    private final TokenBucket bucket = new TokenBucket();
+    
+    @Test
+    void admitsABurstUpToCapacityThenReportsTheWait() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(0, INTERVAL, CAPACITY));
+        }
+        assertEquals(INTERVAL, bucket.tryConsume(0, INTERVAL, CAPACITY));
+        assertEquals(INTERVAL - 400, bucket.tryConsume(400, INTERVAL, CAPACITY));
+    }
+    
+    @Test
+    void refillsOneTokenPerInterval() {
+        drain(0);
+        
+        assertEquals(0, bucket.tryConsume(INTERVAL, INTERVAL, CAPACITY));
+        assertEquals(INTERVAL, bucket.tryConsume(INTERVAL, INTERVAL, CAPACITY));
+        
+        assertEquals(0, bucket.tryConsume(3 * INTERVAL, INTERVAL, CAPACITY));
+        assertEquals(0, bucket.tryConsume(3 * INTERVAL, INTERVAL, CAPACITY));
+        assertEquals(INTERVAL, bucket.tryConsume(3 * INTERVAL, INTERVAL, CAPACITY));
+    }
+    
+    @Test
+    void rejectedAttemptsDoNotUseUpTokens() {
+        drain(0);
+        for (int i = 0; i < 10; i++) {
+            bucket.tryConsume(0, INTERVAL, CAPACITY);
+        }
+        
+        assertEquals(0, bucket.tryConsume(INTERVAL, INTERVAL, CAPACITY));
+    }
+    
+    @Test
+    void idleTimeNeverBanksMoreThanCapacity() {
+        drain(0);
+        
+        drain(1_000_000 * INTERVAL);
+        assertTrue(bucket.tryConsume(1_000_000 * INTERVAL, INTERVAL, CAPACITY) > 0);
+    }
+    
+    @Test
+    void isFullOnceEveryTokenHasRefilled() {
+        assertTrue(bucket.isFull(0));
+        
+        bucket.tryConsume(0, INTERVAL, CAPACITY);
+        bucket.tryConsume(0, INTERVAL, CAPACITY);
+        assertFalse(bucket.isFull(INTERVAL));
+        assertTrue(bucket.isFull(2 * INTERVAL));
+    }
+    
+    @Test
+    void concurrentCallersShareTheCapacity() throws Exception {
+        long capacity = 100 * INTERVAL;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                int admitted = 0;
+                for (int i = 0; i < 50; i++) {
+                    if (bucket.tryConsume(0, INTERVAL, capacity) == 0) {
+                        admitted++;
+                    }
+                }
+                return admitted;
+            }));
+        }
+        start.countDown();
+        
+        int admitted = 0;
+        for (Future<Integer> worker : workers) {
+            admitted += worker.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertEquals(100, admitted);
+    }
+    
+    private void drain(long now) {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryConsume(now, INTERVAL, CAPACITY));
+        }
+    }
+}
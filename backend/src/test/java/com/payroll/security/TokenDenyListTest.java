@@ -0,0 +1,116 @@
+package com.payroll.security;
+
+import com.payroll.entity.RevokedToken;
+import com.payroll.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The deny list against a stubbed {@code revoked_tokens} table: what a poll picks up, how the bloom
+ * filter grows, and what the sweep drops.
+ */
+class TokenDenyListTest {
+    
+    private final RevokedTokenRepository repository = mock(RevokedTokenRepository.class);
+    private final TokenDenyList denyList = new TokenDenyList();
+    private final LocalDateTime now = LocalDateTime.now();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(denyList, "revokedTokenRepository", repository);
+        ReflectionTestUtils.setField(denyList, "expectedEntries", 4);
+        ReflectionTestUtils.setField(denyList, "falsePositiveRate", 0.01);
+    }
+    
+    @Test
+    void pollRereadsTheOverlapWindowSoLateCommitsAreNotMissed() {
+        LocalDateTime lastSeen = now;
+        when(repository.findByExpiresAtAfter(any())).thenReturn(List.of(token("seen", lastSeen)));
+        denyList.loadOnStartup();
+        
+        // Revoked on another node before the last row we saw, but committed after our last read
+        when(repository.findByRevokedAtAfter(lastSeen.minusSeconds(60))).thenReturn(List.of(token("late", lastSeen.minusSeconds(30))));
+        denyList.poll();
+        
+        assertTrue(denyList.isRevoked("late"));
+        assertTrue(denyList.isRevoked("seen"));
+        assertFalse(denyList.isRevoked("other"));
+        // A late row doesn't move the window backwards
+        assertEquals(lastSeen, ReflectionTestUtils.getField(denyList, "lastSeenRevokedAt"));
+    }
+    
+    @Test
+    void pollDoesNotTouchExpiredRows() {
+        when(repository.findByRevokedAtAfter(any())).thenReturn(List.of());
+        
+        denyList.poll();
+        
+        verify(repository, never()).deleteExpired(any());
+    }
+    
+    @Test
+    void filterGrowsPastItsSizingWithoutLosingEntries() {
+        List<RevokedToken> tokens = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tokens.add(token("jti-" + i, now));
+        }
+        when(repository.findByRevokedAtAfter(any())).thenReturn(tokens);
+        
+        denyList.poll();
+        
+        assertEquals(20, denyList.size());
+        assertEquals(32, ReflectionTestUtils.getField(denyList, "expectedEntries"));
+        for (int i = 0; i < 20; i++) {
+            assertTrue(denyList.isRevoked("jti-" + i), "jti-" + i);
+        }
+    }
+    
+    @Test
+    void sweepDropsExpiredEntriesAndRebuildsTheFilter() {
+        when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(
+                new RevokedToken("expired", 1L, now.minusMinutes(1), now.minusMinutes(20)),
+                token("live", now)));
+        denyList.poll();
+        Object filter = ReflectionTestUtils.getField(denyList, "filter");
+        
+        denyList.sweepExpired();
+        
+        verify(repository).deleteExpired(any());
+        assertNotSame(filter, ReflectionTestUtils.getField(denyList, "filter"));
+        assertEquals(1, denyList.size());
+        assertFalse(denyList.isRevoked("expired"));
+        assertTrue(denyList.isRevoked("live"));
+    }
+    
+    @Test
+    void sweepWithNothingExpiredKeepsTheFilter() {
+        when(repository.findByRevokedAtAfter(any())).thenReturn(List.of(token("live", now)));
+        denyList.poll();
+        Object filter = ReflectionTestUtils.getField(denyList, "filter");
+        
+        denyList.sweepExpired();
+        
+        assertSame(filter, ReflectionTestUtils.getField(denyList, "filter"));
+        assertTrue(denyList.isRevoked("live"));
+    }
+    
+    private static RevokedToken token(String tokenId, LocalDateTime revokedAt) {
+        return new RevokedToken(tokenId, 1L, revokedAt.plusMinutes(15), revokedAt);
+    }
+}
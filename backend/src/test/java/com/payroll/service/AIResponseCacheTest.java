@@ -0,0 +1,119 @@
+package com.payroll.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AIResponseCacheTest {
+    
+    private static final long DATA_TTL_MS = 60_000;
+    private static final long PROMPT_TTL_MS = 10_000;
+    
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AIResponseCache cache = new AIResponseCache();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxEntries", 3);
+        ReflectionTestUtils.setField(cache, "dataTtlMs", DATA_TTL_MS);
+        ReflectionTestUtils.setField(cache, "promptTtlMs", PROMPT_TTL_MS);
+        ReflectionTestUtils.setField(cache, "clock", (LongSupplier) now::get);
+        cache.init();
+    }
+    
+    @Test
+    void countsHitsAndMisses() {
+        AIResponseCache.Key key = cache.forPrompt("What is 80C?");
+        assertNull(cache.get(key));
+        
+        cache.put(key, "A deduction.");
+        assertEquals("A deduction.", cache.get(key));
+        assertEquals("A deduction.", cache.get(key));
+        
+        assertEquals(2.0, requests("hit"));
+        assertEquals(1.0, requests("miss"));
+    }
+    
+    @Test
+    void promptKeysIgnoreCaseAndWhitespace() {
+        cache.put(cache.forPrompt("What is 80C?"), "A deduction.");
+        
+        assertEquals("A deduction.", cache.get(cache.forPrompt("  what IS\t80c? ")));
+        assertNull(cache.get(cache.forPrompt("What is 80D?")));
+    }
+    
+    @Test
+    void employeeKeysChangeWithTheDataVersion() {
+        cache.put(cache.forEmployeeData("tax-advice", 7L, "v1"), "Old advice");
+        
+        assertNull(cache.get(cache.forEmployeeData("tax-advice", 7L, "v2")));
+        assertNull(cache.get(cache.forEmployeeData("tax-advice", 8L, "v1")));
+        assertNull(cache.get(cache.forEmployeeData("salary-insights", 7L, "v1")));
+        assertEquals("Old advice", cache.get(cache.forEmployeeData("tax-advice", 7L, "v1")));
+    }
+    
+    @Test
+    void entriesExpireAfterTheirKindsTtl() {
+        AIResponseCache.Key prompt = cache.forPrompt("What is 80C?");
+        AIResponseCache.Key data = cache.forEmployeeData("tax-advice", 7L, "v1");
+        assertNotEquals(prompt.ttlMs(), data.ttlMs());
+        cache.put(prompt, "A deduction.");
+        cache.put(data, "Advice");
+        
+        now.addAndGet(PROMPT_TTL_MS - 1);
+        assertEquals("A deduction.", cache.get(prompt));
+        now.addAndGet(1);
+        assertNull(cache.get(prompt));
+        assertEquals("Advice", cache.get(data));
+        
+        now.addAndGet(DATA_TTL_MS);
+        assertNull(cache.get(data));
+        // Expired entries are dropped on lookup rather than left taking up room
+        assertEquals(0, cache.size());
+    }
+    
+    @Test
+    void evictsLeastRecentlyUsedOnceFull() {
+        AIResponseCache.Key first = cache.forPrompt("first");
+        AIResponseCache.Key second = cache.forPrompt("second");
+        AIResponseCache.Key third = cache.forPrompt("third");
+        cache.put(first, "1");
+        cache.put(second, "2");
+        cache.put(third, "3");
+        
+        // Reading the oldest entry makes "second" the least recently used
+        cache.get(first);
+        cache.put(cache.forPrompt("fourth"), "4");
+        
+        assertEquals(3, cache.size());
+        assertNull(cache.get(second));
+        assertEquals("1", cache.get(first));
+        assertEquals("3", cache.get(third));
+    }
+    
+    @Test
+    void puttingAgainRefreshesTheExpiry() {
+        AIResponseCache.Key key = cache.forPrompt("What is 80C?");
+        cache.put(key, "Old");
+        now.addAndGet(PROMPT_TTL_MS - 1);
+        
+        cache.put(key, "New");
+        now.addAndGet(PROMPT_TTL_MS - 1);
+        
+        assertEquals("New", cache.get(key));
+    }
+    
+    private double requests(String result) {
+        return meterRegistry.get("payroll.ai.cache.requests").tag("result", result).counter().count();
+    }
+}
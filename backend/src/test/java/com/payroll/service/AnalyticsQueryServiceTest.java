@@ -0,0 +1,111 @@
+package com.payroll.service;
+
+import com.payroll.dto.analytics.AnalyticsQueryRequest;
+import com.payroll.dto.analytics.AnalyticsQueryResponse;
+import com.payroll.exception.QueryBudgetExceededException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs analytics queries against the seeded test database and checks them against the same
+ * aggregation written directly in SQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsQueryServiceTest {
+    
+    private static final String FACTS = "FROM salary_details s JOIN employees e ON e.employee_id = s.employee_id " +
+            "LEFT JOIN departments d ON d.dept_id = e.department_id ";
+    
+    @Autowired
+    private AnalyticsQueryService analyticsQueryService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void groupsByDepartment() {
+        AnalyticsQueryRequest request = request(List.of("department"));
+        
+        AnalyticsQueryResponse response = analyticsQueryService.execute(request);
+        
+        Map<String, Long> expectedCounts = new HashMap<>();
+        Map<String, BigDecimal> expectedTotals = new HashMap<>();
+        jdbcTemplate.query("SELECT COALESCE(d.dept_name, 'Unassigned') AS dept, COUNT(*) AS n, SUM(s.net_salary) AS total " +
+                FACTS + "GROUP BY COALESCE(d.dept_name, 'Unassigned')", rs -> {
+            expectedCounts.put(rs.getString("dept"), rs.getLong("n"));
+            expectedTotals.put(rs.getString("dept"), rs.getBigDecimal("total"));
+        });
+        
+        assertEquals(List.of("department"), response.getGroupBy());
+        assertEquals(List.of("count", "sum_netSalary"), response.getAggregates());
+        assertEquals(expectedCounts.size(), response.getRows().size());
+        for (Map<String, Object> row : response.getRows()) {
+            String department = (String) row.get("department");
+            assertEquals(expectedCounts.get(department), row.get("count"), department);
+            assertEquals(0, expectedTotals.get(department).compareTo((BigDecimal) row.get("sum_netSalary")), department);
+        }
+    }
+    
+    @Test
+    void filtersCountOnlyMatchingRowsAgainstTheBudget() {
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM salary_details", Long.class);
+        Long matching = jdbcTemplate.queryForObject("SELECT COUNT(*) " + FACTS +
+                "WHERE e.role = 'EMPLOYEE' AND s.net_salary >= 50000", Long.class);
+        assertTrue(matching > 0 && matching < total, "the filter should select a strict subset of the rows");
+        
+        AnalyticsQueryRequest request = request(List.of("role"));
+        request.setFilters(List.of(filter("role", "employee"), range("netSalary", new BigDecimal("50000"))));
+        // Exactly as many rows as match: the rows the filter excludes must not count
+        request.setMaxRows(matching.intValue());
+        
+        AnalyticsQueryResponse response = analyticsQueryService.execute(request);
+        
+        assertEquals(matching.longValue(), response.getScannedRows());
+        assertEquals(1, response.getRows().size());
+        assertEquals("EMPLOYEE", response.getRows().get(0).get("role"));
+        assertEquals(matching, response.getRows().get(0).get("count"));
+    }
+    
+    @Test
+    void rejectsQueriesOverTheRowBudget() {
+        AnalyticsQueryRequest request = request(List.of());
+        request.setMaxRows(1);
+        
+        assertThrows(QueryBudgetExceededException.class, () -> analyticsQueryService.execute(request));
+    }
+    
+    private static AnalyticsQueryRequest request(List<String> groupBy) {
+        AnalyticsQueryRequest request = new AnalyticsQueryRequest();
+        request.setGroupBy(groupBy);
+        request.setAggregates(List.of(new AnalyticsQueryRequest.Aggregate("count", null),
+                new AnalyticsQueryRequest.Aggregate("sum", "netSalary")));
+        return request;
+    }
+    
+    private static AnalyticsQueryRequest.Filter filter(String field, String value) {
+        AnalyticsQueryRequest.Filter filter = new AnalyticsQueryRequest.Filter();
+        filter.setField(field);
+        filter.setValues(List.of(value));
+        return filter;
+    }
+    
+    private static AnalyticsQueryRequest.Filter range(String field, BigDecimal min) {
+        AnalyticsQueryRequest.Filter filter = new AnalyticsQueryRequest.Filter();
+        filter.setField(field);
+        filter.setMin(min);
+        return filter;
+    }
+}
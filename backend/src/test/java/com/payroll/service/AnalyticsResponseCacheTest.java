@@ -0,0 +1,166 @@
+package com.payroll.service;
+
+import com.payroll.event.PayrollDataChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Conditional requests, content encoding and invalidation of the pre-serialized analytics responses.
+ * Each test uses its own cache key so results cached by other tests can't leak in.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AnalyticsResponseCacheTest {
+    
+    private static final Map<String, String> SMALL = Map.of("total", "42");
+    private static final List<String> LARGE = List.of("x".repeat(4_000));
+    
+    @Autowired
+    private AnalyticsResponseCache responseCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    private final String key = "test:" + UUID.randomUUID();
+    private final AtomicInteger computations = new AtomicInteger();
+    
+    @Test
+    void currentETagIsAnsweredWithNotModifiedWithoutComputing() {
+        String etag = responseCache.respond(key, request(), counting(SMALL)).getHeaders().getETag();
+        
+        ResponseEntity<byte[]> response = responseCache.respond(key, request(HttpHeaders.IF_NONE_MATCH, "\"x\", " + etag),
+                counting(SMALL));
+        
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals(etag, response.getHeaders().getETag());
+        assertNull(response.getBody());
+        assertEquals(1, computations.get());
+    }
+    
+    @Test
+    void largeResultIsGzippedOnlyForClientsThatAcceptIt() throws IOException {
+        ResponseEntity<byte[]> gzipped = responseCache.respond(key, request(HttpHeaders.ACCEPT_ENCODING, "deflate, GZIP"),
+                counting(LARGE));
+        ResponseEntity<byte[]> plain = responseCache.respond(key, request(), counting(LARGE));
+        
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertNull(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, plain.getHeaders().getFirst(HttpHeaders.VARY));
+        assertTrue(gzipped.getBody().length < plain.getBody().length);
+        assertArrayEquals(plain.getBody(), gunzip(gzipped.getBody()));
+        assertEquals(1, computations.get());
+    }
+    
+    @Test
+    void smallResultIsNeverGzipped() {
+        ResponseEntity<byte[]> response = responseCache.respond(key, request(HttpHeaders.ACCEPT_ENCODING, "gzip"),
+                counting(SMALL));
+        
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"total\":\"42\"}", new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+    
+    @Test
+    void payrollDataChangeInvalidatesCachedResultAndETag() {
+        String etag = responseCache.respond(key, request(), counting(SMALL)).getHeaders().getETag();
+        
+        eventPublisher.publishEvent(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.SALARY, 1L));
+        
+        ResponseEntity<byte[]> response = responseCache.respond(key, request(HttpHeaders.IF_NONE_MATCH, etag),
+                counting(SMALL));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotEquals(etag, response.getHeaders().getETag(), "ETag should change with the data version");
+        assertEquals(2, computations.get());
+    }
+    
+    @Test
+    void concurrentMissesComputeOnce() throws Exception {
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Object> slow = () -> {
+            computations.incrementAndGet();
+            computing.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SMALL;
+        };
+        
+        CompletableFuture<ResponseEntity<byte[]>> first = CompletableFuture.supplyAsync(() -> responseCache.respond(key, request(), slow));
+        assertTrue(computing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<byte[]>> second = CompletableFuture.supplyAsync(() -> responseCache.respond(key, request(), slow));
+        Thread.sleep(100);
+        assertFalse(second.isDone(), "second request should wait for the first one's result");
+        release.countDown();
+        
+        assertArrayEquals(first.get(5, TimeUnit.SECONDS).getBody(), second.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, computations.get());
+    }
+    
+    @Test
+    void failedComputationIsNotCached() {
+        Supplier<Object> failing = () -> {
+            computations.incrementAndGet();
+            throw new IllegalStateException("database unavailable");
+        };
+        
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> responseCache.respond(key, request(), failing));
+        assertEquals("database unavailable", error.getMessage());
+        
+        assertEquals(HttpStatus.OK, responseCache.respond(key, request(), counting(SMALL)).getStatusCode());
+        assertEquals(2, computations.get());
+    }
+    
+    private Supplier<Object> counting(Object result) {
+        return () -> {
+            computations.incrementAndGet();
+            return result;
+        };
+    }
+    
+    private static ServletWebRequest request(String... headers) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/analytics/test");
+        for (int i = 0; i < headers.length; i += 2) {
+            request.addHeader(headers[i], headers[i + 1]);
+        }
+        return new ServletWebRequest(request);
+    }
+    
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+}
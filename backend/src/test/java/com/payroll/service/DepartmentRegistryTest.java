@@ -0,0 +1,84 @@
+package com.payroll.service;
+
+import com.payroll.entity.Department;
+import com.payroll.event.PayrollDataChangedEvent;
+import com.payroll.repository.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DepartmentRegistryTest {
+    
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final DepartmentRegistry registry = new DepartmentRegistry();
+    
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "departmentRepository", departmentRepository);
+        ReflectionTestUtils.setField(registry, "missReloadMs", 60_000L);
+        when(departmentRepository.findAllOrderByName()).thenReturn(List.of(department(1L, "Engineering")));
+        registry.loadOnStartup();
+    }
+    
+    @Test
+    void reloadsForUnknownIdAtMostOncePerInterval() {
+        when(departmentRepository.findAllOrderByName()).thenReturn(List.of(
+                department(1L, "Engineering"), department(2L, "Finance")));
+        
+        assertEquals("Finance", registry.findById(2L).orElseThrow().name());
+        assertTrue(registry.findById(99L).isEmpty());
+        assertTrue(registry.findById(99L).isEmpty());
+        
+        verify(departmentRepository, times(2)).findAllOrderByName();
+    }
+    
+    @Test
+    void reloadsAgainForUnknownIdOnceIntervalHasPassed() {
+        ReflectionTestUtils.setField(registry, "missReloadMs", 0L);
+        
+        registry.findById(99L);
+        registry.findById(99L);
+        
+        verify(departmentRepository, times(3)).findAllOrderByName();
+    }
+    
+    @Test
+    void slowerOlderReloadDoesNotReplaceNewerSnapshot() throws InterruptedException {
+        CountDownLatch olderQueried = new CountDownLatch(1);
+        CountDownLatch newerInstalled = new CountDownLatch(1);
+        when(departmentRepository.findAllOrderByName())
+                .thenAnswer(invocation -> {
+                    olderQueried.countDown();
+                    newerInstalled.await(5, TimeUnit.SECONDS);
+                    return List.of(department(1L, "Engineering"));
+                })
+                .thenReturn(List.of(department(1L, "Engineering"), department(2L, "Finance")));
+        
+        Thread older = new Thread(registry::refresh);
+        older.start();
+        assertTrue(olderQueried.await(5, TimeUnit.SECONDS));
+        registry.onPayrollDataChanged(new PayrollDataChangedEvent(PayrollDataChangedEvent.Kind.DEPARTMENT, List.of()));
+        newerInstalled.countDown();
+        older.join(5_000);
+        
+        assertEquals(List.of("Engineering", "Finance"),
+                registry.getAll().stream().map(DepartmentRegistry.DepartmentInfo::name).toList());
+    }
+    
+    private static Department department(Long id, String name) {
+        Department department = new Department(name, null);
+        department.setDeptId(id);
+        return department;
+    }
+}
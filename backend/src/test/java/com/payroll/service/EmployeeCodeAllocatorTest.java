@@ -0,0 +1,133 @@
+package com.payroll.service;
+
+import com.payroll.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Several allocators stand in for app nodes: each keeps its own block in memory and they share only
+ * the sequence row, which is missing at the start so they also race to create it.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeCodeAllocatorTest {
+    
+    private static final int NODES = 4;
+    private static final int THREADS_PER_NODE = 4;
+    
+    @Autowired
+    private CodeSequenceService codeSequenceService;
+    
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long originalNextValue;
+    
+    @BeforeEach
+    void dropSequenceRow() {
+        List<Long> values = jdbcTemplate.queryForList("SELECT next_value FROM code_sequences WHERE name = ?",
+                Long.class, EmployeeCodeAllocator.SEQUENCE_NAME);
+        originalNextValue = values.isEmpty() ? null : values.get(0);
+        jdbcTemplate.update("DELETE FROM code_sequences WHERE name = ?", EmployeeCodeAllocator.SEQUENCE_NAME);
+    }
+    
+    @AfterEach
+    void restoreSequenceRow() {
+        // Never move the row backwards: the application's own allocator may hold a block below the old value
+        if (originalNextValue != null) {
+            jdbcTemplate.update("UPDATE code_sequences SET next_value = GREATEST(next_value, ?) WHERE name = ?",
+                    originalNextValue, EmployeeCodeAllocator.SEQUENCE_NAME);
+        }
+    }
+    
+    @Test
+    void concurrentNodesNeverHandOutTheSameCode() throws Exception {
+        List<EmployeeCodeAllocator> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            EmployeeCodeAllocator allocator = new EmployeeCodeAllocator();
+            ReflectionTestUtils.setField(allocator, "codeSequenceService", codeSequenceService);
+            ReflectionTestUtils.setField(allocator, "employeeRepository", employeeRepository);
+            ReflectionTestUtils.setField(allocator, "blockSize", 5);
+            nodes.add(allocator);
+        }
+        
+        ExecutorService pool = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> workers = new ArrayList<>();
+        for (EmployeeCodeAllocator node : nodes) {
+            for (int t = 0; t < THREADS_PER_NODE; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    List<String> codes = new ArrayList<>();
+                    for (int i = 0; i < 20; i++) {
+                        codes.add(node.nextCode());
+                        if (i % 5 == 0) {
+                            codes.addAll(node.reserveCodes(3));
+                        }
+                    }
+                    return codes;
+                }));
+            }
+        }
+        start.countDown();
+        
+        List<String> issued = new ArrayList<>();
+        for (Future<List<String>> worker : workers) {
+            issued.addAll(worker.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        
+        Set<String> distinct = new HashSet<>(issued);
+        assertEquals(NODES * THREADS_PER_NODE * (20 + 4 * 3), issued.size());
+        assertEquals(issued.size(), distinct.size(), "every code must be handed out once");
+        // Codes continue after the ones already in the table
+        Set<String> existing = new HashSet<>(employeeRepository.findEmployeeCodesStartingWith(EmployeeCodeAllocator.PREFIX));
+        distinct.retainAll(existing);
+        assertEquals(Set.of(), distinct);
+    }
+    
+    @Test
+    void retriesReservationThatLostADeadlock() {
+        // H2 reports the creation race as a duplicate key; InnoDB picks a deadlock victim instead
+        CodeSequenceService sequences = mock(CodeSequenceService.class);
+        when(sequences.reserve(eq(EmployeeCodeAllocator.SEQUENCE_NAME), anyInt(), any(LongSupplier.class)))
+                .thenThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"))
+                .thenReturn(41L);
+        EmployeeCodeAllocator allocator = new EmployeeCodeAllocator();
+        ReflectionTestUtils.setField(allocator, "codeSequenceService", sequences);
+        ReflectionTestUtils.setField(allocator, "blockSize", 5);
+        
+        assertEquals(List.of("EMP0041", "EMP0042"), allocator.reserveCodes(2));
+        verify(sequences, times(2)).reserve(eq(EmployeeCodeAllocator.SEQUENCE_NAME), anyInt(), any(LongSupplier.class));
+    }
+}
@@ -0,0 +1,137 @@
+package com.payroll.service;
+
+import com.payroll.dto.EmployeeImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Imports CSV files into the seeded test database and checks what was inserted and what was reported.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeImportServiceTest {
+    
+    private static final String EMAIL_DOMAIN = "@import-test.example.com";
+    
+    @Autowired
+    private EmployeeImportService employeeImportService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @SpyBean
+    private EmployeeCodeAllocator employeeCodeAllocator;
+    
+    @AfterEach
+    void removeImportedEmployees() {
+        jdbcTemplate.update("DELETE FROM employees WHERE email LIKE ?", "%" + EMAIL_DOMAIN);
+    }
+    
+    @Test
+    void importsQuotedFieldsFromCrlfFileWithBom() throws IOException {
+        String department = jdbcTemplate.queryForObject("SELECT MIN(dept_name) FROM departments", String.class);
+        String csv = "\uFEFFFirst Name,Last_Name,Email,Password,Address,Department,Hire Date\r\n" +
+                "Asha,Rao,asha" + EMAIL_DOMAIN + ",secret1,\"12 MG Road, \"\"Lotus\"\" Apartments\r\nPune\"," +
+                department + ",2024-02-01\r\n" +
+                "Ravi,Iyer,ravi" + EMAIL_DOMAIN + ",secret2,,,\r\n";
+        
+        EmployeeImportResult result = employeeImportService.importCsv(stream(csv));
+        
+        assertEquals(2, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(List.of(), result.errors());
+        Map<String, Object> asha = jdbcTemplate.queryForMap("SELECT e.address, e.hire_date, d.dept_name FROM employees e " +
+                "LEFT JOIN departments d ON d.dept_id = e.department_id WHERE e.email = ?", "asha" + EMAIL_DOMAIN);
+        assertEquals("12 MG Road, \"Lotus\" Apartments\r\nPune", asha.get("address"));
+        assertEquals(department, asha.get("dept_name"));
+        assertEquals("2024-02-01", asha.get("hire_date").toString());
+    }
+    
+    @Test
+    void reportsEachRejectedRowByLine() throws IOException {
+        String existingEmail = jdbcTemplate.queryForObject("SELECT MIN(email) FROM employees", String.class);
+        String csv = "firstName,lastName,email,password,role,department,dateOfBirth\n" +
+                "Asha,Rao,asha" + EMAIL_DOMAIN + ",secret,employee,,\n" +
+                "Bad,Email,not-an-email,secret,,,\n" +
+                "Dup,Rao,ASHA" + EMAIL_DOMAIN + ",secret,,,\n" +
+                "\"Multi\nLine\",Name,multi" + EMAIL_DOMAIN + ",secret,intern,,\n" +
+                "No,Dept,nodept" + EMAIL_DOMAIN + ",secret,,Nowhere,\n" +
+                "Bad,Date,baddate" + EMAIL_DOMAIN + ",secret,,,01/02/1990\n" +
+                "Taken,Email," + existingEmail + ",secret,,,\n" +
+                "Ravi,Iyer,ravi" + EMAIL_DOMAIN + ",secret,,,\n";
+        
+        EmployeeImportResult result = employeeImportService.importCsv(stream(csv));
+        
+        assertEquals(8, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(6, result.rowsRejected());
+        assertFalse(result.errorsTruncated());
+        assertEquals(List.of(
+                new EmployeeImportResult.RowError(3, "not-an-email", "Invalid email format"),
+                new EmployeeImportResult.RowError(4, "ASHA" + EMAIL_DOMAIN, "Duplicate email in file"),
+                new EmployeeImportResult.RowError(5, "multi" + EMAIL_DOMAIN, "Unknown role"),
+                new EmployeeImportResult.RowError(7, "nodept" + EMAIL_DOMAIN, "Unknown department: Nowhere"),
+                new EmployeeImportResult.RowError(8, "baddate" + EMAIL_DOMAIN, "Invalid date, expected yyyy-MM-dd: 01/02/1990"),
+                new EmployeeImportResult.RowError(9, existingEmail, "Email already exists")), result.errors());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE email LIKE ?",
+                Integer.class, "%" + EMAIL_DOMAIN));
+    }
+    
+    @Test
+    void rowCollidingWithConcurrentInsertIsTheOnlyOneRejected() throws IOException {
+        // Another request inserts the second row's email after the existence check, before the batch
+        doAnswer(invocation -> {
+            LocalDateTime now = LocalDateTime.now();
+            jdbcTemplate.update("INSERT INTO employees (first_name, last_name, email, password, employee_code, role, " +
+                    "is_active, hire_date, token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    "Already", "There", "ravi" + EMAIL_DOMAIN, "x", "IMPCONC1", "EMPLOYEE", true,
+                    LocalDate.of(2024, 1, 1), 0L, now, now);
+            return invocation.callRealMethod();
+        }).when(employeeCodeAllocator).reserveCodes(anyInt());
+        String csv = "firstName,lastName,email,password\n" +
+                "Asha,Rao,asha" + EMAIL_DOMAIN + ",secret\n" +
+                "Ravi,Iyer,ravi" + EMAIL_DOMAIN + ",secret\n" +
+                "Meera,Nair,meera" + EMAIL_DOMAIN + ",secret\n";
+        
+        EmployeeImportResult result = employeeImportService.importCsv(stream(csv));
+        
+        assertEquals(2, result.rowsImported());
+        assertEquals(1, result.rowsRejected());
+        assertEquals(1, result.errors().size());
+        assertEquals(3, result.errors().get(0).row());
+        assertTrue(result.errors().get(0).message().startsWith("Insert failed"), result.errors().get(0).message());
+        assertEquals(List.of("Already", "Asha", "Meera"), jdbcTemplate.queryForList(
+                "SELECT first_name FROM employees WHERE email LIKE ? ORDER BY first_name", String.class, "%" + EMAIL_DOMAIN));
+    }
+    
+    @Test
+    void rejectsFileWithoutRequiredColumns() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> employeeImportService.importCsv(stream("firstName,lastName,email\nAsha,Rao,a@b.com\n")));
+        assertEquals("Missing required column: password", error.getMessage());
+    }
+    
+    private static ByteArrayInputStream stream(String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,86 @@
+package com.payroll.service;
+
+import com.payroll.dto.EmployeeResponse;
+import com.payroll.search.EmployeeIndexer;
+import com.payroll.search.FullTextSearchSupport;
+import com.payroll.search.SearchMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Search results in the default memory mode, with the index built, against what the SQL queries return.
+ * Rows inserted straight through JDBC raise no change event, so the index doesn't see them; that tells
+ * which of the two answered.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EmployeeSearchModeTest {
+    
+    @Autowired
+    private EmployeeService employeeService;
+    
+    @Autowired
+    private EmployeeIndexer employeeIndexer;
+    
+    @Autowired
+    private FullTextSearchSupport fullTextSearch;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @BeforeEach
+    void waitForIndex() throws InterruptedException {
+        assertEquals(SearchMode.MEMORY, fullTextSearch.getSearchMode());
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (!employeeIndexer.isReady()) {
+            assertTrue(System.currentTimeMillis() < deadline, "employee index never became ready");
+            Thread.sleep(50);
+        }
+    }
+    
+    @AfterEach
+    void restoreMode() {
+        ReflectionTestUtils.setField(fullTextSearch, "searchMode", SearchMode.MEMORY);
+        jdbcTemplate.update("DELETE FROM employees WHERE employee_code = ?", "MODETEST1");
+    }
+    
+    @Test
+    void codeSearchFollowsTheConfiguredMode() {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO employees (first_name, last_name, email, password, employee_code, role, " +
+                "is_active, hire_date, token_version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                "Mode", "Test", "mode-test@example.com", "x", "MODETEST1", "EMPLOYEE", true,
+                LocalDate.of(2024, 1, 1), 0L, now, now);
+        
+        assertEquals(List.of(), employeeService.searchByEmployeeCode("MODETEST1"));
+        
+        ReflectionTestUtils.setField(fullTextSearch, "searchMode", SearchMode.LIKE);
+        assertEquals(List.of("MODETEST1"), employeeService.searchByEmployeeCode("MODETEST1").stream()
+                .map(EmployeeResponse::getEmployeeCode).toList());
+    }
+    
+    @Test
+    void blankKeywordListsEveryActiveEmployee() {
+        long active = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employees WHERE is_active = TRUE", Long.class);
+        
+        Page<EmployeeResponse> page = employeeService.searchEmployees("", PageRequest.of(0, 10));
+        
+        assertEquals(active, page.getTotalElements());
+        assertEquals(Math.min(10, active), page.getContent().size());
+    }
+}
@@ -0,0 +1,241 @@
+package com.payroll.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The service against a stubbed Gemini: each call takes the next queued response, so a test controls
+ * exactly what the model returns and counts how often it was asked. A queued sink holds its call open
+ * until the test completes it.
+ */
+class GeminiAIServiceTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AIResponseCache responseCache = new AIResponseCache();
+    private final GeminiAIService service = new GeminiAIService();
+    private final Deque<Mono<ClientResponse>> responses = new ArrayDeque<>();
+    private final AtomicInteger geminiCalls = new AtomicInteger();
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ReflectionTestUtils.setField(responseCache, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(responseCache, "maxEntries", 100);
+        ReflectionTestUtils.setField(responseCache, "dataTtlMs", 60_000L);
+        ReflectionTestUtils.setField(responseCache, "promptTtlMs", 60_000L);
+        responseCache.init();
+        
+        GeminiCallGuard callGuard = mock(GeminiCallGuard.class);
+        when(callGuard.guard(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(callGuard.guard(any(Flux.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.defer(() -> {
+                    geminiCalls.incrementAndGet();
+                    return responses.removeFirst();
+                }))
+                .build();
+        
+        ReflectionTestUtils.setField(service, "geminiWebClient", webClient);
+        ReflectionTestUtils.setField(service, "responseCache", responseCache);
+        ReflectionTestUtils.setField(service, "callGuard", callGuard);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "model", "test-model");
+        ReflectionTestUtils.setField(service, "maxTokens", 100);
+        ReflectionTestUtils.setField(service, "temperature", 0.5);
+        ReflectionTestUtils.setField(service, "callTimeoutMs", 5_000L);
+        service.init();
+    }
+    
+    @Test
+    void cachesASuccessfulAnswer() {
+        responses.add(Mono.just(answer("A deduction.")));
+        
+        assertEquals("A deduction.", service.generateText("What is 80C?").block());
+        assertEquals("A deduction.", service.generateText("what is 80c?").block());
+        
+        assertEquals(1, geminiCalls.get());
+    }
+    
+    @Test
+    void concurrentCallsForOneQuestionShareOneGeminiCall() throws Exception {
+        Sinks.One<ClientResponse> gemini = Sinks.one();
+        responses.add(gemini.asMono());
+        
+        List<CompletableFuture<String>> answers = List.of(
+                service.generateText("What is 80C?").toFuture(),
+                service.generateText("what is 80C?").toFuture(),
+                service.generateText(" What is  80C? ").toFuture());
+        assertEquals(1, geminiCalls.get());
+        assertEquals(2.0, meterRegistry.get("payroll.ai.requests.coalesced").counter().count());
+        assertEquals(1, inFlight().size());
+        
+        gemini.tryEmitValue(answer("A deduction."));
+        for (CompletableFuture<String> answer : answers) {
+            assertEquals("A deduction.", answer.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, inFlight().size());
+    }
+    
+    @Test
+    void failedSharedCallGivesEveryCallerTheFallbackAndIsForgotten() throws Exception {
+        Sinks.One<ClientResponse> gemini = Sinks.one();
+        responses.add(gemini.asMono());
+        responses.add(Mono.just(answer("A deduction.")));
+        
+        List<CompletableFuture<String>> answers = List.of(
+                service.generateText("What is 80C?").toFuture(),
+                service.generateText("What is 80C?").toFuture());
+        gemini.tryEmitValue(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build());
+        for (CompletableFuture<String> answer : answers) {
+            assertEquals("Sorry, I'm unable to process your request at the moment.", answer.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(0, inFlight().size());
+        
+        // The failure isn't replayed to the next caller, which gets a call of its own
+        assertEquals("A deduction.", service.generateText("What is 80C?").block());
+        assertEquals(2, geminiCalls.get());
+    }
+    
+    @Test
+    void errorFallbackIsNotCached() {
+        responses.add(Mono.just(ClientResponse.create(HttpStatus.INTERNAL_SERVER_ERROR).build()));
+        responses.add(Mono.just(answer("A deduction.")));
+        
+        assertEquals("Sorry, I'm unable to process your request at the moment.",
+                service.generateText("What is 80C?").block());
+        assertNull(responseCache.get(responseCache.forPrompt("What is 80C?")));
+        
+        assertEquals("A deduction.", service.generateText("What is 80C?").block());
+        assertEquals(2, geminiCalls.get());
+    }
+    
+    @Test
+    void emptyAnswerFallbackIsNotCached() {
+        responses.add(Mono.just(json("{\"candidates\":[]}")));
+        responses.add(Mono.just(answer("Advice")));
+        
+        assertEquals("No response generated.", service.generateTaxAdvice(7L, "v1", "Basic 50000").block());
+        assertEquals(0, responseCache.size());
+        
+        assertEquals("Advice", service.generateTaxAdvice(7L, "v1", "Basic 50000").block());
+        assertEquals(2, geminiCalls.get());
+    }
+    
+    @Test
+    void concurrentStreamsForOneQuestionShareOneGeminiCall() throws Exception {
+        Sinks.Many<String> gemini = Sinks.many().unicast().onBackpressureBuffer();
+        responses.add(Mono.just(eventStream(gemini)));
+        
+        CompletableFuture<List<String>> first = service.streamText("What is 80C?").collectList().toFuture();
+        gemini.tryEmitNext("Section 80C ");
+        // Joins after the first piece was relayed, so gets it replayed before following along
+        CompletableFuture<List<String>> second = service.streamText("what is  80c?").collectList().toFuture();
+        gemini.tryEmitNext("allows deductions.");
+        gemini.tryEmitComplete();
+        
+        List<String> pieces = List.of("Section 80C ", "allows deductions.");
+        assertEquals(pieces, first.get(5, TimeUnit.SECONDS));
+        assertEquals(pieces, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, geminiCalls.get());
+        assertEquals(1.0, meterRegistry.get("payroll.ai.requests.coalesced").counter().count());
+        
+        // Once complete the answer comes from the cache, as one piece
+        assertEquals(List.of("Section 80C allows deductions."), service.streamText("What is 80C?").collectList().block());
+        assertEquals(1, geminiCalls.get());
+    }
+    
+    @Test
+    void streamAbandonedByEveryCallerIsCancelledAndNotShared() {
+        Sinks.Many<String> abandoned = Sinks.many().unicast().onBackpressureBuffer();
+        responses.add(Mono.just(eventStream(abandoned)));
+        responses.add(Mono.just(answerStream("A deduction.")));
+        
+        service.streamText("What is 80C?").subscribe().dispose();
+        assertEquals(0, abandoned.currentSubscriberCount(), "Gemini stream should be cancelled");
+        
+        assertEquals(List.of("A deduction."), service.streamText("What is 80C?").collectList().block());
+        assertEquals(2, geminiCalls.get());
+    }
+    
+    @Test
+    void streamErrorReachesEveryCallerAndIsNotCached() {
+        Sinks.Many<String> gemini = Sinks.many().unicast().onBackpressureBuffer();
+        responses.add(Mono.just(eventStream(gemini)));
+        
+        CompletableFuture<List<String>> first = service.streamText("What is 80C?").collectList().toFuture();
+        CompletableFuture<List<String>> second = service.streamText("What is 80C?").collectList().toFuture();
+        gemini.tryEmitNext("Section 80C ");
+        gemini.tryEmitError(new IllegalStateException("connection reset"));
+        
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        assertNull(responseCache.get(responseCache.forPrompt("What is 80C?")));
+    }
+    
+    private Map<?, ?> inFlight() {
+        return (Map<?, ?>) ReflectionTestUtils.getField(service, "inFlight");
+    }
+    
+    private static ClientResponse answer(String text) {
+        return json(candidate(text));
+    }
+    
+    private static ClientResponse answerStream(String text) {
+        Sinks.Many<String> pieces = Sinks.many().unicast().onBackpressureBuffer();
+        pieces.tryEmitNext(text);
+        pieces.tryEmitComplete();
+        return eventStream(pieces);
+    }
+    
+    // Each text emitted on the sink becomes one server-sent event holding a candidate
+    private static ClientResponse eventStream(Sinks.Many<String> pieces) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_EVENT_STREAM_VALUE)
+                .body(pieces.asFlux().map(text -> buffer("data: " + candidate(text) + "\n\n")))
+                .build();
+    }
+    
+    private static String candidate(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}]}}]}";
+    }
+    
+    private static DataBuffer buffer(String text) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static ClientResponse json(String body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build();
+    }
+}
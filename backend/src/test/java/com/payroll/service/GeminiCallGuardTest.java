@@ -0,0 +1,220 @@
+package com.payroll.service;
+
+import com.payroll.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GeminiCallGuardTest {
+    
+    private static final long OPEN_MS = 10_000;
+    
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GeminiCallGuard guard;
+    
+    @BeforeEach
+    void setUp() {
+        guard = guard(4, 4, 50, 2);
+    }
+    
+    @Test
+    void opensOnceFailureRateReachesThreshold() {
+        succeed();
+        fail();
+        succeed();
+        assertEquals(GeminiCallGuard.State.CLOSED, guard.getState());
+        
+        fail();
+        
+        assertEquals(GeminiCallGuard.State.OPEN, guard.getState());
+        assertEquals(10, rejection().getRetryAfterSeconds());
+    }
+    
+    @Test
+    void roundsRetryAfterUpToWholeSeconds() {
+        open();
+        
+        now.addAndGet(8_500);
+        assertEquals(2, rejection().getRetryAfterSeconds());
+        now.addAndGet(1_499);
+        assertEquals(1, rejection().getRetryAfterSeconds());
+    }
+    
+    @Test
+    void oldOutcomesRollOutOfTheWindow() {
+        fail();
+        succeed();
+        succeed();
+        succeed();
+        succeed();
+        fail();
+        // The first failure has rolled out, so one failure in four calls
+        assertEquals(GeminiCallGuard.State.CLOSED, guard.getState());
+        
+        fail();
+        
+        assertEquals(GeminiCallGuard.State.OPEN, guard.getState());
+    }
+    
+    @Test
+    void clientErrorsOtherThanTimeoutAndThrottlingDontCount() {
+        for (int i = 0; i < 4; i++) {
+            call(Mono.error(clientError(HttpStatus.BAD_REQUEST)));
+        }
+        assertEquals(GeminiCallGuard.State.CLOSED, guard.getState());
+        
+        succeed();
+        succeed();
+        call(Mono.error(clientError(HttpStatus.TOO_MANY_REQUESTS)));
+        call(Mono.error(clientError(HttpStatus.REQUEST_TIMEOUT)));
+        
+        assertEquals(GeminiCallGuard.State.OPEN, guard.getState());
+    }
+    
+    @Test
+    void closesAfterHalfOpenTrialsSucceed() {
+        open();
+        now.addAndGet(OPEN_MS);
+        
+        succeed();
+        assertEquals(GeminiCallGuard.State.HALF_OPEN, guard.getState());
+        succeed();
+        
+        assertEquals(GeminiCallGuard.State.CLOSED, guard.getState());
+    }
+    
+    @Test
+    void reopensWhenAHalfOpenTrialFails() {
+        open();
+        now.addAndGet(OPEN_MS);
+        
+        succeed();
+        fail();
+        
+        assertEquals(GeminiCallGuard.State.OPEN, guard.getState());
+        assertEquals(10, rejection().getRetryAfterSeconds());
+    }
+    
+    @Test
+    void limitsHalfOpenTrialsAndReturnsCancelledOnes() {
+        open();
+        now.addAndGet(OPEN_MS);
+        Disposable first = hold();
+        hold();
+        
+        assertEquals(1, rejection().getRetryAfterSeconds());
+        
+        first.dispose();
+        hold();
+        assertEquals(1, rejection().getRetryAfterSeconds());
+    }
+    
+    @Test
+    void ignoresOutcomesOfCallsAdmittedBeforeTheLastTransition() {
+        Sinks.One<String> slowSuccess = Sinks.one();
+        Sinks.One<String> slowFailure = Sinks.one();
+        slowSuccess.asMono().as(guard::guard).subscribe(text -> { }, error -> { });
+        slowFailure.asMono().as(guard::guard).subscribe(text -> { }, error -> { });
+        open();
+        now.addAndGet(OPEN_MS);
+        succeed();
+        
+        // Neither call may decide the half-open trial: one would close the circuit, the other reopen it
+        slowSuccess.tryEmitValue("late");
+        slowFailure.tryEmitError(new IllegalStateException("late"));
+        
+        assertEquals(GeminiCallGuard.State.HALF_OPEN, guard.getState());
+        succeed();
+        assertEquals(GeminiCallGuard.State.CLOSED, guard.getState());
+    }
+    
+    @Test
+    void rejectsCallsPastTheBulkhead() {
+        ReflectionTestUtils.setField(guard, "maxConcurrent", 1);
+        guard.init();
+        Disposable running = hold();
+        
+        assertEquals(1, rejection().getRetryAfterSeconds());
+        
+        running.dispose();
+        succeed();
+    }
+    
+    @Test
+    void timesEachCallByOutcome() {
+        // All four timers exist from startup rather than being looked up on each call
+        assertEquals(4, meterRegistry.find("payroll.ai.gemini.calls").timers().size());
+        
+        succeed();
+        fail();
+        call(Mono.error(clientError(HttpStatus.BAD_REQUEST)));
+        hold().dispose();
+        
+        for (String outcome : new String[] {"success", "failure", "ignored", "cancelled"}) {
+            assertEquals(1, meterRegistry.get("payroll.ai.gemini.calls").tag("outcome", outcome).timer().count(), outcome);
+        }
+    }
+    
+    private GeminiCallGuard guard(int windowSize, int minimumCalls, int failureRateThreshold, int halfOpenCalls) {
+        GeminiCallGuard created = new GeminiCallGuard();
+        ReflectionTestUtils.setField(created, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(created, "maxConcurrent", 20);
+        ReflectionTestUtils.setField(created, "windowSize", windowSize);
+        ReflectionTestUtils.setField(created, "minimumCalls", minimumCalls);
+        ReflectionTestUtils.setField(created, "failureRateThreshold", failureRateThreshold);
+        ReflectionTestUtils.setField(created, "openMs", OPEN_MS);
+        ReflectionTestUtils.setField(created, "halfOpenCalls", halfOpenCalls);
+        ReflectionTestUtils.setField(created, "clock", (LongSupplier) now::get);
+        created.init();
+        return created;
+    }
+    
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(GeminiCallGuard.State.OPEN, guard.getState());
+    }
+    
+    private Disposable hold() {
+        AtomicReference<Throwable> rejected = new AtomicReference<>();
+        Disposable call = guard.guard(Mono.<String>never()).subscribe(text -> { }, rejected::set);
+        assertNull(rejected.get());
+        return call;
+    }
+    
+    private void succeed() {
+        assertEquals("ok", guard.guard(Mono.just("ok")).block());
+    }
+    
+    private void fail() {
+        call(Mono.error(new IllegalStateException("unavailable")));
+    }
+    
+    private void call(Mono<String> outcome) {
+        assertThrows(RuntimeException.class, () -> guard.guard(outcome).block());
+    }
+    
+    private ServiceBusyException rejection() {
+        return assertThrows(ServiceBusyException.class, () -> guard.guard(Mono.just("ok")).block());
+    }
+    
+    private static WebClientResponseException clientError(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), null, null, null);
+    }
+}
@@ -0,0 +1,187 @@
+package com.payroll.service;
+
+import com.payroll.entity.Employee;
+import com.payroll.exception.InvalidTokenException;
+import com.payroll.repository.EmployeeRepository;
+import com.payroll.repository.RefreshTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Refresh path under a payday storm: thousands of sessions renewing their access tokens at once from
+ * many threads. Reports throughput and latency percentiles and checks every rotation succeeded.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenLoadTest.class);
+
+    private static final int SESSIONS = 2_000;
+    private static final int REFRESHES_PER_SESSION = 3;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void paydayRefreshStorm() throws Exception {
+        List<Employee> employees = employeeRepository.findAll(PageRequest.of(0, 50)).getContent();
+        List<String> sessions = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(refreshTokenService.issue(employees.get(i % employees.size())));
+        }
+
+        ConcurrentLinkedQueue<Long> samples = new ConcurrentLinkedQueue<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (String session : sessions) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                String token = session;
+                for (int i = 0; i < REFRESHES_PER_SESSION; i++) {
+                    long begin = System.nanoTime();
+                    token = refreshTokenService.rotate(token).refreshToken();
+                    samples.add(System.nanoTime() - begin);
+                }
+                return null;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+
+        long[] sorted = samples.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        assertEquals(SESSIONS * REFRESHES_PER_SESSION, sorted.length);
+        logger.info("{} refreshes on {} threads in {} ms ({}/s): p50={} ms, p99={} ms",
+                sorted.length, THREADS, elapsedMs, sorted.length * 1000 / Math.max(1, elapsedMs),
+                String.format("%.2f", sorted[sorted.length / 2] / 1e6),
+                String.format("%.2f", sorted[(int) (sorted.length * 0.99)] / 1e6));
+
+        // Generous bound for slow CI machines; 32 threads queue on the connection pool, so p99 is mostly wait time
+        assertTrue(sorted[(int) (sorted.length * 0.99)] < 1_000_000_000L, "refresh p99 should stay under 1 s");
+    }
+
+    @Test
+    void replayingRotatedTokenRevokesTheSession() {
+        Employee employee = employeeRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        String first = refreshTokenService.issue(employee);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(first));
+        // The replay revoked the whole family, including the legitimately rotated token
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(second));
+    }
+
+    @Test
+    void concurrentRotationOfOneTokenHasExactlyOneWinner() throws Exception {
+        Employee employee = employeeRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String token = refreshTokenService.issue(employee);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<RefreshTokenService.Rotation>> attempts = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    attempts.add(pool.submit(() -> {
+                        start.await();
+                        return refreshTokenService.rotate(token);
+                    }));
+                }
+                start.countDown();
+
+                int rotated = 0;
+                for (Future<RefreshTokenService.Rotation> attempt : attempts) {
+                    try {
+                        attempt.get(30, TimeUnit.SECONDS);
+                        rotated++;
+                    } catch (ExecutionException e) {
+                        // The loser gets a 401, whether it raced the winner's update or read after its commit
+                        assertInstanceOf(InvalidTokenException.class, e.getCause());
+                    }
+                }
+                assertEquals(1, rotated);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void sweepDeletesExpiredTokensInBulk() {
+        Long employeeId = employeeRepository.findAll(PageRequest.of(0, 1)).getContent().get(0).getEmployeeId();
+        Timestamp past = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            rows.add(new Object[] {String.format("%064d", i), employeeId, "expired-family", 0L, past});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO refresh_tokens (token_hash, employee_id, family_id, token_version, expires_at) " +
+                "VALUES (?, ?, ?, ?, ?)", rows);
+
+        long before = refreshTokenRepository.count();
+        refreshTokenService.sweepExpired();
+        assertEquals(before - 500, refreshTokenRepository.count());
+    }
+
+    @Test
+    void sweepDeletesUsedTokensOnceTheReuseWindowHasPassed() {
+        Employee employee = employeeRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        String first = refreshTokenService.issue(employee);
+        String second = refreshTokenService.rotate(first).refreshToken();
+        String third = refreshTokenService.rotate(second).refreshToken();
+        String familyId = jdbcTemplate.queryForObject("SELECT family_id FROM refresh_tokens WHERE rotated_at IS NOT NULL " +
+                "ORDER BY rotated_at DESC LIMIT 1", String.class);
+        // The first token was used two days ago, the second just now
+        jdbcTemplate.update("UPDATE refresh_tokens SET rotated_at = ? WHERE family_id = ? AND rotated_at = " +
+                "(SELECT MIN(rotated_at) FROM refresh_tokens WHERE family_id = ?)",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(2)), familyId, familyId);
+
+        refreshTokenService.sweepExpired();
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM refresh_tokens WHERE family_id = ?",
+                Integer.class, familyId));
+        // A replay inside the window still revokes the session
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(second));
+        assertThrows(InvalidTokenException.class, () -> refreshTokenService.rotate(third));
+    }
+}
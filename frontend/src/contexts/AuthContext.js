@@ -23,7 +23,8 @@ export const AuthProvider = ({ children }) => {
         const decodedToken = jwtDecode(token);
         const currentTime = Date.now() / 1000;
         
-        if (decodedToken.exp > currentTime) {
+        // An expired access token is fine while a refresh token can renew it on the next request
+        if (decodedToken.exp > currentTime || localStorage.getItem('refreshToken')) {
           // Token is valid
           const userData = JSON.parse(localStorage.getItem('user'));
           setUser(userData);
@@ -43,9 +44,10 @@ export const AuthProvider = ({ children }) => {
   const login = async (email, password) => {
     try {
       const response = await api.post('/auth/login', { email, password });
-      const { token, ...userData } = response.data;
+      const { token, refreshToken, ...userData } = response.data;
       
       localStorage.setItem('token', token);
+      localStorage.setItem('refreshToken', refreshToken);
       localStorage.setItem('user', JSON.stringify(userData));
       
       setUser(userData);
@@ -75,7 +77,15 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    const token = localStorage.getItem('token');
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (token) {
+      // Revoke the tokens server-side; local state is cleared whatever the outcome
+      api.post('/auth/logout', refreshToken ? { refreshToken } : null,
+        { headers: { Authorization: `Bearer ${token}` } }).catch(() => {});
+    }
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
     localStorage.removeItem('user');
     setUser(null);
     delete api.defaults.headers.common['Authorization'];
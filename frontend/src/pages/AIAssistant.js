@@ -37,9 +37,12 @@ const AIAssistant = () => {
 
   const fetchInsights = async () => {
     try {
-      // Use the correct service method that matches backend
-      const response = await aiService.getMySalaryInsights();
-      setInsights(response.data);
+      // Streamed, so the insights fill in while Gemini is still writing them
+      let text = '';
+      await aiService.streamMySalaryInsights((piece) => {
+        text += piece;
+        setInsights(text);
+      });
     } catch (error) {
       console.log('No salary insights available:', error.message);
     }
@@ -47,9 +50,11 @@ const AIAssistant = () => {
 
   const fetchTaxAdvice = async () => {
     try {
-      // Use the correct service method that matches backend
-      const response = await aiService.getMyTaxAdvice();
-      setTaxAdvice(response.data);
+      let text = '';
+      await aiService.streamMyTaxAdvice((piece) => {
+        text += piece;
+        setTaxAdvice(text);
+      });
     } catch (error) {
       console.log('No tax advice available:', error.message);
     }
@@ -77,22 +82,26 @@ const AIAssistant = () => {
     setMessage('');
     setLoading(true);
 
+    // The answer is streamed: its message appears with the first piece and grows as the rest arrives
+    const aiMessageId = `ai-${Date.now()}`;
+    let text = '';
     try {
-      const response = await aiService.chatWithAI(message);
-      const aiMessage = { 
-        text: response.data.response || response.data, 
-        sender: 'ai', 
-        timestamp: new Date() 
-      };
-      setChatHistory(prev => [...prev, aiMessage]);
+      await aiService.streamQuestion(message, (piece) => {
+        text += piece;
+        setChatHistory(prev => prev.some(msg => msg.id === aiMessageId)
+          ? prev.map(msg => (msg.id === aiMessageId ? { ...msg, text } : msg))
+          : [...prev, { id: aiMessageId, text, sender: 'ai', timestamp: new Date() }]);
+      });
     } catch (error) {
-      const errorMessage = { 
-        text: 'Sorry, I encountered an error. Please try again.', 
-        sender: 'ai', 
-        timestamp: new Date() 
-      };
-      setChatHistory(prev => [...prev, errorMessage]);
-      toast.error('Failed to get AI response');
+      if (!text) {
+        const errorMessage = { 
+          text: 'Sorry, I encountered an error. Please try again.', 
+          sender: 'ai', 
+          timestamp: new Date() 
+        };
+        setChatHistory(prev => [...prev, errorMessage]);
+      }
+      toast.error(error.status === 429 ? 'Too many AI requests. Please wait a moment.' : 'Failed to get AI response');
     } finally {
       setLoading(false);
     }
@@ -231,7 +240,7 @@ const AIAssistant = () => {
                         </div>
                       </div>
                     ))}
-                    {loading && (
+                    {loading && chatHistory[chatHistory.length - 1]?.sender === 'user' && (
                       <div className="d-flex justify-content-start mb-3">
                         <div className="bg-white border p-3 rounded-3">
                           <div className="typing-indicator">
@@ -27,6 +27,7 @@ import { useAuth } from '../contexts/AuthContext';
 import Loading from '../components/common/Loading';
 import { FaChartBar, FaCalendarAlt, FaUsers, FaDollarSign } from 'react-icons/fa';
 import { toast } from 'react-toastify';
+import { subscribeToEvents } from '../services/sse';
 
 // Register Chart.js components
 ChartJS.register(
@@ -62,6 +63,20 @@ const Analytics = () => {
     fetchAnalyticsData();
   }, [selectedYear]);
 
+  // Overview figures are pushed by the server when payroll data changes instead of being polled
+  useEffect(() => {
+    return subscribeToEvents('/api/api/analytics/stream', (event, data) => {
+      if (event !== 'snapshot' && event !== 'delta') return;
+      const figures = JSON.parse(data);
+      setAnalyticsData((current) => ({
+        ...current,
+        overview: { ...current.overview, ...figures }
+      }));
+    }, {
+      onError: (error) => console.error('Live analytics stream closed:', error)
+    });
+  }, []);
+
   const fetchAnalyticsData = async () => {
     try {
       setLoading(true);
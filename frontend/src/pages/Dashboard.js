@@ -3,6 +3,7 @@ import { Container, Row, Col, Card, Button } from 'react-bootstrap';
 import { useAuth } from '../contexts/AuthContext';
 import { employeeService, salaryService } from '../services/employeeService';
 import Loading from '../components/common/Loading';
+import { subscribeToEvents } from '../services/sse';
 import { 
   FaUsers, 
   FaDollarSign, 
@@ -28,6 +29,24 @@ const Dashboard = () => {
     fetchDashboardData();
   }, []);
 
+  // Live admin figures; the server only sends the fields that changed after the initial snapshot
+  useEffect(() => {
+    if (!isAdmin()) return undefined;
+    return subscribeToEvents('/api/api/analytics/stream', (event, data) => {
+      if (event !== 'snapshot' && event !== 'delta') return;
+      const figures = JSON.parse(data);
+      setStats((current) => ({
+        ...current,
+        ...(figures.activeEmployees !== undefined && { totalEmployees: figures.activeEmployees }),
+        ...(figures.totalDepartments !== undefined && { totalDepartments: figures.totalDepartments }),
+        ...(figures.totalSalaryBudget !== undefined && { totalSalaryAmount: Number(figures.totalSalaryBudget) }),
+        ...(figures.pendingSalaries !== undefined && { pendingPayslips: figures.pendingSalaries })
+      }));
+    }, {
+      onError: (error) => console.error('Live dashboard stream closed:', error)
+    });
+  }, []);
+
   const fetchDashboardData = async () => {
     try {
       setLoading(true);
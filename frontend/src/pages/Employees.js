@@ -15,6 +15,7 @@ import {
   FormControl
 } from 'react-bootstrap';
 import api, { endpoints, formatCurrency } from '../services/api';
+import { employeeService } from '../services/employeeService';
 import Loading from '../components/common/Loading';
 import { FaPlus, FaEdit, FaTrash, FaEye, FaSearch, FaFilter } from 'react-icons/fa';
 import { toast } from 'react-toastify';
@@ -43,12 +44,35 @@ const Employees = () => {
   const [searchQuery, setSearchQuery] = useState('');
   const [searchResults, setSearchResults] = useState([]);
   const [isSearching, setIsSearching] = useState(false);
+  const [suggestions, setSuggestions] = useState([]);
 
   useEffect(() => {
     fetchEmployees();
     fetchDepartments();
   }, []);
 
+  // Type-ahead suggestions for name/code searches, served from the backend's in-memory prefix index
+  useEffect(() => {
+    const prefix = searchQuery.trim();
+    if (prefix.length < 2 || !['all', 'name', 'code'].includes(searchType)) {
+      setSuggestions([]);
+      return undefined;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await employeeService.suggestEmployees(prefix, 8);
+        if (!cancelled) setSuggestions(response.data);
+      } catch (error) {
+        if (!cancelled) setSuggestions([]);
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [searchQuery, searchType]);
+
   const fetchEmployees = async () => {
     try {
       const response = await api.get(endpoints.employees);
@@ -83,11 +107,24 @@ const Employees = () => {
     setLoading(true);
     
     try {
+      // A picked suggestion already identifies its employees, so fetch them by ID in one round trip
+      const query = searchQuery.trim().toLowerCase();
+      const picked = suggestions.filter((suggestion) =>
+        (searchType === 'code' ? suggestion.employeeCode : suggestion.fullName).toLowerCase() === query);
+      if (picked.length > 0) {
+        const byIds = await employeeService.getEmployeesByIds(picked.map((suggestion) => suggestion.employeeId));
+        setEmployees(byIds.data);
+        return;
+      }
+      
       let response;
       switch (searchType) {
         case 'name':
           response = await api.get(`/admin/employees/search/name?name=${encodeURIComponent(searchQuery)}`);
           break;
+        case 'fuzzy':
+          response = await api.get(`/admin/employees/search/fuzzy?name=${encodeURIComponent(searchQuery)}`);
+          break;
         case 'id':
           response = await api.get(`/admin/employees/search/id/${searchQuery}`);
           setEmployees([response.data]);
@@ -218,6 +255,7 @@ const Employees = () => {
               >
                 <option value="all">All Fields</option>
                 <option value="name">Name</option>
+                <option value="fuzzy">Name (typo-tolerant)</option>
                 <option value="id">Employee ID</option>
                 <option value="code">Employee Code</option>
                 <option value="department">Department</option>
@@ -229,14 +267,25 @@ const Employees = () => {
                   placeholder={
                     searchType === 'id' ? 'Enter employee ID...' :
                     searchType === 'code' ? 'Enter employee code...' :
-                    searchType === 'name' ? 'Enter employee name...' :
+                    searchType === 'name' || searchType === 'fuzzy' ? 'Enter employee name...' :
                     searchType === 'department' ? 'Enter department name...' :
                     'Search by name, code, email, or department...'
                   }
                   value={searchQuery}
                   onChange={(e) => setSearchQuery(e.target.value)}
                   onKeyPress={(e) => e.key === 'Enter' && handleSearch()}
+                  list="employee-suggestions"
                 />
+                <datalist id="employee-suggestions">
+                  {suggestions.map((suggestion) => (
+                    <option
+                      key={suggestion.employeeId}
+                      value={searchType === 'code' ? suggestion.employeeCode : suggestion.fullName}
+                    >
+                      {`${suggestion.employeeCode}${suggestion.departmentName ? ` · ${suggestion.departmentName}` : ''}`}
+                    </option>
+                  ))}
+                </datalist>
                 <Button variant="primary" onClick={handleSearch}>
                   <FaSearch className="me-2" />
                   Search
@@ -20,15 +20,49 @@ api.interceptors.request.use(
   }
 );
 
+// Access tokens are short-lived; on a 401 trade the refresh token for a new pair once and retry.
+// Concurrent failures share a single refresh call, since each refresh token can only be used once.
+let refreshInFlight = null;
+
+export const refreshTokens = () => {
+  if (!refreshInFlight) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    refreshInFlight = axios.post('/api/auth/refresh', { refreshToken })
+      .then(({ data }) => {
+        localStorage.setItem('token', data.token);
+        localStorage.setItem('refreshToken', data.refreshToken);
+        return data.token;
+      })
+      .finally(() => {
+        refreshInFlight = null;
+      });
+  }
+  return refreshInFlight;
+};
+
 // Response interceptor
 api.interceptors.response.use(
   (response) => {
     return response;
   },
-  (error) => {
+  async (error) => {
+    const original = error.config;
+    if (error.response?.status === 401 && original && !original._retried
+        && !original.url?.startsWith('/auth/') && localStorage.getItem('refreshToken')) {
+      original._retried = true;
+      try {
+        const token = await refreshTokens();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch (refreshError) {
+        // Fall through to the normal 401 handling below
+      }
+    }
+
     if (error.response?.status === 401) {
       // Token expired or invalid
       localStorage.removeItem('token');
+      localStorage.removeItem('refreshToken');
       localStorage.removeItem('user');
       window.location.href = '/login';
     } else if (error.response?.status === 403) {
@@ -56,6 +90,7 @@ export const endpoints = {
   employeesSearch: '/admin/employees/search',
   employeesByDepartment: (deptId) => `/admin/employees/department/${deptId}`,
   employeesByRole: (role) => `/admin/employees/role/${role}`,
+  employeesBatch: '/admin/employees/batch',
   
   // Employee endpoints
   profile: '/employee/profile',
@@ -84,6 +119,9 @@ export const endpoints = {
   payrollReport: (month, year) => `/ai/payroll-report/${month}/${year}`,
   compensationBenchmark: '/ai/compensation-benchmark',
   askQuestion: '/ai/ask-question',
+  streamQuestion: '/ai/stream/ask-question',
+  streamMySalaryInsights: '/ai/stream/my-salary-insights',
+  streamMyTaxAdvice: '/ai/stream/my-tax-advice',
   
   // Statistics
   employeeCount: '/admin/statistics/employees/count',
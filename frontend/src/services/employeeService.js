@@ -1,18 +1,38 @@
 import api, { endpoints } from './api';
+import { readEventStream } from './sse';
 
 export const employeeService = {
   // Admin endpoints - using correct endpoints
   getAllEmployees: () => api.get(endpoints.employees),
   getEmployeeById: (id) => api.get(`${endpoints.employees}/${id}`),
+  // One round trip for a list of references; results come back in the order of ids
+  getEmployeesByIds: (ids) => api.get(endpoints.employeesBatch, { params: { ids: ids.join(',') } }),
   createEmployee: (data) => api.post(endpoints.employees, data),
   updateEmployee: (id, data) => api.put(`${endpoints.employees}/${id}`, data),
   deleteEmployee: (id) => api.delete(`${endpoints.employees}/${id}`),
   searchEmployees: (keyword, params) => api.get(`${endpoints.employeesSearch}?keyword=${keyword}`, { params }),
+  importEmployees: (file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    return api.post('/admin/employees/import', formData, { headers: { 'Content-Type': 'multipart/form-data' } });
+  },
+  // Bulk mutations: body selects employeeIds and/or filter { departmentId, role, active }
+  bulkDeactivate: (selection) => api.post('/admin/employees/bulk/deactivate', selection),
+  bulkTransfer: (selection, departmentId) => api.post('/admin/employees/bulk/transfer', { ...selection, departmentId }),
+  bulkChangeRole: (selection, role) => api.post('/admin/employees/bulk/role', { ...selection, role }),
   getEmployeesByDepartment: (deptId) => api.get(endpoints.employeesByDepartment(deptId)),
   getEmployeesByRole: (role) => api.get(endpoints.employeesByRole(role)),
   
+  // Faceted directory: params may repeat departmentId, role and hireYear; counts come back per facet
+  getDirectory: (params) => api.get('/admin/employees/directory', {
+    params,
+    paramsSerializer: { indexes: null }
+  }),
+  suggestEmployees: (prefix, limit = 10) => api.get('/admin/employees/suggest', { params: { prefix, limit } }),
+  
   // New search methods
   searchByName: (name) => api.get(`/admin/employees/search/name?name=${encodeURIComponent(name)}`),
+  fuzzySearchByName: (name) => api.get(`/admin/employees/search/fuzzy?name=${encodeURIComponent(name)}`),
   searchById: (id) => api.get(`/admin/employees/search/id/${id}`),
   searchByEmployeeCode: (code) => api.get(`/admin/employees/search/code?code=${encodeURIComponent(code)}`),
   searchByDepartmentName: (deptName) => api.get(`/admin/employees/search/department?deptName=${encodeURIComponent(deptName)}`),
@@ -85,8 +105,30 @@ export const aiService = {
   getCompensationBenchmark: (data) => api.post('/ai/compensation-benchmark', data),
   askQuestion: (question) => api.post(`/ai/ask-question?question=${encodeURIComponent(question)}`),
   chatWithAI: (message) => api.post(`/ai/ask-question?question=${encodeURIComponent(message)}`),
+  // Streamed answers: onText receives each piece as Gemini generates it
+  streamQuestion: (question, onText, signal) =>
+    streamAnswer(endpoints.streamQuestion, { method: 'POST', body: { question }, signal }, onText),
+  streamMySalaryInsights: (onText, signal) => streamAnswer(endpoints.streamMySalaryInsights, { signal }, onText),
+  streamMyTaxAdvice: (onText, signal) => streamAnswer(endpoints.streamMyTaxAdvice, { signal }, onText),
 };
 
+// An error event rejects the stream after whatever text already arrived. Each answer is generated per
+// request, so unlike the live figures a dropped stream is not resubscribed.
+const streamAnswer = (path, { method, body, signal }, onText) => readEventStream(`/api${path}`, {
+  method,
+  body: body !== undefined ? JSON.stringify(body) : undefined,
+  signal,
+  onEvent: (event, data) => {
+    const { text } = JSON.parse(data);
+    if (event === 'error') {
+      throw new Error(text);
+    }
+    if (event !== 'done') {
+      onText(text);
+    }
+  },
+});
+
 export const authService = {
   login: (credentials) => api.post(endpoints.login, credentials),
   logout: () => api.post(endpoints.logout),
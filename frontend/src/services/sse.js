@@ -0,0 +1,126 @@
+import { refreshTokens } from './api';
+
+// Minimal Server-Sent Events client built on fetch so the JWT can be sent as a header
+// (the browser EventSource API cannot set Authorization).
+
+const INITIAL_RETRY_MS = 1000;
+const MAX_RETRY_MS = 30000;
+
+const sleep = (ms, signal) => new Promise((resolve) => {
+  const timer = setTimeout(resolve, ms);
+  signal.addEventListener('abort', () => {
+    clearTimeout(timer);
+    resolve();
+  }, { once: true });
+});
+
+const statusError = (status) => {
+  const error = new Error(`Event stream failed with status ${status}`);
+  error.status = status;
+  return error;
+};
+
+// Reads one event stream, calling onEvent(name, data, id) for each event, and resolves when the server
+// ends it. A 401 trades the refresh token for a new access token once and retries.
+export const readEventStream = async (url, { method = 'GET', body, signal, lastEventId, onEvent }) => {
+  const send = () => {
+    const token = localStorage.getItem('token');
+    return fetch(url, {
+      method,
+      body,
+      signal,
+      headers: {
+        Accept: 'text/event-stream',
+        ...(body ? { 'Content-Type': 'application/json' } : {}),
+        ...(token ? { Authorization: `Bearer ${token}` } : {}),
+        ...(lastEventId ? { 'Last-Event-ID': lastEventId } : {})
+      }
+    });
+  };
+
+  let response = await send();
+  if (response.status === 401 && localStorage.getItem('refreshToken')) {
+    await refreshTokens();
+    response = await send();
+  }
+  if (!response.ok || !response.body) {
+    throw statusError(response.status);
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  try {
+    for (;;) {
+      const { value, done } = await reader.read();
+      if (done) break;
+      buffer += decoder.decode(value, { stream: true });
+
+      let match;
+      while ((match = /\r?\n\r?\n/.exec(buffer)) !== null) {
+        const rawEvent = buffer.slice(0, match.index);
+        buffer = buffer.slice(match.index + match[0].length);
+
+        let name = 'message';
+        let id;
+        const data = [];
+        rawEvent.split(/\r?\n/).forEach((line) => {
+          if (line.startsWith('event:')) name = line.slice(6).trim();
+          else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+          else if (line.startsWith('id:')) id = line.slice(3).trim();
+        });
+        if (data.length > 0) {
+          onEvent(name, data.join('\n'), id);
+        }
+      }
+    }
+  } finally {
+    reader.cancel().catch(() => {});
+  }
+};
+
+// Long-lived subscription: reconnects with exponential backoff whenever the stream ends (server timeout,
+// eviction of a slow client, network drop), sending the last event ID it saw. Gives up only when the
+// session is gone or access is refused. Returns a function that unsubscribes.
+export const subscribeToEvents = (url, onEvent, { onError, method = 'GET', body } = {}) => {
+  const controller = new AbortController();
+  const { signal } = controller;
+
+  const run = async () => {
+    let lastEventId;
+    let retryMs = INITIAL_RETRY_MS;
+    while (!signal.aborted) {
+      try {
+        await readEventStream(url, {
+          method,
+          body,
+          signal,
+          lastEventId,
+          onEvent: (name, data, id) => {
+            retryMs = INITIAL_RETRY_MS;
+            if (id !== undefined) lastEventId = id;
+            onEvent(name, data);
+          }
+        });
+      } catch (error) {
+        if (error.name === 'AbortError') return;
+        const status = error.status ?? error.response?.status;
+        if (status === 401 || status === 403) {
+          // The refresh failed or the user may not see this stream; retrying can't help
+          if (onError) onError(error);
+          return;
+        }
+      }
+      await sleep(retryMs, signal);
+      retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+    }
+  };
+
+  run().catch((error) => {
+    if (error.name !== 'AbortError' && onError) {
+      onError(error);
+    }
+  });
+
+  return () => controller.abort();
+};